@@ -43,6 +43,7 @@ public class SecurityConfig {
                 .pathMatchers(HttpMethod.GET, "/app2/api/v1/category/id").permitAll()
                 .pathMatchers(HttpMethod.GET, "/app2/api/v1/category/categoryName").permitAll()
                 .pathMatchers(HttpMethod.GET, "/app2/api/v1/food/find/instock").permitAll()
+                .pathMatchers(HttpMethod.POST, "/app2/api/v1/food/find/instock").permitAll()
                 
              
                 .pathMatchers(HttpMethod.POST, "/app2/api/v1/food/register").hasRole("ADMIN")
@@ -71,6 +72,9 @@ public class SecurityConfig {
                 .pathMatchers(HttpMethod.PUT, "/app1/api/v1/users/**").hasRole("ADMIN")
                 
                 .pathMatchers(HttpMethod.GET, "/app2/api/v1/orders/all").authenticated()  
+                .pathMatchers(HttpMethod.GET, "/app2/api/v1/orders/page").authenticated()
+                // Delivered-order facts for the feedback service backfill; never reachable from outside.
+                .pathMatchers("/app2/api/v1/orders/delivered").denyAll()
                 .pathMatchers(HttpMethod.PATCH, "/app2/api/v1/orders/status/**").hasRole("ADMIN")
                 .pathMatchers(HttpMethod.PUT, "/app2/api/v1/orders/status/**").hasRole("ADMIN")
                 .pathMatchers(HttpMethod.PATCH, "/app2/api/v1/orders/assign/**").hasRole("ADMIN")
@@ -88,6 +92,13 @@ public class SecurityConfig {
           
                 .pathMatchers("/app2/api/v1/delivery/**").hasRole("DELIVERY_PARTNER")
                 
+                // Internal feed from foodserviceapp; never reachable from outside.
+                .pathMatchers("/app3/api/v1/feedback/orders/**").denyAll()
+                // Cache hooks called by userservice; never reachable from outside.
+                .pathMatchers("/app2/api/v1/cache/**").denyAll()
+                // Partner reservation is done by foodserviceapp when an order is placed.
+                .pathMatchers("/app1/api/v1/users/deliverypartners/reserve").denyAll()
+                
              
                 .anyExchange().authenticated()
             )
@@ -4,20 +4,23 @@ import './ViewOrders.css';
 import axios from 'axios';
 import AdminLayout from '../../../components/Admin/AdminLayout/AdminLayout';
 import api from '../../../config/api';
+import { fetchOrdersPage } from '../../../utils/orderPages';
 
 const ViewOrders = () => {
   const [orders, setOrders] = useState([]);
   const [selectedTab, setSelectedTab] = useState('orders');
   const [assigningOrder, setAssigningOrder] = useState(null);
   const [deliveryPartners, setDeliveryPartners] = useState([]);
+  const [nextAfterId, setNextAfterId] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
 
  
   useEffect(() => {
     const fetchOrders = async () => {
       try {
-        const data = await api.get('/app2/api/v1/orders/all');
-        console.log('Fetched orders:', data.data);
-        setOrders(data.data);
+        const page = await fetchOrdersPage();
+        setOrders(page.orders);
+        setNextAfterId(page.nextAfterId);
       } catch (err) {
         console.error('Failed to fetch orders', err);
       }
@@ -26,6 +29,19 @@ const ViewOrders = () => {
     fetchOrders();
   }, []);
 
+  const loadMoreOrders = async () => {
+    setLoadingMore(true);
+    try {
+      const page = await fetchOrdersPage(nextAfterId);
+      setOrders(prev => [...prev, ...page.orders]);
+      setNextAfterId(page.nextAfterId);
+    } catch (err) {
+      console.error('Failed to fetch more orders', err);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   useEffect(() => {
     const fetchDeliveryPartners = async () => {
       try {
@@ -48,8 +64,11 @@ const ViewOrders = () => {
       if (res.status === 200) {
         console.log('Assigned delivery partner:', res.data);
       
-        const ordersRes = await api.get('/app2/api/v1/orders/all');
-        setOrders(ordersRes.data);
+        // Update the order in place so the pages already loaded stay on screen
+        const partner = deliveryPartners.find(p => p.id === partnerId);
+        setOrders(prev => prev.map(order => order.id === orderId
+          ? { ...order, deliveryPartnerId: partnerId, assignDeliveryPerson: partner?.name || order.assignDeliveryPerson }
+          : order));
         setAssigningOrder(null);
      
       }
@@ -117,7 +136,7 @@ const ViewOrders = () => {
         <div className="orders-section">
           <div className="orders-stats">
             <div className="stat-card">
-              <h3>Total Orders</h3>
+              <h3>Orders Shown</h3>
               <div className="stat-number">{orders.length}</div>
             </div>
             <div className="stat-card">
@@ -233,6 +252,12 @@ const ViewOrders = () => {
               </div>
             ))}
           </div>
+
+          {nextAfterId !== null && (
+            <button className="load-more-btn" onClick={loadMoreOrders} disabled={loadingMore}>
+              {loadingMore ? 'Loading...' : 'Load more orders'}
+            </button>
+          )}
         </div>
       )}
 
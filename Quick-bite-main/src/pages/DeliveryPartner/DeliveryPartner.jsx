@@ -2,12 +2,15 @@ import React, { useState, useEffect } from 'react';
 import './DeliveryPartner.css';
 import axios from 'axios';
 import api from '../../config/api';
+import { fetchOrdersPage } from '../../utils/orderPages';
 import { useNavigate } from 'react-router-dom';
 
 const DeliveryPartner = () => {
   const navigate = useNavigate();
   const [activeTab, setActiveTab] = useState('orders');
   const [orders, setOrders] = useState([]);
+  const [nextAfterId, setNextAfterId] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [partnerData, setPartnerData] = useState(null);
   const [isAvailable, setIsAvailable] = useState(false);
   const [otpInput, setOtpInput] = useState('');
@@ -114,14 +117,27 @@ const DeliveryPartner = () => {
 
   const fetchAssignedOrders = async () => {
     try {
-      const res = await api.get('/app2/api/v1/orders/all');
-      console.log('Assigned orders from backend:', res.data);
-      setOrders(res.data);
+      const page = await fetchOrdersPage();
+      setOrders(page.orders);
+      setNextAfterId(page.nextAfterId);
     } catch (err) {
       console.error('Failed to fetch orders', err);
     }
   };
 
+  const loadMoreOrders = async () => {
+    setLoadingMore(true);
+    try {
+      const page = await fetchOrdersPage(nextAfterId);
+      setOrders(prev => [...prev, ...page.orders]);
+      setNextAfterId(page.nextAfterId);
+    } catch (err) {
+      console.error('Failed to fetch more orders', err);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const toggleAvailability = async () => {
     const newAvailability = !isAvailable;
     try {
@@ -513,6 +529,11 @@ const DeliveryPartner = () => {
               </div>
             </div>
             {renderOrders()}
+            {nextAfterId !== null && (
+              <button className="load-more-btn" onClick={loadMoreOrders} disabled={loadingMore}>
+                {loadingMore ? 'Loading...' : 'Load more orders'}
+              </button>
+            )}
           </div>
         )}
       </div>
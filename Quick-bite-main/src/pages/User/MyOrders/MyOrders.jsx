@@ -4,6 +4,10 @@ import { assets } from '../../../assets/assets';
 import Navbar from '../../../components/User/Navbar/NavBar';
 import api from '../../../config/api';
 import { toast } from 'react-toastify';
+import { fetchOrdersPage } from '../../../utils/orderPages';
+
+// The rating status endpoint accepts at most this many order IDs per request
+const RATING_STATUS_BATCH_SIZE = 200;
 
 const MyOrders = () => {
     const [orders, setOrders] = useState([]);
@@ -11,6 +15,8 @@ const MyOrders = () => {
     const [loading, setLoading] = useState(true);
     const [ratingStates, setRatingStates] = useState({});
     const [ratingStatusCache, setRatingStatusCache] = useState({});
+    const [nextAfterId, setNextAfterId] = useState(null);
+    const [loadingMore, setLoadingMore] = useState(false);
 
     useEffect(() => {
         const user = JSON.parse(localStorage.getItem('currentUser') || '{}');
@@ -21,14 +27,34 @@ const MyOrders = () => {
     const loadRatingStatuses = async (orders, customerId) => {
         if (!customerId) return;
         
-        for (const order of orders) {
-            if (order.orderStatus?.toLowerCase() === "delivered" && order.orderItems) {
+        const deliveredOrders = orders.filter(order =>
+            order.orderStatus?.toLowerCase() === "delivered" && order.orderItems);
+        if (deliveredOrders.length === 0) return;
+
+        try {
+            // One request per batch of delivered orders instead of one per food item
+            const orderIds = deliveredOrders.map(order => order.id);
+            const batches = [];
+            for (let i = 0; i < orderIds.length; i += RATING_STATUS_BATCH_SIZE) {
+                batches.push(orderIds.slice(i, i + RATING_STATUS_BATCH_SIZE));
+            }
+            const responses = await Promise.all(batches.map(batch =>
+                api.post('/app3/api/v1/feedback/Rating/status/orders', { orderIds: batch })));
+            const rated = new Set(responses
+                .flatMap(response => response.data || [])
+                .map(pair => `${pair.foodId}-${pair.orderId}`));
+
+            const statuses = {};
+            for (const order of deliveredOrders) {
                 for (const item of order.orderItems) {
                     if (item.foodId) {
-                        await checkRatingStatus(item.foodId, order.id, customerId);
+                        statuses[`${item.foodId}-${order.id}-${customerId}`] = rated.has(`${item.foodId}-${order.id}`);
                     }
                 }
             }
+            setRatingStatusCache(prev => ({ ...prev, ...statuses }));
+        } catch (error) {
+            // Leave the cache empty; items fall back to checkRatingStatus when rendered
         }
     };
 
@@ -45,11 +71,10 @@ const MyOrders = () => {
                 return;
             }
             
-            const response = await api.get('/app2/api/v1/orders/all');
-       
-
-            const validOrders = (response.data || [])
+            const page = await fetchOrdersPage();
+            const validOrders = page.orders;
             setOrders(validOrders);
+            setNextAfterId(page.nextAfterId);
             
             
             const user = JSON.parse(localStorage.getItem('currentUser') || '{}');
@@ -71,6 +96,23 @@ const MyOrders = () => {
         }
     };
 
+    const loadMoreOrders = async () => {
+        setLoadingMore(true);
+        try {
+            const page = await fetchOrdersPage(nextAfterId);
+            setOrders(prev => [...prev, ...page.orders]);
+            setNextAfterId(page.nextAfterId);
+            const user = JSON.parse(localStorage.getItem('currentUser') || '{}');
+            if (user.id) {
+                await loadRatingStatuses(page.orders, user.id);
+            }
+        } catch (error) {
+            toast.error('Failed to load more orders: ' + (error.response?.data?.message || error.message));
+        } finally {
+            setLoadingMore(false);
+        }
+    };
+
     const formatDate = (dateString) => {
         if (!dateString) return 'N/A';
         try {
@@ -377,6 +419,12 @@ const MyOrders = () => {
                                 }
                             })}
                     </div>
+
+                    {nextAfterId !== null && (
+                        <button className="load-more-btn" onClick={loadMoreOrders} disabled={loadingMore}>
+                            {loadingMore ? 'Loading...' : 'Load more orders'}
+                        </button>
+                    )}
                 </div>
             </div>
         </>
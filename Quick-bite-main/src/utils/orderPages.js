@@ -0,0 +1,16 @@
+import api from '../config/api';
+
+// Orders are listed newest first, a page at a time; nextAfterId is null on the last page
+export const ORDERS_PAGE_SIZE = 50;
+
+export const fetchOrdersPage = async (afterId = null) => {
+  const params = { limit: ORDERS_PAGE_SIZE };
+  if (afterId !== null) {
+    params.afterId = afterId;
+  }
+  const response = await api.get('/app2/api/v1/orders/page', { params });
+  return {
+    orders: response.data?.orders || [],
+    nextAfterId: response.data?.nextAfterId ?? null
+  };
+};
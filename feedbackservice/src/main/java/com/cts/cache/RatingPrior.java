@@ -0,0 +1,38 @@
+package com.cts.cache;
+
+import com.cts.repository.FoodRatingAggregateRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * The mean over all ratings, used as the prior for weighted ratings. Computing it sums every
+ * food's aggregate, and it barely moves between requests, so it is read on first use and
+ * then refreshed in the background instead of on every rating summary.
+ */
+@Component
+public class RatingPrior {
+
+    static final double DEFAULT_MEAN = 3.0;
+    static final long REFRESH_INTERVAL_MS = 60_000;
+
+    private final FoodRatingAggregateRepository aggregateRepo;
+    private volatile Double mean;
+
+    public RatingPrior(FoodRatingAggregateRepository aggregateRepo) {
+        this.aggregateRepo = aggregateRepo;
+    }
+
+    /** The current prior; the default until anything has been rated. */
+    public double mean() {
+        Double current = mean;
+        return current != null ? current : refresh();
+    }
+
+    @Scheduled(fixedDelay = REFRESH_INTERVAL_MS, initialDelay = REFRESH_INTERVAL_MS)
+    public double refresh() {
+        Double globalMean = aggregateRepo.findGlobalMean();
+        double current = globalMean != null ? globalMean : DEFAULT_MEAN;
+        mean = current;
+        return current;
+    }
+}
@@ -1,10 +1,12 @@
 package com.cts.client;
 
+import com.cts.dto.request.FoodRatingBatchRequestDTO;
 import com.cts.model.Food;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 
 @FeignClient(name = "FOODSERVICEAPP", path = "/api/v1/food", contextId = "foodServiceClient")
@@ -15,4 +17,7 @@ public interface FoodServiceClient {
     
     @PutMapping("/{id}/rating")
     void updateFoodRating(@PathVariable("id") int id, @RequestParam("avgRating") float avgRating);
+
+    @PutMapping("/ratings")
+    void updateFoodRatings(@RequestBody FoodRatingBatchRequestDTO request);
 }
@@ -1,13 +1,21 @@
 package com.cts.client;
 
+import java.util.List;
+
+import com.cts.dto.request.DeliveredOrderDTO;
 import com.cts.model.Order;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 
 @FeignClient(name = "FOODSERVICEAPP", path = "/api/v1/orders", contextId = "orderServiceClient")
 public interface OrderServiceClient {
     
     @GetMapping("/{id}")
     Order getOrderById(@PathVariable("id") int id);
+
+    /** Delivered orders after {@code afterId}, oldest first; SYSTEM callers only. */
+    @GetMapping("/delivered")
+    List<DeliveredOrderDTO> getDeliveredOrders(@RequestParam("afterId") int afterId, @RequestParam("limit") int limit);
 }
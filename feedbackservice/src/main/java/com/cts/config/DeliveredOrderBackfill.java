@@ -0,0 +1,56 @@
+package com.cts.config;
+
+import java.util.List;
+
+import com.cts.client.OrderServiceClient;
+import com.cts.dto.request.DeliveredOrderDTO;
+import com.cts.entity.BackfillProgress;
+import com.cts.repository.BackfillProgressRepository;
+import com.cts.service.FeedbackService;
+import lombok.AllArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Copies orders delivered before the delivered-order feed existed, or marked delivered
+ * without it, from the food service, a page of facts per call, oldest first. Orders
+ * delivered since then arrive through the feed, so the copy runs to the end once; progress
+ * is kept so a restart resumes after the last page, and if the food service is not
+ * reachable yet the next run carries on.
+ */
+@Component
+@AllArgsConstructor
+public class DeliveredOrderBackfill {
+
+    static final String NAME = "delivered_orders";
+    static final int PAGE_SIZE = 500;
+    static final long RETRY_INTERVAL_MS = 600_000;
+
+    private OrderServiceClient orderServiceClient;
+    private FeedbackService feedbackService;
+    private BackfillProgressRepository progressRepo;
+
+    // Starts once the service has had time to register and discover the food service.
+    @Scheduled(initialDelay = 30_000, fixedDelay = RETRY_INTERVAL_MS)
+    public void backfill() {
+        BackfillProgress progress = progressRepo.findById(NAME).orElseGet(() -> new BackfillProgress(NAME, 0, false));
+        if (progress.isCompleted()) {
+            return;
+        }
+        try {
+            while (!progress.isCompleted()) {
+                List<DeliveredOrderDTO> page = orderServiceClient.getDeliveredOrders(progress.getLastOrderId(), PAGE_SIZE);
+                feedbackService.recordDeliveredOrders(page);
+                if (!page.isEmpty()) {
+                    progress.setLastOrderId(page.get(page.size() - 1).getOrderId());
+                }
+                progress.setCompleted(page.size() < PAGE_SIZE);
+                progressRepo.save(progress);
+            }
+            System.out.println("Delivered-order backfill finished after order " + progress.getLastOrderId());
+        } catch (Exception e) {
+            System.err.println("Delivered-order backfill paused after order " + progress.getLastOrderId()
+                    + ", will retry: " + e.getMessage());
+        }
+    }
+}
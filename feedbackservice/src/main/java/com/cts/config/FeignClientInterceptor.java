@@ -13,6 +13,9 @@ import jakarta.servlet.http.HttpServletRequest;
 @Component
 public class FeignClientInterceptor implements RequestInterceptor {
 
+    private static final String SYSTEM_USER_EMAIL = "feedbackservice@system";
+    private static final String SYSTEM_USER_ROLE = "SYSTEM";
+
     @Override
     public void apply(RequestTemplate template) {
         ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
@@ -38,7 +41,8 @@ public class FeignClientInterceptor implements RequestInterceptor {
             }
         } else {
             System.out.println("FeignClientInterceptor - No RequestAttributes available, using SecurityContext");
-            // Fallback to SecurityContext if RequestAttributes not available
+            // Fallback to SecurityContext if RequestAttributes not available; scheduled jobs
+            // such as the delivered-order backfill have neither and call as the system.
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
             if (authentication != null && authentication.getName() != null) {
                 template.header("X-User-Email", authentication.getName());
@@ -49,6 +53,9 @@ public class FeignClientInterceptor implements RequestInterceptor {
                     }
                     template.header("X-User-Role", role);
                 }
+            } else {
+                template.header("X-User-Email", SYSTEM_USER_EMAIL);
+                template.header("X-User-Role", SYSTEM_USER_ROLE);
             }
         }
     }
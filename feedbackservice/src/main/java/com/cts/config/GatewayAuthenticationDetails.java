@@ -0,0 +1,17 @@
+package com.cts.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.Getter;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+/** Request details plus the user id the gateway resolved from the JWT, when it sent one. */
+@Getter
+public class GatewayAuthenticationDetails extends WebAuthenticationDetails {
+
+    private final Long userId;
+
+    public GatewayAuthenticationDetails(HttpServletRequest request, Long userId) {
+        super(request);
+        this.userId = userId;
+    }
+}
@@ -0,0 +1,25 @@
+package com.cts.config;
+
+import com.cts.repository.FoodRatingAggregateRepository;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Brings food_rating_aggregates up to date with the feedback table on startup, covering
+ * ratings submitted before the aggregate table existed.
+ */
+@Component
+@AllArgsConstructor
+public class RatingAggregateBackfill {
+
+    private FoodRatingAggregateRepository aggregateRepo;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfill() {
+        aggregateRepo.backfillFromFeedback();
+    }
+}
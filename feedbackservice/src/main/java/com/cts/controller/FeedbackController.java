@@ -1,9 +1,14 @@
 package com.cts.controller;
 
+import com.cts.dto.request.DeliveredOrderDTO;
 import com.cts.dto.request.FoodFeedbackRequestDTO;
+import com.cts.dto.request.FoodRatingSummaryRequestDTO;
+import com.cts.dto.request.RatingStatusRequestDTO;
 import com.cts.dto.response.FoodFeedbackResponseDTO;
+import com.cts.dto.response.FoodRatingSummaryDTO;
+import com.cts.dto.response.PendingFeedbackOrderDTO;
+import com.cts.dto.response.RatedFoodDTO;
 import com.cts.dto.response.RatingResponseDTO;
-import com.cts.model.Order;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -31,16 +36,38 @@ public class FeedbackController {
     }
 
    @GetMapping("/food/{foodId}")
-   @Operation(summary = "Get feedback by food ID", description = "Returns all feedback for a specific food item.")
-  public ResponseEntity<List<FoodFeedbackResponseDTO>> getFeedbackByFood(@PathVariable Integer foodId) {
-      List<FoodFeedbackResponseDTO> feedbacks = feedbackService.getFeedbackByFoodId(foodId);
-        return ResponseEntity.ok(feedbacks);
-    }
+   @Operation(summary = "Get feedback by food ID", description = "Returns a page of feedback for a food, newest first. Pass the last feedbackId as beforeId for the next page.")
+   public ResponseEntity<List<FoodFeedbackResponseDTO>> getFeedbackByFood(@PathVariable Integer foodId,
+                                                                          @RequestParam(required = false) Integer beforeId,
+                                                                          @RequestParam(defaultValue = "10") int limit) {
+       return ResponseEntity.ok(feedbackService.getFeedbackByFoodId(foodId, beforeId, limit));
+   }
+
+   @GetMapping("/food/{foodId}/rating")
+   @Operation(summary = "Get rating summary by food ID", description = "Returns the rating count, mean, weighted average and star histogram.")
+   public ResponseEntity<FoodRatingSummaryDTO> getRatingSummary(@PathVariable Integer foodId) {
+       return ResponseEntity.ok(feedbackService.getRatingSummary(foodId));
+   }
+
+   @PostMapping("/orders/delivered")
+   @Operation(summary = "Record a delivered order", description = "Called by the Food service when an order is delivered; repeated calls are ignored.")
+   public ResponseEntity<Void> recordDeliveredOrder(@Valid @RequestBody DeliveredOrderDTO deliveredOrderDTO) {
+       feedbackService.recordDeliveredOrder(deliveredOrderDTO);
+       return ResponseEntity.noContent().build();
+   }
+
+   @PostMapping("/ratings/summary")
+   @Operation(summary = "Get rating summaries for many foods", description = "Returns one rating summary per distinct food ID, in request order.")
+   public ResponseEntity<List<FoodRatingSummaryDTO>> getRatingSummaries(@Valid @RequestBody FoodRatingSummaryRequestDTO request) {
+       return ResponseEntity.ok(feedbackService.getRatingSummaries(request.getFoodIds()));
+   }
 
    @GetMapping("/completed-orders")
-   @Operation(summary = "Get completed orders for feedback", description = "Returns all completed orders that the customer can provide feedback on.")
-   public ResponseEntity<List<Order>> getCompletedOrdersForFeedback() {
-       List<Order> completedOrders = feedbackService.getCompletedOrdersForFeedback();
+   @Operation(summary = "Get completed orders for feedback", description = "Returns the customer's delivered orders that still have unrated items, newest first. Pass the last orderId as beforeId for the next page.")
+   public ResponseEntity<List<PendingFeedbackOrderDTO>> getCompletedOrdersForFeedback(
+           @RequestParam(required = false) Integer beforeId,
+           @RequestParam(defaultValue = "10") int limit) {
+       List<PendingFeedbackOrderDTO> completedOrders = feedbackService.getCompletedOrdersForFeedback(beforeId, limit);
        return ResponseEntity.ok(completedOrders);
    }
    
@@ -52,4 +79,10 @@ public class FeedbackController {
        response.setStatus(isGiven);
        return ResponseEntity.ok(response);
    }
+
+   @PostMapping("Rating/status/orders")
+   @Operation(summary = "Get rated foods for many orders", description = "Returns every (orderId, foodId) pair the current customer has already rated among the given orders.")
+   public ResponseEntity<List<RatedFoodDTO>> getRatedFoods(@Valid @RequestBody RatingStatusRequestDTO request) {
+       return ResponseEntity.ok(feedbackService.getRatedFoods(request.getOrderIds()));
+   }
 }
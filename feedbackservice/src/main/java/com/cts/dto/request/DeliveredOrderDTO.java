@@ -0,0 +1,20 @@
+package com.cts.dto.request;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class DeliveredOrderDTO {
+
+    @NotNull(message = "Order ID is required")
+    private Integer orderId;
+
+    @NotNull(message = "Customer ID is required")
+    private Long customerId;
+
+    @NotNull(message = "Food IDs are required")
+    private List<Integer> foodIds;
+
+}
@@ -0,0 +1,16 @@
+package com.cts.dto.request;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FoodRatingBatchRequestDTO {
+
+    private List<FoodRatingUpdateDTO> ratings;
+
+}
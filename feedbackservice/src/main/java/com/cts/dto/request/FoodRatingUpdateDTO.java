@@ -0,0 +1,15 @@
+package com.cts.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FoodRatingUpdateDTO {
+
+    private Integer foodId;
+    private Float avgRating;
+
+}
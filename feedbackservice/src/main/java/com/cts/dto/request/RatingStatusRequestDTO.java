@@ -0,0 +1,16 @@
+package com.cts.dto.request;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class RatingStatusRequestDTO {
+
+    @NotEmpty(message = "At least one order ID is required")
+    @Size(max = 200, message = "At most 200 orders can be checked at once")
+    private List<Integer> orderIds;
+
+}
@@ -3,8 +3,10 @@ package com.cts.dto.response;
 import java.time.LocalDate;
 
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
 public class FoodFeedbackResponseDTO {
 	
     private Long feedbackId;
@@ -13,4 +15,13 @@ public class FoodFeedbackResponseDTO {
     private Integer foodId;
     private Integer orderId;
 
+    // Used by the JPQL projection, where feedbackId arrives as the entity's int id.
+    public FoodFeedbackResponseDTO(int feedbackId, Integer foodRating, LocalDate dateOfFeedback, Integer foodId, Integer orderId) {
+        this.feedbackId = (long) feedbackId;
+        this.foodRating = foodRating;
+        this.dateOfFeedback = dateOfFeedback;
+        this.foodId = foodId;
+        this.orderId = orderId;
+    }
+
 }
@@ -0,0 +1,18 @@
+package com.cts.dto.response;
+
+import lombok.Data;
+
+@Data
+public class FoodRatingSummaryDTO {
+
+    private Integer foodId;
+    private long ratingCount;
+    private double averageRating;
+    /** Average pulled towards the mean of all foods, so a few ratings cannot top the ranking. */
+    private double weightedRating;
+    private long oneStar;
+    private long twoStar;
+    private long threeStar;
+    private long fourStar;
+    private long fiveStar;
+}
@@ -0,0 +1,20 @@
+package com.cts.dto.response;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PendingFeedbackOrderDTO {
+
+    private Integer orderId;
+    private LocalDateTime deliveredAt;
+    private List<Integer> unratedFoodIds = new ArrayList<>();
+
+}
@@ -0,0 +1,15 @@
+package com.cts.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatedFoodDTO {
+
+    private Integer orderId;
+    private Integer foodId;
+
+}
@@ -0,0 +1,32 @@
+package com.cts.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * How far a one-time copy of data owned by another service has got, so a restart resumes
+ * after the last order copied instead of starting over, and a finished copy never runs again.
+ */
+@Entity
+@Table(name = "backfill_progress")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BackfillProgress {
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(name = "last_order_id", nullable = false)
+    private int lastOrderId;
+
+    @Column(nullable = false)
+    private boolean completed;
+}
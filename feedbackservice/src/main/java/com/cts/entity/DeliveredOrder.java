@@ -0,0 +1,49 @@
+package com.cts.entity;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * The facts feedback validation needs about a delivered order, pushed by the food service
+ * when the order is delivered. The food ids live in delivered_order_foods, keyed by
+ * (order_id, food_id), so checking an item is a primary-key lookup.
+ */
+@Entity
+@Table(name = "delivered_orders", indexes = @Index(name = "idx_delivered_orders_customer", columnList = "customer_id, order_id"))
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class DeliveredOrder {
+    @Id
+    @Column(name = "order_id")
+    private Integer orderId;
+
+    @Column(name = "customer_id", nullable = false)
+    private long customerId;
+
+    @ElementCollection
+    @CollectionTable(name = "delivered_order_foods", joinColumns = @JoinColumn(name = "order_id"))
+    @Column(name = "food_id", nullable = false)
+    private Set<Integer> foodIds = new HashSet<>();
+
+    // When this service learned of the delivery, not when it happened: the feed's arrival time
+    // for orders delivered since, the first feedback attempt for orders picked up by the
+    // fallback lookup, and the backfill run for orders delivered before either existed.
+    @Column(name = "recorded_at", nullable = false)
+    private LocalDateTime recordedAt;
+}
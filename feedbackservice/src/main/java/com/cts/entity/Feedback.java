@@ -7,12 +7,17 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
+@Table(name = "feedback", indexes = {
+        @Index(name = "idx_feedback_customer_order_food", columnList = "customer, order_id, food_id"),
+        @Index(name = "idx_feedback_food_id", columnList = "food_id, feedback_id")})
 @Getter
 @Setter
 @AllArgsConstructor
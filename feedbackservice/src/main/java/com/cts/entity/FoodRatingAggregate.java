@@ -0,0 +1,51 @@
+package com.cts.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Running rating totals for one food, updated in the same transaction as each feedback
+ * insert so the average never needs an AVG over the feedback table.
+ */
+@Entity
+@Table(name = "food_rating_aggregates")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class FoodRatingAggregate {
+    @Id
+    @Column(name = "food_id")
+    private Integer foodId;
+
+    @Column(name = "rating_count", nullable = false)
+    private long ratingCount;
+
+    @Column(name = "rating_sum", nullable = false)
+    private long ratingSum;
+
+    @Column(name = "one_star", nullable = false)
+    private long oneStar;
+
+    @Column(name = "two_star", nullable = false)
+    private long twoStar;
+
+    @Column(name = "three_star", nullable = false)
+    private long threeStar;
+
+    @Column(name = "four_star", nullable = false)
+    private long fourStar;
+
+    @Column(name = "five_star", nullable = false)
+    private long fiveStar;
+
+    public double mean() {
+        return ratingCount == 0 ? 0 : (double) ratingSum / ratingCount;
+    }
+}
@@ -0,0 +1,39 @@
+package com.cts.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A food whose rating changed and has not yet been pushed to the food service. There is
+ * at most one row per food, so any number of ratings in a flush window collapse into one
+ * update; version lets the flusher tell whether a rating arrived while it was sending.
+ */
+@Entity
+@Table(name = "pending_rating_updates", indexes = @Index(name = "idx_pending_rating_next", columnList = "next_attempt_at"))
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class PendingRatingUpdate {
+    @Id
+    @Column(name = "food_id")
+    private Integer foodId;
+
+    @Column(nullable = false)
+    private long version;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+}
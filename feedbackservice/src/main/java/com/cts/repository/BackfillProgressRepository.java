@@ -0,0 +1,9 @@
+package com.cts.repository;
+
+import com.cts.entity.BackfillProgress;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BackfillProgressRepository extends JpaRepository<BackfillProgress, String> {
+}
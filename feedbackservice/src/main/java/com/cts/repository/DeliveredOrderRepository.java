@@ -0,0 +1,49 @@
+package com.cts.repository;
+
+import com.cts.entity.DeliveredOrder;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface DeliveredOrderRepository extends JpaRepository<DeliveredOrder, Integer> {
+
+    @Query(value = "SELECT COUNT(*) > 0 FROM delivered_order_foods WHERE order_id = :orderId AND food_id = :foodId",
+            nativeQuery = true)
+    boolean containsFood(@Param("orderId") int orderId, @Param("foodId") int foodId);
+
+    /**
+     * Unrated (order, food) pairs for a page of the customer's delivered orders, newest
+     * order first. The inner query picks the page of orders that still have an unrated
+     * item; the outer anti-join against feedback lists those items. Each row is
+     * {order_id, recorded_at, food_id}.
+     */
+    @Query(value = "SELECT o.order_id, o.recorded_at, i.food_id FROM ("
+            + "SELECT d.order_id, d.recorded_at FROM delivered_orders d WHERE d.customer_id = :customerId "
+            + "AND d.order_id < :beforeOrderId AND EXISTS (SELECT 1 FROM delivered_order_foods df "
+            + "LEFT JOIN feedback fb ON fb.customer = :customerId AND fb.order_id = df.order_id AND fb.food_id = df.food_id "
+            + "WHERE df.order_id = d.order_id AND fb.feedback_id IS NULL) "
+            + "ORDER BY d.order_id DESC LIMIT :limit) o "
+            + "JOIN delivered_order_foods i ON i.order_id = o.order_id "
+            + "LEFT JOIN feedback f ON f.customer = :customerId AND f.order_id = i.order_id AND f.food_id = i.food_id "
+            + "WHERE f.feedback_id IS NULL ORDER BY o.order_id DESC, i.food_id", nativeQuery = true)
+    List<Object[]> findUnratedItems(@Param("customerId") long customerId, @Param("beforeOrderId") int beforeOrderId,
+                                    @Param("limit") int limit);
+
+    // Facts never change once an order is delivered, so repeated or concurrent inserts are simply ignored.
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO delivered_orders (order_id, customer_id, recorded_at) "
+            + "VALUES (:orderId, :customerId, :recordedAt)", nativeQuery = true)
+    int insertIfAbsent(@Param("orderId") int orderId, @Param("customerId") long customerId,
+                       @Param("recordedAt") LocalDateTime recordedAt);
+
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO delivered_order_foods (order_id, food_id) VALUES (:orderId, :foodId)",
+            nativeQuery = true)
+    int insertFoodIfAbsent(@Param("orderId") int orderId, @Param("foodId") int foodId);
+}
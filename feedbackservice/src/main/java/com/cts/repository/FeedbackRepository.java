@@ -1,11 +1,15 @@
 package com.cts.repository;
 
+import com.cts.dto.response.FoodFeedbackResponseDTO;
+import com.cts.dto.response.RatedFoodDTO;
 import com.cts.entity.Feedback;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -13,10 +17,20 @@ public interface FeedbackRepository extends JpaRepository<Feedback, Integer> {
     List<Feedback> findByCustomer(Long customerId);
     
     List<Feedback> findByFoodId(Integer foodId);
+
+    /** Newest-first page of a food's feedback older than {@code beforeId}, walked on idx_feedback_food_id. */
+    @Query("SELECT new com.cts.dto.response.FoodFeedbackResponseDTO(f.feedbackId, f.foodRating, f.dateOfFeedback, f.foodId, f.orderId) "
+            + "FROM Feedback f WHERE f.foodId = :foodId AND f.feedbackId < :beforeId ORDER BY f.feedbackId DESC")
+    List<FoodFeedbackResponseDTO> findPageByFoodId(@Param("foodId") int foodId, @Param("beforeId") int beforeId, Pageable pageable);
     
     @Query("SELECT AVG(f.foodRating) FROM Feedback f WHERE f.foodId = :foodId")
     Float findAverageRatingByFoodId(@Param("foodId") int foodId);
     
     @Query("SELECT COUNT(f) > 0 FROM Feedback f WHERE f.orderId = :orderId AND f.customer = :customerId AND f.foodId = :foodId")
     boolean existsByOrderIdAndCustomerAndFoodId(@Param("orderId") int orderId, @Param("customerId") long customerId, @Param("foodId") int foodId);
+
+    /** Every (order, food) pair the customer has rated among the given orders; served from idx_feedback_customer_order_food. */
+    @Query("SELECT DISTINCT new com.cts.dto.response.RatedFoodDTO(f.orderId, f.foodId) FROM Feedback f "
+            + "WHERE f.customer = :customerId AND f.orderId IN :orderIds AND f.foodId IS NOT NULL")
+    List<RatedFoodDTO> findRatedFoods(@Param("customerId") long customerId, @Param("orderIds") Collection<Integer> orderIds);
 }
@@ -0,0 +1,46 @@
+package com.cts.repository;
+
+import com.cts.entity.FoodRatingAggregate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface FoodRatingAggregateRepository extends JpaRepository<FoodRatingAggregate, Integer> {
+
+    /** Adds one rating to the food's totals, creating the row on its first rating. */
+    @Modifying
+    @Query(value = "INSERT INTO food_rating_aggregates (food_id, rating_count, rating_sum, one_star, two_star, "
+            + "three_star, four_star, five_star) VALUES (:foodId, 1, :rating, :rating = 1, :rating = 2, "
+            + ":rating = 3, :rating = 4, :rating = 5) "
+            + "ON DUPLICATE KEY UPDATE rating_count = rating_count + 1, rating_sum = rating_sum + :rating, "
+            + "one_star = one_star + (:rating = 1), two_star = two_star + (:rating = 2), "
+            + "three_star = three_star + (:rating = 3), four_star = four_star + (:rating = 4), "
+            + "five_star = five_star + (:rating = 5)", nativeQuery = true)
+    int record(@Param("foodId") int foodId, @Param("rating") int rating);
+
+    /** Mean over every rating of every food, used as the prior for the weighted average. */
+    @Query("SELECT CASE WHEN SUM(a.ratingCount) > 0 THEN SUM(a.ratingSum) * 1.0 / SUM(a.ratingCount) ELSE NULL END "
+            + "FROM FoodRatingAggregate a")
+    Double findGlobalMean();
+
+    /**
+     * Rebuilds totals from the feedback table. GREATEST keeps it safe to run repeatedly and
+     * alongside live submissions, which bump the totals in the same transaction as the row.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO food_rating_aggregates (food_id, rating_count, rating_sum, one_star, two_star, "
+            + "three_star, four_star, five_star) "
+            + "SELECT food_id, COUNT(*), SUM(food_rating), SUM(food_rating = 1), SUM(food_rating = 2), "
+            + "SUM(food_rating = 3), SUM(food_rating = 4), SUM(food_rating = 5) FROM feedback "
+            + "WHERE food_id IS NOT NULL AND food_rating IS NOT NULL GROUP BY food_id "
+            + "ON DUPLICATE KEY UPDATE rating_count = GREATEST(rating_count, VALUES(rating_count)), "
+            + "rating_sum = GREATEST(rating_sum, VALUES(rating_sum)), "
+            + "one_star = GREATEST(one_star, VALUES(one_star)), two_star = GREATEST(two_star, VALUES(two_star)), "
+            + "three_star = GREATEST(three_star, VALUES(three_star)), "
+            + "four_star = GREATEST(four_star, VALUES(four_star)), "
+            + "five_star = GREATEST(five_star, VALUES(five_star))", nativeQuery = true)
+    int backfillFromFeedback();
+}
@@ -0,0 +1,36 @@
+package com.cts.repository;
+
+import com.cts.entity.PendingRatingUpdate;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PendingRatingUpdateRepository extends JpaRepository<PendingRatingUpdate, Integer> {
+
+    /** Marks a food's rating as changed; a food already waiting keeps its place and retry schedule. */
+    @Modifying
+    @Query(value = "INSERT INTO pending_rating_updates (food_id, version, attempts, next_attempt_at) "
+            + "VALUES (:foodId, 1, 0, :now) ON DUPLICATE KEY UPDATE version = version + 1", nativeQuery = true)
+    int enqueue(@Param("foodId") int foodId, @Param("now") LocalDateTime now);
+
+    @Query("SELECT p FROM PendingRatingUpdate p WHERE p.nextAttemptAt <= :now ORDER BY p.nextAttemptAt")
+    List<PendingRatingUpdate> findDue(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /** Removes a sent entry unless a newer rating re-queued it in the meantime. */
+    @Modifying
+    @Query("DELETE FROM PendingRatingUpdate p WHERE p.foodId = :foodId AND p.version = :version")
+    int deleteIfUnchanged(@Param("foodId") int foodId, @Param("version") long version);
+
+    @Modifying
+    @Query("UPDATE PendingRatingUpdate p SET p.attempts = p.attempts + 1, p.nextAttemptAt = :nextAttemptAt "
+            + "WHERE p.foodId IN :foodIds")
+    int markFailed(@Param("foodIds") Collection<Integer> foodIds, @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+}
@@ -2,15 +2,23 @@ package com.cts.service;
 
 import java.util.List;
 
+import com.cts.dto.request.DeliveredOrderDTO;
 import com.cts.dto.request.FoodFeedbackRequestDTO;
 import com.cts.dto.response.FoodFeedbackResponseDTO;
+import com.cts.dto.response.FoodRatingSummaryDTO;
+import com.cts.dto.response.PendingFeedbackOrderDTO;
+import com.cts.dto.response.RatedFoodDTO;
 import com.cts.entity.Feedback;
-import com.cts.model.Order;
 
 public interface FeedbackService {
 	FoodFeedbackResponseDTO submitFoodFeedback(FoodFeedbackRequestDTO foodFeedbackRequestDTO, Integer foodId);
+	void recordDeliveredOrder(DeliveredOrderDTO deliveredOrderDTO);
+	void recordDeliveredOrders(List<DeliveredOrderDTO> deliveredOrders);
 	FoodFeedbackResponseDTO convertToFoodFeedbackDTO(Feedback feedback);
-	List<FoodFeedbackResponseDTO> getFeedbackByFoodId(Integer foodId);
-	List<Order> getCompletedOrdersForFeedback();
+	List<FoodFeedbackResponseDTO> getFeedbackByFoodId(Integer foodId, Integer beforeId, int limit);
+	FoodRatingSummaryDTO getRatingSummary(Integer foodId);
+	List<FoodRatingSummaryDTO> getRatingSummaries(List<Integer> foodIds);
+	List<PendingFeedbackOrderDTO> getCompletedOrdersForFeedback(Integer beforeId, int limit);
     boolean isFoodRatingGiven(int orderId, long customerId, int foodId);
+    List<RatedFoodDTO> getRatedFoods(List<Integer> orderIds);
 }
@@ -0,0 +1,6 @@
+package com.cts.service;
+
+public interface RatingPropagationService {
+	void markChanged(int foodId);
+	int flush();
+}
@@ -1,14 +1,32 @@
 package com.cts.service.impl;
 
+import java.sql.Timestamp;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
-import com.cts.client.FoodServiceClient;
+import com.cts.cache.RatingPrior;
 import com.cts.client.OrderServiceClient;
 import com.cts.client.UserServiceClient;
+import com.cts.config.GatewayAuthenticationDetails;
+import com.cts.dto.request.DeliveredOrderDTO;
 import com.cts.dto.request.FoodFeedbackRequestDTO;
 import com.cts.dto.response.FoodFeedbackResponseDTO;
+import com.cts.dto.response.FoodRatingSummaryDTO;
+import com.cts.dto.response.PendingFeedbackOrderDTO;
+import com.cts.dto.response.RatedFoodDTO;
+import com.cts.entity.DeliveredOrder;
 import com.cts.entity.Feedback;
+import com.cts.entity.FoodRatingAggregate;
 import com.cts.enums.OrderStatus;
 import com.cts.exception.FeedbackAlreadyProvidedException;
 import com.cts.exception.FoodNotFoundException;
@@ -18,32 +36,104 @@ import com.cts.exception.UserNotFoundException;
 import com.cts.model.Food;
 import com.cts.model.Order;
 import com.cts.model.User;
+import com.cts.repository.DeliveredOrderRepository;
 import com.cts.repository.FeedbackRepository;
+import com.cts.repository.FoodRatingAggregateRepository;
 import com.cts.service.FeedbackService;
+import com.cts.service.RatingPropagationService;
 import lombok.AllArgsConstructor;
 import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @AllArgsConstructor
 public class FeedbackServiceImpl implements FeedbackService {
+
+    // How many ratings at the global mean a food's average is blended with.
+    static final double PRIOR_WEIGHT = 10;
+    static final int MAX_FEEDBACK_PAGE_SIZE = 50;
+    static final int MAX_PENDING_ORDER_PAGE_SIZE = 50;
     
     private ModelMapper modelMapper;
     private FeedbackRepository feedbackRepo;
     private UserServiceClient userServiceClient;
-    private FoodServiceClient foodServiceClient;
     private OrderServiceClient orderServiceClient;
+    private DeliveredOrderRepository deliveredOrderRepo;
+    private FoodRatingAggregateRepository aggregateRepo;
+    private RatingPropagationService ratingPropagationService;
+    private RatingPrior ratingPrior;
 
+    @Transactional
     public FoodFeedbackResponseDTO submitFoodFeedback(
             FoodFeedbackRequestDTO foodFeedbackRequestDTO,
             Integer foodId) {
     	
-    	Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        long customerId = currentCustomerId();
+        int orderId = foodFeedbackRequestDTO.getOrderId();
+
+        // Delivered orders are normally known locally; only orders delivered before the
+        // feed existed, or whose notification is still queued, go to the order service.
+        DeliveredOrder deliveredOrder = deliveredOrderRepo.findById(orderId)
+                .orElseGet(() -> fetchDeliveredOrder(orderId, customerId));
+
+        if (deliveredOrder.getCustomerId() != customerId) {
+            throw new UnauthorizedActionException("You can only provide feedback for your own orders");
+        }
+
+        if (!deliveredOrderRepo.containsFood(orderId, foodId)) {
+            throw new FoodNotFoundException("Food item not found in this order");
+        }
+        
+        if (feedbackRepo.existsByOrderIdAndCustomerAndFoodId(orderId, customerId, foodId)) {
+            throw new FeedbackAlreadyProvidedException("Feedback already provided for this food in this order");
+        }
+
+        Feedback feedback = new Feedback();
+        feedback.setDateOfFeedback(LocalDate.now());
+        feedback.setCustomer(customerId);
+        feedback.setOrderId(orderId);
+        feedback.setFoodId(foodId);
+        feedback.setFoodRating(foodFeedbackRequestDTO.getFoodRating());
+       
+        Feedback savedFeedback = feedbackRepo.save(feedback);
+        aggregateRepo.record(foodId, foodFeedbackRequestDTO.getFoodRating());
+        
+        // Pushed to the Food service in bulk by the next rating flush
+        ratingPropagationService.markChanged(foodId);
+
+        return convertToFoodFeedbackDTO(savedFeedback);
+    }
+
+    @Transactional
+    public void recordDeliveredOrder(DeliveredOrderDTO deliveredOrderDTO) {
+        storeDeliveredOrder(deliveredOrderDTO.getOrderId(), deliveredOrderDTO.getCustomerId(),
+                deliveredOrderDTO.getFoodIds());
+    }
+
+    @Transactional
+    public void recordDeliveredOrders(List<DeliveredOrderDTO> deliveredOrders) {
+        for (DeliveredOrderDTO deliveredOrder : deliveredOrders) {
+            recordDeliveredOrder(deliveredOrder);
+        }
+    }
+
+    private long currentCustomerId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication == null || authentication.getName() == null) {
             throw new UnauthorizedActionException("User authentication is required");
         }
+        return resolveCustomerId(authentication);
+    }
+
+    // The gateway passes the user id it read from the JWT; older tokens fall back to a lookup by email.
+    private long resolveCustomerId(Authentication authentication) {
+        if (authentication.getDetails() instanceof GatewayAuthenticationDetails details && details.getUserId() != null) {
+            return details.getUserId();
+        }
         String email = authentication.getName();
         User user;
         try {
@@ -54,9 +144,10 @@ public class FeedbackServiceImpl implements FeedbackService {
         if (user == null) {
             throw new UserNotFoundException("User not found with email: " + email);
         }
-        long customerId = user.getId();
-        int orderId = foodFeedbackRequestDTO.getOrderId();
-        
+        return user.getId();
+    }
+
+    private DeliveredOrder fetchDeliveredOrder(int orderId, long customerId) {
         Order order;
         try {
             order = orderServiceClient.getOrderById(orderId);
@@ -74,39 +165,22 @@ public class FeedbackServiceImpl implements FeedbackService {
         if (order.getOrderStatus() != OrderStatus.DELIVERED) {
             throw new UnauthorizedActionException("You can only provide feedback for delivered orders");
         }
-        
-        boolean foodExistsInOrder = order.getOrderItems().stream()
-                .anyMatch(orderItem -> orderItem.getFood().getId() == foodId);
-        
-        if (!foodExistsInOrder) {
-            throw new FoodNotFoundException("Food item not found in this order");
-        }
-        
-        if (feedbackRepo.existsByOrderIdAndCustomerAndFoodId(orderId, customerId, foodId)) {
-            throw new FeedbackAlreadyProvidedException("Feedback already provided for this food in this order");
-        }
 
-        Feedback feedback = new Feedback();
-        feedback.setDateOfFeedback(LocalDate.now());
-        feedback.setCustomer(customerId);
-        feedback.setOrderId(orderId);
-        feedback.setFoodId(foodId);
-        feedback.setFoodRating(foodFeedbackRequestDTO.getFoodRating());
-       
-        Feedback savedFeedback = feedbackRepo.save(feedback);
-        
-        // Update average rating in Food service via Feign client
-        Float avgRatingFloat = feedbackRepo.findAverageRatingByFoodId(foodId);
-        if (avgRatingFloat != null) {
-            try {
-                foodServiceClient.updateFoodRating(foodId, avgRatingFloat);
-            } catch (Exception e) {
-                // Log the error but don't fail the feedback submission
-                System.err.println("Warning: Failed to update food rating: " + e.getMessage());
-            }
-        }
+        List<Integer> foodIds = order.getOrderItems().stream()
+                .filter(orderItem -> orderItem.getFood() != null)
+                .map(orderItem -> orderItem.getFood().getId())
+                .collect(Collectors.toList());
+        return storeDeliveredOrder(orderId, order.getCustomer(), foodIds);
+    }
 
-        return convertToFoodFeedbackDTO(savedFeedback);
+    private DeliveredOrder storeDeliveredOrder(int orderId, long customerId, Collection<Integer> foodIds) {
+        LocalDateTime now = LocalDateTime.now();
+        deliveredOrderRepo.insertIfAbsent(orderId, customerId, now);
+        Set<Integer> distinctFoodIds = new HashSet<>(foodIds);
+        for (Integer foodId : distinctFoodIds) {
+            deliveredOrderRepo.insertFoodIfAbsent(orderId, foodId);
+        }
+        return new DeliveredOrder(orderId, customerId, distinctFoodIds, now);
     }
 
     public FoodFeedbackResponseDTO convertToFoodFeedbackDTO(Feedback feedback) {
@@ -124,35 +198,79 @@ public class FeedbackServiceImpl implements FeedbackService {
         return dto;
     }
 
-   public List<FoodFeedbackResponseDTO> getFeedbackByFoodId(Integer foodId) {
-        List<Feedback> feedbacks = feedbackRepo.findByFoodId(foodId);
-        if (feedbacks.isEmpty()) {
-           throw new FoodNotFoundException("No feedback found for Food ID: " + foodId);
-       }
-        return feedbacks.stream()
-                .map(this::convertToFoodFeedbackDTO)
-                .collect(java.util.stream.Collectors.toList());
-   }
-
- public List<Order> getCompletedOrdersForFeedback() {
-     Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-     if (authentication == null || authentication.getName() == null) {
-         throw new UnauthorizedActionException("User authentication is required");
-     }
-     String email = authentication.getName();
-     User user;
-     try {
-         user = userServiceClient.getUserByEmail(email);
-     } catch (Exception e) {
-         throw new com.cts.exception.FeignClientException("Failed to fetch user details: " + e.getMessage(), e);
+    // A food nobody has rated yet gets an empty summary whose weighted rating is the prior.
+    // Weighted ratings are only served from here; the food service is sent the plain mean.
+    public FoodRatingSummaryDTO getRatingSummary(Integer foodId) {
+        FoodRatingAggregate aggregate = aggregateRepo.findById(foodId).orElseGet(() -> emptyAggregate(foodId));
+        return toRatingSummary(aggregate, ratingPrior.mean());
+    }
+
+    public List<FoodRatingSummaryDTO> getRatingSummaries(List<Integer> foodIds) {
+        Set<Integer> distinctIds = new LinkedHashSet<>(foodIds);
+        Map<Integer, FoodRatingAggregate> aggregates = aggregateRepo.findAllById(distinctIds).stream()
+                .collect(Collectors.toMap(FoodRatingAggregate::getFoodId, Function.identity()));
+        double priorMean = ratingPrior.mean();
+        return distinctIds.stream()
+                .map(foodId -> toRatingSummary(aggregates.getOrDefault(foodId, emptyAggregate(foodId)), priorMean))
+                .collect(Collectors.toList());
+    }
+
+    private static FoodRatingAggregate emptyAggregate(Integer foodId) {
+        FoodRatingAggregate aggregate = new FoodRatingAggregate();
+        aggregate.setFoodId(foodId);
+        return aggregate;
+    }
+
+    private FoodRatingSummaryDTO toRatingSummary(FoodRatingAggregate aggregate, double priorMean) {
+        FoodRatingSummaryDTO dto = new FoodRatingSummaryDTO();
+        dto.setFoodId(aggregate.getFoodId());
+        dto.setRatingCount(aggregate.getRatingCount());
+        dto.setAverageRating(aggregate.mean());
+        dto.setWeightedRating((PRIOR_WEIGHT * priorMean + aggregate.getRatingSum())
+                / (PRIOR_WEIGHT + aggregate.getRatingCount()));
+        dto.setOneStar(aggregate.getOneStar());
+        dto.setTwoStar(aggregate.getTwoStar());
+        dto.setThreeStar(aggregate.getThreeStar());
+        dto.setFourStar(aggregate.getFourStar());
+        dto.setFiveStar(aggregate.getFiveStar());
+        return dto;
+    }
+
+    /** Newest feedback first; pass the last feedbackId of a page as {@code beforeId} to get the next one. */
+    public List<FoodFeedbackResponseDTO> getFeedbackByFoodId(Integer foodId, Integer beforeId, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_FEEDBACK_PAGE_SIZE));
+        return feedbackRepo.findPageByFoodId(foodId, beforeId != null ? beforeId : Integer.MAX_VALUE,
+                PageRequest.of(0, pageSize));
+    }
+
+ /**
+  * Delivered orders of the current customer that still have unrated items, newest first.
+  * Pass the last orderId of a page as {@code beforeId} to get the next one.
+  */
+ public List<PendingFeedbackOrderDTO> getCompletedOrdersForFeedback(Integer beforeId, int limit) {
+     long customerId = currentCustomerId();
+     int pageSize = Math.max(1, Math.min(limit, MAX_PENDING_ORDER_PAGE_SIZE));
+
+     // Rows arrive grouped by order, so one pass rebuilds the page in order.
+     Map<Integer, PendingFeedbackOrderDTO> orders = new LinkedHashMap<>();
+     for (Object[] row : deliveredOrderRepo.findUnratedItems(customerId,
+             beforeId != null ? beforeId : Integer.MAX_VALUE, pageSize)) {
+         int orderId = ((Number) row[0]).intValue();
+         PendingFeedbackOrderDTO order = orders.get(orderId);
+         if (order == null) {
+             order = new PendingFeedbackOrderDTO(orderId, toLocalDateTime(row[1]), new ArrayList<>());
+             orders.put(orderId, order);
+         }
+         order.getUnratedFoodIds().add(((Number) row[2]).intValue());
      }
-     if (user == null) {
-         throw new UserNotFoundException("User not found with email: " + email);
+     return new ArrayList<>(orders.values());
+ }
+
+ private static LocalDateTime toLocalDateTime(Object value) {
+     if (value instanceof Timestamp timestamp) {
+         return timestamp.toLocalDateTime();
      }
-     
-     // Note: This method needs getOrdersByCustomer endpoint in Order service
-     // For now, returning empty list - you'll need to add this endpoint to foodservice
-     return List.of();
+     return (LocalDateTime) value;
  }
  
  public boolean isFoodRatingGiven(int orderId, long customerId, int foodId) {
@@ -164,4 +282,9 @@ public class FeedbackServiceImpl implements FeedbackService {
          return false;
      }
  }
+
+ /** Rated (order, food) pairs among {@code orderIds} for the calling customer, never a customer named by the client. */
+ public List<RatedFoodDTO> getRatedFoods(List<Integer> orderIds) {
+     return feedbackRepo.findRatedFoods(currentCustomerId(), orderIds);
+ }
 }
@@ -0,0 +1,82 @@
+package com.cts.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.cts.client.FoodServiceClient;
+import com.cts.dto.request.FoodRatingBatchRequestDTO;
+import com.cts.dto.request.FoodRatingUpdateDTO;
+import com.cts.entity.FoodRatingAggregate;
+import com.cts.entity.PendingRatingUpdate;
+import com.cts.repository.FoodRatingAggregateRepository;
+import com.cts.repository.PendingRatingUpdateRepository;
+import com.cts.service.RatingPropagationService;
+import lombok.AllArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Ships changed food ratings to the food service in bulk. Submissions only mark the food
+ * as changed in pending_rating_updates; every flush window the due foods are sent in one
+ * PUT with their current mean, so the last rating in the window wins. Entries stay queued
+ * until the food service accepts them, retrying with exponential backoff.
+ */
+@Service
+@AllArgsConstructor
+public class RatingPropagationServiceImpl implements RatingPropagationService {
+
+    static final int FLUSH_BATCH = 500;
+    static final int MAX_BACKOFF_SECONDS = 300;
+
+    private PendingRatingUpdateRepository pendingRepo;
+    private FoodRatingAggregateRepository aggregateRepo;
+    private FoodServiceClient foodServiceClient;
+
+    @Transactional
+    public void markChanged(int foodId) {
+        pendingRepo.enqueue(foodId, LocalDateTime.now());
+    }
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${feedback.rating-flush.interval-ms:5000}")
+    public int flush() {
+        LocalDateTime now = LocalDateTime.now();
+        List<PendingRatingUpdate> due = pendingRepo.findDue(now, PageRequest.of(0, FLUSH_BATCH));
+        if (due.isEmpty()) {
+            return 0;
+        }
+        List<Integer> foodIds = due.stream().map(PendingRatingUpdate::getFoodId).collect(Collectors.toList());
+        Map<Integer, FoodRatingAggregate> aggregates = aggregateRepo.findAllById(foodIds).stream()
+                .collect(Collectors.toMap(FoodRatingAggregate::getFoodId, Function.identity()));
+
+        List<FoodRatingUpdateDTO> ratings = new ArrayList<>();
+        for (PendingRatingUpdate pending : due) {
+            FoodRatingAggregate aggregate = aggregates.get(pending.getFoodId());
+            if (aggregate != null) {
+                ratings.add(new FoodRatingUpdateDTO(pending.getFoodId(), (float) aggregate.mean()));
+            }
+        }
+        try {
+            if (!ratings.isEmpty()) {
+                foodServiceClient.updateFoodRatings(new FoodRatingBatchRequestDTO(ratings));
+            }
+        } catch (Exception e) {
+            int attempts = due.stream().mapToInt(PendingRatingUpdate::getAttempts).max().orElse(0) + 1;
+            long backoff = Math.min(1L << Math.min(attempts, 16), MAX_BACKOFF_SECONDS);
+            pendingRepo.markFailed(foodIds, now.plusSeconds(backoff));
+            System.err.println("Warning: Failed to push " + ratings.size() + " food ratings, retrying in "
+                    + backoff + "s: " + e.getMessage());
+            return 0;
+        }
+        for (PendingRatingUpdate pending : due) {
+            pendingRepo.deleteIfUnchanged(pending.getFoodId(), pending.getVersion());
+        }
+        return ratings.size();
+    }
+}
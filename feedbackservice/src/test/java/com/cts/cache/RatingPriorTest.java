@@ -0,0 +1,52 @@
+package com.cts.cache;
+
+import com.cts.repository.FoodRatingAggregateRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class RatingPriorTest {
+
+    @Mock
+    private FoodRatingAggregateRepository aggregateRepo;
+
+    private RatingPrior ratingPrior;
+
+    @BeforeEach
+    void setUp() {
+        ratingPrior = new RatingPrior(aggregateRepo);
+    }
+
+    @Test
+    @DisplayName("Positive: The global mean is summed once and then served from memory until refreshed")
+    void mean_ComputedOnceUntilRefresh() {
+        when(aggregateRepo.findGlobalMean()).thenReturn(4.2, 3.9);
+
+        assertEquals(4.2, ratingPrior.mean());
+        assertEquals(4.2, ratingPrior.mean());
+        verify(aggregateRepo, times(1)).findGlobalMean();
+
+        ratingPrior.refresh();
+
+        assertEquals(3.9, ratingPrior.mean());
+        verify(aggregateRepo, times(2)).findGlobalMean();
+    }
+
+    @Test
+    @DisplayName("Negative: With no ratings at all the prior falls back to the default mean")
+    void mean_DefaultWithoutRatings() {
+        when(aggregateRepo.findGlobalMean()).thenReturn(null);
+
+        assertEquals(RatingPrior.DEFAULT_MEAN, ratingPrior.mean());
+    }
+}
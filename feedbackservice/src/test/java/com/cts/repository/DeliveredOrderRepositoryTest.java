@@ -0,0 +1,88 @@
+package com.cts.repository;
+
+import com.cts.entity.Feedback;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the delivered-order inserts and the awaiting-feedback anti-join on MySQL; every test
+ * rolls back.
+ */
+public class DeliveredOrderRepositoryTest extends MySqlRepositoryTest {
+
+    private static final long CUSTOMER_ID = 7L;
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @Autowired
+    private DeliveredOrderRepository deliveredOrderRepo;
+
+    @Autowired
+    private FeedbackRepository feedbackRepo;
+
+    @BeforeEach
+    void setUp() {
+        delivered(41, CUSTOMER_ID, 101, 102);
+        delivered(42, CUSTOMER_ID, 101);
+        delivered(43, 99L, 101);
+        delivered(44, CUSTOMER_ID, 103);
+        rated(41, 101);
+        rated(42, 101);
+    }
+
+    @Test
+    @DisplayName("Positive: Only the customer's unrated items come back, newest order first")
+    void findUnratedItems_AntiJoinsFeedback() {
+        List<Object[]> rows = deliveredOrderRepo.findUnratedItems(CUSTOMER_ID, Integer.MAX_VALUE, 10);
+
+        assertEquals(List.of(List.of(44, 103), List.of(41, 102)), orderAndFood(rows));
+    }
+
+    @Test
+    @DisplayName("Positive: Pages hold whole orders and continue below the last order id")
+    void findUnratedItems_PagesByOrder() {
+        assertEquals(List.of(List.of(44, 103)), orderAndFood(deliveredOrderRepo.findUnratedItems(CUSTOMER_ID, Integer.MAX_VALUE, 1)));
+        assertEquals(List.of(List.of(41, 102)), orderAndFood(deliveredOrderRepo.findUnratedItems(CUSTOMER_ID, 44, 1)));
+        assertTrue(deliveredOrderRepo.findUnratedItems(CUSTOMER_ID, 41, 1).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Negative: Recording the same delivered order again changes nothing")
+    void insertIfAbsent_IgnoresRepeats() {
+        assertEquals(0, deliveredOrderRepo.insertIfAbsent(41, 99L, NOW.plusDays(1)));
+        assertEquals(0, deliveredOrderRepo.insertFoodIfAbsent(41, 101));
+        assertTrue(deliveredOrderRepo.containsFood(41, 102));
+        assertFalse(deliveredOrderRepo.containsFood(41, 103));
+    }
+
+    private void delivered(int orderId, long customerId, int... foodIds) {
+        deliveredOrderRepo.insertIfAbsent(orderId, customerId, NOW);
+        for (int foodId : foodIds) {
+            deliveredOrderRepo.insertFoodIfAbsent(orderId, foodId);
+        }
+    }
+
+    private void rated(int orderId, int foodId) {
+        Feedback feedback = new Feedback();
+        feedback.setCustomer(CUSTOMER_ID);
+        feedback.setOrderId(orderId);
+        feedback.setFoodId(foodId);
+        feedback.setFoodRating(5);
+        feedback.setDateOfFeedback(LocalDate.of(2026, 1, 2));
+        feedbackRepo.saveAndFlush(feedback);
+    }
+
+    private static List<List<Integer>> orderAndFood(List<Object[]> rows) {
+        return rows.stream()
+                .map(row -> List.of(((Number) row[0]).intValue(), ((Number) row[2]).intValue()))
+                .toList();
+    }
+}
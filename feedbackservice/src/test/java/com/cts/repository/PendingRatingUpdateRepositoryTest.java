@@ -0,0 +1,73 @@
+package com.cts.repository;
+
+import com.cts.entity.PendingRatingUpdate;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the rating queue's upsert and versioned delete on MySQL; every test rolls back.
+ */
+public class PendingRatingUpdateRepositoryTest extends MySqlRepositoryTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @Autowired
+    private PendingRatingUpdateRepository pendingRepo;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    @DisplayName("Positive: Repeated ratings keep one queue entry and bump its version")
+    void enqueue_CollapsesIntoOneEntry() {
+        pendingRepo.enqueue(101, NOW);
+        pendingRepo.enqueue(101, NOW.plusSeconds(1));
+        pendingRepo.enqueue(101, NOW.plusSeconds(2));
+
+        PendingRatingUpdate pending = reload(101);
+        assertEquals(3, pending.getVersion());
+        assertEquals(NOW, pending.getNextAttemptAt());
+    }
+
+    @Test
+    @DisplayName("Negative: An entry re-queued after it was read is not deleted at the old version")
+    void deleteIfUnchanged_KeepsNewerRatings() {
+        pendingRepo.enqueue(101, NOW);
+        pendingRepo.enqueue(101, NOW);
+
+        assertEquals(0, pendingRepo.deleteIfUnchanged(101, 1));
+        assertNotNull(reload(101));
+        assertEquals(1, pendingRepo.deleteIfUnchanged(101, 2));
+        assertNull(reload(101));
+    }
+
+    @Test
+    @DisplayName("Positive: A failed batch is pushed back and skipped until its next attempt is due")
+    void markFailed_BacksOffBatch() {
+        pendingRepo.enqueue(101, NOW);
+        pendingRepo.enqueue(102, NOW);
+        pendingRepo.enqueue(103, NOW);
+
+        pendingRepo.markFailed(List.of(101, 102), NOW.plusSeconds(30));
+        entityManager.clear();
+
+        assertEquals(List.of(103), pendingRepo.findDue(NOW, PageRequest.of(0, 10)).stream()
+                .map(PendingRatingUpdate::getFoodId).toList());
+        assertEquals(1, reload(101).getAttempts());
+        assertEquals(3, pendingRepo.findDue(NOW.plusSeconds(30), PageRequest.of(0, 10)).size());
+    }
+
+    private PendingRatingUpdate reload(int foodId) {
+        entityManager.clear();
+        return pendingRepo.findById(foodId).orElse(null);
+    }
+}
@@ -0,0 +1,315 @@
+package com.cts.service;
+
+import com.cts.cache.RatingPrior;
+import com.cts.client.OrderServiceClient;
+import com.cts.client.UserServiceClient;
+import com.cts.config.GatewayAuthenticationDetails;
+import com.cts.dto.request.FoodFeedbackRequestDTO;
+import com.cts.dto.response.FoodFeedbackResponseDTO;
+import com.cts.dto.response.FoodRatingSummaryDTO;
+import com.cts.dto.response.PendingFeedbackOrderDTO;
+import com.cts.dto.response.RatedFoodDTO;
+import com.cts.entity.DeliveredOrder;
+import com.cts.entity.Feedback;
+import com.cts.entity.FoodRatingAggregate;
+import com.cts.enums.OrderStatus;
+import com.cts.exception.FeedbackAlreadyProvidedException;
+import com.cts.exception.FoodNotFoundException;
+import com.cts.exception.UnauthorizedActionException;
+import com.cts.model.Food;
+import com.cts.model.Order;
+import com.cts.model.OrderItem;
+import com.cts.repository.DeliveredOrderRepository;
+import com.cts.repository.FeedbackRepository;
+import com.cts.repository.FoodRatingAggregateRepository;
+import com.cts.service.impl.FeedbackServiceImpl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class FeedbackServiceImplTest {
+
+    private static final long CUSTOMER_ID = 7L;
+
+    @Spy
+    private ModelMapper modelMapper = new ModelMapper();
+
+    @Mock
+    private FeedbackRepository feedbackRepo;
+
+    @Mock
+    private UserServiceClient userServiceClient;
+
+    @Mock
+    private OrderServiceClient orderServiceClient;
+
+    @Mock
+    private DeliveredOrderRepository deliveredOrderRepo;
+
+    @Mock
+    private FoodRatingAggregateRepository aggregateRepo;
+
+    @Mock
+    private RatingPropagationService ratingPropagationService;
+
+    @Mock
+    private RatingPrior ratingPrior;
+
+    @InjectMocks
+    private FeedbackServiceImpl feedbackService;
+
+    private FoodFeedbackRequestDTO request;
+
+    @BeforeEach
+    void setUp() {
+        UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken("cust@test.com", null, List.of());
+        authentication.setDetails(new GatewayAuthenticationDetails(new MockHttpServletRequest(), CUSTOMER_ID));
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+
+        request = new FoodFeedbackRequestDTO();
+        request.setOrderId(42);
+        request.setFoodRating(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Positive: Feedback on a locally known delivered order is validated without remote calls")
+    void submitFoodFeedback_ValidatesLocally() {
+        when(deliveredOrderRepo.findById(42)).thenReturn(Optional.of(delivered(42, CUSTOMER_ID, 101)));
+        when(deliveredOrderRepo.containsFood(42, 101)).thenReturn(true);
+        when(feedbackRepo.save(any(Feedback.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        FoodFeedbackResponseDTO response = feedbackService.submitFoodFeedback(request, 101);
+
+        assertEquals(101, response.getFoodId());
+        assertEquals(42, response.getOrderId());
+        assertEquals(4, response.getFoodRating());
+        verify(aggregateRepo).record(101, 4);
+        verify(ratingPropagationService).markChanged(101);
+        verifyNoInteractions(orderServiceClient, userServiceClient);
+    }
+
+    @Test
+    @DisplayName("Negative: Feedback on another customer's order is rejected")
+    void submitFoodFeedback_OtherCustomersOrder() {
+        when(deliveredOrderRepo.findById(42)).thenReturn(Optional.of(delivered(42, 99L, 101)));
+
+        assertThrows(UnauthorizedActionException.class, () -> feedbackService.submitFoodFeedback(request, 101));
+        verify(feedbackRepo, never()).save(any());
+        verify(aggregateRepo, never()).record(anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Negative: Feedback on a food that was not in the order is rejected")
+    void submitFoodFeedback_FoodNotInOrder() {
+        when(deliveredOrderRepo.findById(42)).thenReturn(Optional.of(delivered(42, CUSTOMER_ID, 101)));
+        when(deliveredOrderRepo.containsFood(42, 555)).thenReturn(false);
+
+        assertThrows(FoodNotFoundException.class, () -> feedbackService.submitFoodFeedback(request, 555));
+        verify(feedbackRepo, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Negative: A second rating for the same food in the same order is rejected")
+    void submitFoodFeedback_AlreadyRated() {
+        when(deliveredOrderRepo.findById(42)).thenReturn(Optional.of(delivered(42, CUSTOMER_ID, 101)));
+        when(deliveredOrderRepo.containsFood(42, 101)).thenReturn(true);
+        when(feedbackRepo.existsByOrderIdAndCustomerAndFoodId(42, CUSTOMER_ID, 101)).thenReturn(true);
+
+        assertThrows(FeedbackAlreadyProvidedException.class, () -> feedbackService.submitFoodFeedback(request, 101));
+        verify(feedbackRepo, never()).save(any());
+        verify(ratingPropagationService, never()).markChanged(anyInt());
+    }
+
+    @Test
+    @DisplayName("Positive: An order missing locally is fetched once and its facts stored for next time")
+    void submitFoodFeedback_FallsBackToOrderService() {
+        when(deliveredOrderRepo.findById(42)).thenReturn(Optional.empty());
+        when(orderServiceClient.getOrderById(42)).thenReturn(order(42, CUSTOMER_ID, OrderStatus.DELIVERED, 101, 102, 101));
+        when(deliveredOrderRepo.containsFood(42, 101)).thenReturn(true);
+        when(feedbackRepo.save(any(Feedback.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        feedbackService.submitFoodFeedback(request, 101);
+
+        verify(deliveredOrderRepo).insertIfAbsent(eq(42), eq(CUSTOMER_ID), any(LocalDateTime.class));
+        verify(deliveredOrderRepo).insertFoodIfAbsent(42, 101);
+        verify(deliveredOrderRepo).insertFoodIfAbsent(42, 102);
+        verify(deliveredOrderRepo, times(2)).insertFoodIfAbsent(eq(42), anyInt());
+        verify(feedbackRepo).save(any(Feedback.class));
+        verifyNoInteractions(userServiceClient);
+    }
+
+    @Test
+    @DisplayName("Negative: On the fallback path an order that is not delivered yet is rejected and not stored")
+    void submitFoodFeedback_FallbackOrderNotDelivered() {
+        when(deliveredOrderRepo.findById(42)).thenReturn(Optional.empty());
+        when(orderServiceClient.getOrderById(42)).thenReturn(order(42, CUSTOMER_ID, OrderStatus.OUT, 101));
+
+        assertThrows(UnauthorizedActionException.class, () -> feedbackService.submitFoodFeedback(request, 101));
+        verify(deliveredOrderRepo, never()).insertIfAbsent(anyInt(), any(Long.class), any());
+        verify(feedbackRepo, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Positive: The weighted rating blends a food's ratings with the global mean")
+    void getRatingSummary_WeightsByPrior() {
+        when(aggregateRepo.findById(101)).thenReturn(Optional.of(aggregate(101, 10, 50)));
+        when(ratingPrior.mean()).thenReturn(4.0);
+
+        FoodRatingSummaryDTO summary = feedbackService.getRatingSummary(101);
+
+        assertEquals(10, summary.getRatingCount());
+        assertEquals(5.0, summary.getAverageRating(), 1e-9);
+        assertEquals((10 * 4.0 + 50) / 20, summary.getWeightedRating(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Negative: A food nobody has rated gets an empty summary weighted at the prior")
+    void getRatingSummary_UnratedFood() {
+        when(aggregateRepo.findById(101)).thenReturn(Optional.empty());
+        when(ratingPrior.mean()).thenReturn(3.0);
+
+        FoodRatingSummaryDTO summary = feedbackService.getRatingSummary(101);
+
+        assertEquals(0, summary.getRatingCount());
+        assertEquals(3.0, summary.getWeightedRating(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Positive: Summaries for many foods are read in one lookup and returned once each, in request order")
+    void getRatingSummaries_OneLookup() {
+        when(aggregateRepo.findAllById(Set.of(102, 101))).thenReturn(List.of(aggregate(101, 2, 8)));
+        when(ratingPrior.mean()).thenReturn(4.0);
+
+        List<FoodRatingSummaryDTO> summaries = feedbackService.getRatingSummaries(List.of(102, 101, 102));
+
+        assertEquals(List.of(102, 101), summaries.stream().map(FoodRatingSummaryDTO::getFoodId).toList());
+        assertEquals(0, summaries.get(0).getRatingCount());
+        assertEquals(2, summaries.get(1).getRatingCount());
+        verify(aggregateRepo, times(1)).findAllById(any());
+        verify(aggregateRepo, never()).findById(anyInt());
+        verify(aggregateRepo, never()).findGlobalMean();
+        verify(ratingPrior, times(1)).mean();
+    }
+
+    @Test
+    @DisplayName("Positive: The first feedback page starts from the newest entry and oversized pages are capped")
+    void getFeedbackByFoodId_KeysetPage() {
+        feedbackService.getFeedbackByFoodId(101, null, 1000);
+        feedbackService.getFeedbackByFoodId(101, 500, 0);
+
+        verify(feedbackRepo).findPageByFoodId(101, Integer.MAX_VALUE, PageRequest.of(0, 50));
+        verify(feedbackRepo).findPageByFoodId(101, 500, PageRequest.of(0, 1));
+    }
+
+    @Test
+    @DisplayName("Positive: Unrated items come back grouped into one entry per order, newest order first")
+    void getCompletedOrdersForFeedback_GroupsRows() {
+        LocalDateTime deliveredAt = LocalDateTime.of(2026, 1, 1, 12, 0);
+        when(deliveredOrderRepo.findUnratedItems(CUSTOMER_ID, Integer.MAX_VALUE, 10)).thenReturn(List.of(
+                new Object[] {44, Timestamp.valueOf(deliveredAt), 101},
+                new Object[] {44, Timestamp.valueOf(deliveredAt), 103},
+                new Object[] {41, Timestamp.valueOf(deliveredAt.minusDays(1)), 102}));
+
+        List<PendingFeedbackOrderDTO> orders = feedbackService.getCompletedOrdersForFeedback(null, 10);
+
+        assertEquals(List.of(
+                new PendingFeedbackOrderDTO(44, deliveredAt, List.of(101, 103)),
+                new PendingFeedbackOrderDTO(41, deliveredAt.minusDays(1), List.of(102))), orders);
+        verifyNoInteractions(orderServiceClient, userServiceClient);
+    }
+
+    @Test
+    @DisplayName("Negative: Without an authenticated customer no orders are looked up")
+    void getCompletedOrdersForFeedback_Unauthenticated() {
+        SecurityContextHolder.clearContext();
+
+        assertThrows(UnauthorizedActionException.class, () -> feedbackService.getCompletedOrdersForFeedback(null, 10));
+        verify(deliveredOrderRepo, never()).findUnratedItems(any(Long.class), anyInt(), anyInt());
+        verify(userServiceClient, never()).getUserByEmail(anyString());
+    }
+
+    @Test
+    @DisplayName("Positive: Rated foods are looked up for the customer the gateway authenticated")
+    void getRatedFoods_UsesGatewayCustomer() {
+        List<RatedFoodDTO> rated = List.of(new RatedFoodDTO(41, 101));
+        when(feedbackRepo.findRatedFoods(CUSTOMER_ID, List.of(41, 42))).thenReturn(rated);
+
+        assertEquals(rated, feedbackService.getRatedFoods(List.of(41, 42)));
+        verifyNoInteractions(userServiceClient);
+    }
+
+    @Test
+    @DisplayName("Negative: Without an authenticated customer no rating status is returned")
+    void getRatedFoods_Unauthenticated() {
+        SecurityContextHolder.clearContext();
+
+        assertThrows(UnauthorizedActionException.class, () -> feedbackService.getRatedFoods(List.of(41)));
+        verify(feedbackRepo, never()).findRatedFoods(any(Long.class), any());
+    }
+
+    private static DeliveredOrder delivered(int orderId, long customerId, Integer... foodIds) {
+        return new DeliveredOrder(orderId, customerId, Set.of(foodIds), LocalDateTime.now());
+    }
+
+    private static Order order(int orderId, long customerId, OrderStatus status, int... foodIds) {
+        Order order = new Order();
+        order.setId(orderId);
+        order.setCustomer(customerId);
+        order.setOrderStatus(status);
+        order.setOrderItems(new ArrayList<>());
+        for (int foodId : foodIds) {
+            Food food = new Food();
+            food.setId(foodId);
+            OrderItem item = new OrderItem();
+            item.setFood(food);
+            item.setOrder(order);
+            order.getOrderItems().add(item);
+        }
+        return order;
+    }
+
+    private static FoodRatingAggregate aggregate(int foodId, long count, long sum) {
+        FoodRatingAggregate aggregate = new FoodRatingAggregate();
+        aggregate.setFoodId(foodId);
+        aggregate.setRatingCount(count);
+        aggregate.setRatingSum(sum);
+        return aggregate;
+    }
+}
@@ -0,0 +1,157 @@
+package com.cts.service;
+
+import com.cts.client.FoodServiceClient;
+import com.cts.dto.request.FoodRatingBatchRequestDTO;
+import com.cts.dto.request.FoodRatingUpdateDTO;
+import com.cts.entity.FoodRatingAggregate;
+import com.cts.entity.PendingRatingUpdate;
+import com.cts.repository.FoodRatingAggregateRepository;
+import com.cts.repository.PendingRatingUpdateRepository;
+import com.cts.service.impl.RatingPropagationServiceImpl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class RatingPropagationServiceImplTest {
+
+    @Mock
+    private PendingRatingUpdateRepository pendingRepo;
+
+    @Mock
+    private FoodRatingAggregateRepository aggregateRepo;
+
+    @Mock
+    private FoodServiceClient foodServiceClient;
+
+    @InjectMocks
+    private RatingPropagationServiceImpl ratingPropagationService;
+
+    @Test
+    @DisplayName("Positive: A changed rating is queued instead of being pushed right away")
+    void markChanged_QueuesFood() {
+        ratingPropagationService.markChanged(101);
+
+        verify(pendingRepo).enqueue(eq(101), any(LocalDateTime.class));
+        verifyNoInteractions(foodServiceClient);
+    }
+
+    @Test
+    @DisplayName("Positive: Due foods go out in one bulk update carrying each food's current mean")
+    void flush_SendsOneBulkUpdate() {
+        when(pendingRepo.findDue(any(), any())).thenReturn(List.of(pending(101, 1, 0), pending(102, 1, 0)));
+        when(aggregateRepo.findAllById(List.of(101, 102))).thenReturn(List.of(aggregate(101, 2, 9), aggregate(102, 4, 10)));
+
+        int sent = ratingPropagationService.flush();
+
+        assertEquals(2, sent);
+        ArgumentCaptor<FoodRatingBatchRequestDTO> request = ArgumentCaptor.forClass(FoodRatingBatchRequestDTO.class);
+        verify(foodServiceClient, times(1)).updateFoodRatings(request.capture());
+        assertEquals(List.of(new FoodRatingUpdateDTO(101, 4.5f), new FoodRatingUpdateDTO(102, 2.5f)),
+                request.getValue().getRatings());
+    }
+
+    @Test
+    @DisplayName("Positive: Many ratings in one window collapse into a single update with the latest mean")
+    void flush_LastValueWins() {
+        // Three ratings bumped the entry to version 3; the aggregate already holds all of them.
+        when(pendingRepo.findDue(any(), any())).thenReturn(List.of(pending(101, 3, 0)));
+        when(aggregateRepo.findAllById(List.of(101))).thenReturn(List.of(aggregate(101, 3, 12)));
+
+        ratingPropagationService.flush();
+
+        ArgumentCaptor<FoodRatingBatchRequestDTO> request = ArgumentCaptor.forClass(FoodRatingBatchRequestDTO.class);
+        verify(foodServiceClient).updateFoodRatings(request.capture());
+        assertEquals(List.of(new FoodRatingUpdateDTO(101, 4.0f)), request.getValue().getRatings());
+        verify(pendingRepo).deleteIfUnchanged(101, 3);
+    }
+
+    @Test
+    @DisplayName("Positive: Sent entries are removed only at the version that was sent, so newer ratings stay queued")
+    void flush_DeletesOnlyUnchangedEntries() {
+        when(pendingRepo.findDue(any(), any())).thenReturn(List.of(pending(101, 2, 0), pending(102, 5, 0)));
+        when(aggregateRepo.findAllById(List.of(101, 102))).thenReturn(List.of(aggregate(101, 1, 5), aggregate(102, 1, 3)));
+
+        ratingPropagationService.flush();
+
+        verify(pendingRepo).deleteIfUnchanged(101, 2);
+        verify(pendingRepo).deleteIfUnchanged(102, 5);
+        verify(pendingRepo, never()).deleteAll(any());
+        verify(pendingRepo, never()).markFailed(any(), any());
+    }
+
+    @Test
+    @DisplayName("Negative: A failed push backs off the whole batch from its most retried entry and keeps it queued")
+    void flush_FailureBacksOffBatch() {
+        when(pendingRepo.findDue(any(), any())).thenReturn(List.of(pending(101, 1, 0), pending(102, 1, 3)));
+        when(aggregateRepo.findAllById(List.of(101, 102))).thenReturn(List.of(aggregate(101, 1, 5), aggregate(102, 1, 3)));
+        doThrow(new RuntimeException("food service down")).when(foodServiceClient).updateFoodRatings(any());
+        LocalDateTime before = LocalDateTime.now();
+
+        int sent = ratingPropagationService.flush();
+
+        assertEquals(0, sent);
+        ArgumentCaptor<LocalDateTime> nextAttempt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(pendingRepo).markFailed(eq(List.of(101, 102)), nextAttempt.capture());
+        // Fourth attempt: 2^4 seconds
+        assertFalse(nextAttempt.getValue().isBefore(before.plusSeconds(16)));
+        assertTrue(nextAttempt.getValue().isBefore(before.plusSeconds(17)));
+        verify(pendingRepo, never()).deleteIfUnchanged(anyInt(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Negative: The backoff stops growing at the maximum however often a batch has failed")
+    void flush_BackoffIsCapped() {
+        when(pendingRepo.findDue(any(), any())).thenReturn(List.of(pending(101, 1, 40)));
+        when(aggregateRepo.findAllById(List.of(101))).thenReturn(List.of(aggregate(101, 1, 5)));
+        doThrow(new RuntimeException("food service down")).when(foodServiceClient).updateFoodRatings(any());
+        LocalDateTime before = LocalDateTime.now();
+
+        ratingPropagationService.flush();
+
+        ArgumentCaptor<LocalDateTime> nextAttempt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(pendingRepo).markFailed(eq(List.of(101)), nextAttempt.capture());
+        assertTrue(nextAttempt.getValue().isBefore(before.plusSeconds(301)));
+    }
+
+    @Test
+    @DisplayName("Negative: Nothing due means no call to the food service")
+    void flush_NothingDue() {
+        when(pendingRepo.findDue(any(), any())).thenReturn(List.of());
+
+        assertEquals(0, ratingPropagationService.flush());
+        verifyNoInteractions(foodServiceClient);
+    }
+
+    private static PendingRatingUpdate pending(int foodId, long version, int attempts) {
+        return new PendingRatingUpdate(foodId, version, attempts, LocalDateTime.now().minusSeconds(1));
+    }
+
+    private static FoodRatingAggregate aggregate(int foodId, long count, long sum) {
+        FoodRatingAggregate aggregate = new FoodRatingAggregate();
+        aggregate.setFoodId(foodId);
+        aggregate.setRatingCount(count);
+        aggregate.setRatingSum(sum);
+        return aggregate;
+    }
+}
@@ -0,0 +1,12 @@
+package com.cts.cache;
+
+/**
+ * A catalog response already serialized to UTF-8 JSON, together with the catalog version
+ * it was rendered from. The byte array is shared between requests and must not be modified.
+ */
+public record CatalogBody(String version, byte[] json) {
+
+    public String etag() {
+        return MenuCatalog.etag(version);
+    }
+}
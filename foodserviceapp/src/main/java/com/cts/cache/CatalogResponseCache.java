@@ -0,0 +1,69 @@
+package com.cts.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Serialized JSON for the browse endpoints, rendered once per catalog version and key
+ * (e.g. one entry per page or category page). A hit hands the controller the same bytes
+ * Jackson produced the first time, so polling clients cost a map lookup instead of a
+ * full serialization. Everything is dropped as soon as the catalog version moves on.
+ */
+@Component
+public class CatalogResponseCache {
+
+    private final MenuCatalog menuCatalog;
+    private final ObjectMapper objectMapper;
+
+    private final ConcurrentMap<String, CatalogBody> bodies = new ConcurrentHashMap<>();
+    private volatile String renderedVersion;
+
+    public CatalogResponseCache(MenuCatalog menuCatalog, ObjectMapper objectMapper) {
+        this.menuCatalog = menuCatalog;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Returns the body for {@code key} at the current catalog version, building it from
+     * the same snapshot the version comes from. Exceptions thrown by {@code body} (e.g. an
+     * empty page) propagate and nothing is cached.
+     */
+    public CatalogBody render(String key, Function<MenuSnapshot, ?> body) {
+        MenuSnapshot snapshot = menuCatalog.current();
+        String version = snapshot.version();
+        if (!version.equals(renderedVersion)) {
+            evictOtherVersions(version);
+        }
+        CatalogBody cached = bodies.get(key);
+        if (cached != null && cached.version().equals(version)) {
+            return cached;
+        }
+        CatalogBody rendered = new CatalogBody(version, serialize(body.apply(snapshot)));
+        bodies.put(key, rendered);
+        return rendered;
+    }
+
+    int size() {
+        return bodies.size();
+    }
+
+    private synchronized void evictOtherVersions(String version) {
+        if (!version.equals(renderedVersion)) {
+            bodies.values().removeIf(entry -> !entry.version().equals(version));
+            renderedVersion = version;
+        }
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize catalog response", ex);
+        }
+    }
+}
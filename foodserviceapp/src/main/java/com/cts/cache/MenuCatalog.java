@@ -0,0 +1,236 @@
+package com.cts.cache;
+
+import com.cts.dto.response.CategoryResponseDTO;
+import com.cts.dto.response.FoodResponseDTO;
+import com.cts.entity.Category;
+import com.cts.entity.Food;
+import com.cts.repository.CategoryRepository;
+import com.cts.repository.FoodRepository;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory copy of the menu so browse requests never reach MySQL in steady state.
+ * Food and category mutators call {@link #invalidate()} after saving, and the next read
+ * rebuilds the snapshot. MAX_AGE bounds how long a change made on another instance can
+ * go unnoticed here.
+ */
+@Component
+public class MenuCatalog {
+
+    public static final String VERSION_HEADER = "X-Catalog-Version";
+    static final Duration MAX_AGE = Duration.ofSeconds(30);
+
+    private final FoodRepository foodRepository;
+    private final CategoryRepository categoryRepository;
+    private final ModelMapper mapper;
+    private final long maxAgeNanos;
+    private final LongSupplier clock;
+
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Loaded loaded;
+
+    @Autowired
+    public MenuCatalog(FoodRepository foodRepository, CategoryRepository categoryRepository, ModelMapper mapper) {
+        this(foodRepository, categoryRepository, mapper, MAX_AGE, System::nanoTime);
+    }
+
+    MenuCatalog(FoodRepository foodRepository, CategoryRepository categoryRepository, ModelMapper mapper,
+            Duration maxAge, LongSupplier clock) {
+        this.foodRepository = foodRepository;
+        this.categoryRepository = categoryRepository;
+        this.mapper = mapper;
+        this.maxAgeNanos = maxAge.toNanos();
+        this.clock = clock;
+    }
+
+    public MenuSnapshot current() {
+        Loaded current = loaded;
+        if (isFresh(current)) {
+            return current.snapshot;
+        }
+        return rebuild();
+    }
+
+    public String version() {
+        return current().version();
+    }
+
+    /** Marks the snapshot stale; call after a food or category change has been saved. */
+    public void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Marks the snapshot stale once the surrounding transaction commits, and only if one of
+     * {@code ratings} changes a rating as served. Browse responses carry whole-star ratings,
+     * so most pushes from the feedback service keep the version and the rendered bodies.
+     */
+    public void ratingsUpdatedAfterCommit(Map<Integer, Float> ratings) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            applyRatings(ratings);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                applyRatings(ratings);
+            }
+        });
+    }
+
+    private void applyRatings(Map<Integer, Float> ratings) {
+        Loaded current = loaded;
+        if (current == null) {
+            return;
+        }
+        for (Map.Entry<Integer, Float> rating : ratings.entrySet()) {
+            FoodResponseDTO food = current.snapshot.food(rating.getKey());
+            if (food != null && food.getAvgRating() != servedRating(rating.getValue())) {
+                invalidate();
+                return;
+            }
+        }
+    }
+
+    // ModelMapper truncates the stored float rating when it fills FoodResponseDTO.
+    static int servedRating(float avgRating) {
+        return (int) avgRating;
+    }
+
+    // Only one thread reloads; the rest wait and reuse its result.
+    private synchronized MenuSnapshot rebuild() {
+        Loaded current = loaded;
+        if (isFresh(current)) {
+            return current.snapshot;
+        }
+        long loadGeneration = generation.get();
+        MenuSnapshot snapshot = load();
+        // A change saved while loading may be missing from this snapshot, so keep it out of the cache.
+        if (generation.get() == loadGeneration) {
+            loaded = new Loaded(snapshot, loadGeneration, clock.getAsLong());
+        }
+        return snapshot;
+    }
+
+    private boolean isFresh(Loaded current) {
+        return current != null
+                && current.generation == generation.get()
+                && clock.getAsLong() - current.loadedAt <= maxAgeNanos;
+    }
+
+    private MenuSnapshot load() {
+        List<Food> foodEntities = new ArrayList<>(foodRepository.findAll());
+        foodEntities.sort(Comparator.comparingInt(Food::getId));
+        List<Category> categoryEntities = new ArrayList<>(categoryRepository.findAll());
+        categoryEntities.sort(Comparator.comparingInt(Category::getId));
+
+        List<FoodResponseDTO> foods = new ArrayList<>();
+        List<FoodResponseDTO> activeFoods = new ArrayList<>();
+        List<FoodResponseDTO> inactiveFoods = new ArrayList<>();
+        Map<Integer, FoodResponseDTO> foodsById = new HashMap<>();
+        Map<String, FoodResponseDTO> foodsByName = new HashMap<>();
+        Map<String, List<FoodResponseDTO>> foodsByCategory = new HashMap<>();
+        for (Food food : foodEntities) {
+            FoodResponseDTO dto = mapper.map(food, FoodResponseDTO.class);
+            foods.add(dto);
+            (dto.isStatus() ? activeFoods : inactiveFoods).add(dto);
+            foodsById.put(dto.getId(), dto);
+            if (dto.getName() != null) {
+                foodsByName.putIfAbsent(key(dto.getName()), dto);
+            }
+            if (food.getCategory() != null && food.getCategory().getName() != null) {
+                foodsByCategory.computeIfAbsent(key(food.getCategory().getName()), k -> new ArrayList<>()).add(dto);
+            }
+        }
+        foodsByCategory.replaceAll((k, list) -> Collections.unmodifiableList(list));
+
+        List<CategoryResponseDTO> categories = new ArrayList<>();
+        Map<Integer, CategoryResponseDTO> categoriesById = new HashMap<>();
+        Map<String, CategoryResponseDTO> categoriesByName = new HashMap<>();
+        for (Category category : categoryEntities) {
+            CategoryResponseDTO dto = mapper.map(category, CategoryResponseDTO.class);
+            categories.add(dto);
+            categoriesById.put(dto.getId(), dto);
+            if (dto.getName() != null) {
+                categoriesByName.putIfAbsent(key(dto.getName()), dto);
+            }
+        }
+
+        return new MenuSnapshot(
+                contentVersion(foodEntities, categoryEntities),
+                Collections.unmodifiableList(foods),
+                Collections.unmodifiableList(activeFoods),
+                Collections.unmodifiableList(inactiveFoods),
+                Collections.unmodifiableMap(foodsById),
+                Collections.unmodifiableMap(foodsByName),
+                Collections.unmodifiableMap(foodsByCategory),
+                Collections.unmodifiableList(categories),
+                Collections.unmodifiableMap(categoriesById),
+                Collections.unmodifiableMap(categoriesByName));
+    }
+
+    /**
+     * Version derived from the menu contents rather than a counter, so every instance
+     * serving the same data reports the same version. Ratings count as served, so a
+     * rating change that does not change the whole-star value keeps the version.
+     */
+    private static String contentVersion(List<Food> foods, List<Category> categories) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            StringBuilder row = new StringBuilder();
+            for (Food food : foods) {
+                row.setLength(0);
+                row.append('F').append(food.getId()).append('|').append(food.getName())
+                        .append('|').append(food.getImg()).append('|').append(food.getPrice())
+                        .append('|').append(food.getDescription()).append('|').append(food.isStatus())
+                        .append('|').append(servedRating(food.getAvgRating()));
+                Category category = food.getCategory();
+                if (category != null) {
+                    row.append('|').append(category.getId()).append('|').append(category.getName())
+                            .append('|').append(category.getImg());
+                }
+                digest.update(row.append('\n').toString().getBytes(StandardCharsets.UTF_8));
+            }
+            for (Category category : categories) {
+                row.setLength(0);
+                row.append('C').append(category.getId()).append('|').append(category.getName())
+                        .append('|').append(category.getImg());
+                digest.update(row.append('\n').toString().getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(digest.digest(), 0, 8);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    /** Strong ETag for a response rendered from the given catalog version. */
+    public static String etag(String version) {
+        return "\"" + version + "\"";
+    }
+
+    public static String key(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Loaded(MenuSnapshot snapshot, long generation, long loadedAt) {
+    }
+}
@@ -0,0 +1,45 @@
+package com.cts.cache;
+
+import com.cts.dto.response.CategoryResponseDTO;
+import com.cts.dto.response.FoodResponseDTO;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable view of the whole menu at one catalog version. Name keys are lower-cased to
+ * match the case-insensitive lookups MySQL performs. The DTOs are shared between
+ * requests and must be treated as read-only.
+ */
+public record MenuSnapshot(
+        String version,
+        List<FoodResponseDTO> foods,
+        List<FoodResponseDTO> activeFoods,
+        List<FoodResponseDTO> inactiveFoods,
+        Map<Integer, FoodResponseDTO> foodsById,
+        Map<String, FoodResponseDTO> foodsByName,
+        Map<String, List<FoodResponseDTO>> foodsByCategory,
+        List<CategoryResponseDTO> categories,
+        Map<Integer, CategoryResponseDTO> categoriesById,
+        Map<String, CategoryResponseDTO> categoriesByName) {
+
+    public FoodResponseDTO food(int id) {
+        return foodsById.get(id);
+    }
+
+    public FoodResponseDTO foodByName(String name) {
+        return name == null ? null : foodsByName.get(MenuCatalog.key(name));
+    }
+
+    public List<FoodResponseDTO> foodsInCategory(String categoryName) {
+        return categoryName == null ? List.of() : foodsByCategory.getOrDefault(MenuCatalog.key(categoryName), List.of());
+    }
+
+    public CategoryResponseDTO category(int id) {
+        return categoriesById.get(id);
+    }
+
+    public CategoryResponseDTO categoryByName(String name) {
+        return name == null ? null : categoriesByName.get(MenuCatalog.key(name));
+    }
+}
@@ -0,0 +1,141 @@
+package com.cts.cache;
+
+import com.cts.model.User;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded, TTL-based cache of users fetched from USERSERVICEAPP, looked up by id or email.
+ * USERSERVICEAPP pushes an invalidation whenever it changes a user; the TTL is only a backstop.
+ */
+@Component
+public class UserIdentityCache {
+
+    static final int MAX_ENTRIES = 10_000;
+    static final Duration TTL = Duration.ofMinutes(5);
+
+    private final Map<Long, Entry> byId = new LinkedHashMap<>(256, 0.75f, true);
+    private final Map<String, Long> idByEmail = new HashMap<>();
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong generation = new AtomicLong();
+
+    public UserIdentityCache(MeterRegistry meterRegistry) {
+        this(MAX_ENTRIES, TTL, System::nanoTime);
+        FunctionCounter.builder("user.cache.hits", hits, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("user.cache.misses", misses, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("user.cache.evictions", evictions, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("user.cache.size", this, UserIdentityCache::size).register(meterRegistry);
+    }
+
+    UserIdentityCache(int maxEntries, Duration ttl, LongSupplier clock) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.clock = clock;
+    }
+
+    public synchronized User getById(Long id) {
+        Entry entry = byId.get(id);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if (clock.getAsLong() - entry.cachedAt > ttlNanos) {
+            remove(id);
+            evictions.incrementAndGet();
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.user;
+    }
+
+    public synchronized User getByEmail(String email) {
+        Long id = idByEmail.get(email);
+        if (id == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        return getById(id);
+    }
+
+    /**
+     * Read before fetching a user remotely and pass to {@link #put}, so a fetch that raced
+     * with an invalidation does not put stale data back.
+     */
+    public long currentGeneration() {
+        return generation.get();
+    }
+
+    public synchronized void put(User user, long fetchedAtGeneration) {
+        if (user == null || user.getId() == null || fetchedAtGeneration != generation.get()) {
+            return;
+        }
+        remove(user.getId());
+        byId.put(user.getId(), new Entry(user, clock.getAsLong()));
+        if (user.getEmail() != null) {
+            idByEmail.put(user.getEmail(), user.getId());
+        }
+        Iterator<Map.Entry<Long, Entry>> eldest = byId.entrySet().iterator();
+        while (byId.size() > maxEntries && eldest.hasNext()) {
+            Entry evicted = eldest.next().getValue();
+            eldest.remove();
+            if (evicted.user.getEmail() != null) {
+                idByEmail.remove(evicted.user.getEmail(), evicted.user.getId());
+            }
+            evictions.incrementAndGet();
+        }
+    }
+
+    public synchronized void invalidate(Long id) {
+        generation.incrementAndGet();
+        remove(id);
+    }
+
+    public synchronized void invalidateAll() {
+        generation.incrementAndGet();
+        byId.clear();
+        idByEmail.clear();
+    }
+
+    public synchronized int size() {
+        return byId.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    private void remove(Long id) {
+        Entry removed = byId.remove(id);
+        if (removed != null && removed.user.getEmail() != null) {
+            idByEmail.remove(removed.user.getEmail(), id);
+        }
+    }
+
+    private record Entry(User user, long cachedAt) {
+    }
+}
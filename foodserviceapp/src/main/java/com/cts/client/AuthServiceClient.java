@@ -3,8 +3,11 @@ package com.cts.client;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 
 import com.cts.dto.response.UserResponseDTO;
@@ -14,10 +17,15 @@ import java.util.List;
 
 @FeignClient(name = "USERSERVICEAPP")
 public interface AuthServiceClient {
+
+    String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
     
     @GetMapping("/api/v1/users/{id}")
     ResponseEntity<UserResponseDTO> getUserById(@PathVariable("id") Long id);
     
+    @PostMapping("/api/v1/users/batch")
+    ResponseEntity<List<UserResponseDTO>> getUsersByIds(@RequestBody List<Long> ids);
+    
     @GetMapping("/api/v1/users/email/{email}")
     ResponseEntity<UserResponseDTO> getUserByEmail(@PathVariable("email") String email);
     
@@ -30,6 +38,12 @@ public interface AuthServiceClient {
     @GetMapping("/api/v1/users/deliverypartners/active")
     ResponseEntity<List<UserResponseDTO>> getActiveDeliveryPartners();
     
+    @PostMapping("/api/v1/users/deliverypartners/reserve")
+    ResponseEntity<UserResponseDTO> reserveDeliveryPartner(
+        @RequestParam(value = "partnerId", required = false) Long partnerId,
+        @RequestParam(value = "location", required = false) String location
+    );
+    
     @GetMapping("/api/v1/users/customers/search")
     ResponseEntity<List<UserResponseDTO>> searchCustomersByName(@RequestParam("name") String name);
     
@@ -40,9 +54,13 @@ public interface AuthServiceClient {
     ResponseEntity<UserResponseDTO> updateDeliveryPartnerAvailability(
         @PathVariable("id") Long id,
         @RequestParam("available") Boolean available,
-        @RequestParam(value = "systemUpdate", defaultValue = "false") boolean systemUpdate
+        @RequestParam(value = "systemUpdate", defaultValue = "false") boolean systemUpdate,
+        @RequestHeader(IDEMPOTENCY_KEY_HEADER) String idempotencyKey
     );
     
     @PutMapping("/api/v1/users/totalorder/update")
-    ResponseEntity<UserResponseDTO> updateTotalOrders(@RequestParam("id") Long id);
+    ResponseEntity<UserResponseDTO> updateTotalOrders(
+        @RequestParam("id") Long id,
+        @RequestHeader(IDEMPOTENCY_KEY_HEADER) String idempotencyKey
+    );
 }
\ No newline at end of file
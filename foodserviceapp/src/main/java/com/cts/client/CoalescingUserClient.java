@@ -0,0 +1,105 @@
+package com.cts.client;
+
+import com.cts.dto.response.UserResponseDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Gathers concurrent getUserById calls into one request to the USERSERVICEAPP batch endpoint.
+ * The first caller opens a batch, waits for the window, then sends the request on its own
+ * thread (so the usual X-User-* headers are forwarded) and shares the result with the batch.
+ */
+@Component
+public class CoalescingUserClient {
+
+    static final long BATCH_WINDOW_MILLIS = 2;
+    static final int MAX_BATCH_SIZE = 100;
+
+    private final AuthServiceClient authServiceClient;
+    private final long batchWindowMillis;
+    private final Object lock = new Object();
+    private Batch openBatch;
+
+    @Autowired
+    public CoalescingUserClient(AuthServiceClient authServiceClient) {
+        this(authServiceClient, BATCH_WINDOW_MILLIS);
+    }
+
+    CoalescingUserClient(AuthServiceClient authServiceClient, long batchWindowMillis) {
+        this.authServiceClient = authServiceClient;
+        this.batchWindowMillis = batchWindowMillis;
+    }
+
+    public UserResponseDTO getUserById(Long id) {
+        Batch batch;
+        boolean leader = false;
+        synchronized (lock) {
+            if (openBatch == null || openBatch.ids.size() >= MAX_BATCH_SIZE) {
+                openBatch = new Batch();
+                leader = true;
+            }
+            batch = openBatch;
+            batch.ids.add(id);
+        }
+
+        if (leader) {
+            try {
+                Thread.sleep(batchWindowMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            synchronized (lock) {
+                if (openBatch == batch) {
+                    openBatch = null;
+                }
+            }
+            try {
+                batch.result.complete(getUsersByIds(batch.ids));
+            } catch (RuntimeException e) {
+                batch.result.completeExceptionally(e);
+            }
+        }
+
+        try {
+            return batch.result.join().get(id);
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /** Looks the ids up in requests of at most {@link #MAX_BATCH_SIZE}, below the batch endpoint's cap. */
+    public Map<Long, UserResponseDTO> getUsersByIds(Collection<Long> ids) {
+        Map<Long, UserResponseDTO> users = new HashMap<>();
+        List<Long> all = new ArrayList<>(ids);
+        for (int from = 0; from < all.size(); from += MAX_BATCH_SIZE) {
+            List<Long> chunk = all.subList(from, Math.min(from + MAX_BATCH_SIZE, all.size()));
+            ResponseEntity<List<UserResponseDTO>> response = authServiceClient.getUsersByIds(new ArrayList<>(chunk));
+            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
+                for (UserResponseDTO user : response.getBody()) {
+                    users.put(user.getId(), user);
+                }
+            }
+        }
+        return users;
+    }
+
+    private static class Batch {
+        // Only mutated under the outer lock, and read by the leader after the batch is closed.
+        private final Set<Long> ids = new LinkedHashSet<>();
+        private final CompletableFuture<Map<Long, UserResponseDTO>> result = new CompletableFuture<>();
+    }
+}
@@ -0,0 +1,14 @@
+package com.cts.client;
+
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import com.cts.dto.feedback.DeliveredOrderDTO;
+
+@FeignClient(name = "FEEDBACKSERVICEAPP", path = "/api/v1/feedback")
+public interface FeedbackServiceClient {
+
+    @PostMapping("/orders/delivered")
+    void recordDeliveredOrder(@RequestBody DeliveredOrderDTO deliveredOrder);
+}
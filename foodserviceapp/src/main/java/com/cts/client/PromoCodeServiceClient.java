@@ -1,8 +1,11 @@
 package com.cts.client;
 
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import com.cts.dto.promo.PromoCodeRedeemRequestDTO;
 import com.cts.dto.promo.PromoCodeValidationRequestDTO;
@@ -16,4 +19,13 @@ public interface PromoCodeServiceClient {
 
     @PostMapping("/redeem")
     PromoCodeValidationResponseDTO redeemPromo(@RequestBody PromoCodeRedeemRequestDTO request);
+
+    @PostMapping("/holds")
+    PromoCodeValidationResponseDTO holdPromo(@RequestBody PromoCodeValidationRequestDTO request);
+
+    @PostMapping("/holds/{token}/commit")
+    void commitHold(@PathVariable("token") String token, @RequestParam("orderId") int orderId);
+
+    @DeleteMapping("/holds/{token}")
+    void releaseHold(@PathVariable("token") String token);
 }
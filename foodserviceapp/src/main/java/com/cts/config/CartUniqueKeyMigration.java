@@ -0,0 +1,65 @@
+package com.cts.config;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Makes sure uk_cart_user_food exists. ddl-auto=update cannot add the key to a cart table
+ * that already holds duplicate (user_id, food_id) rows: it logs the failure and carries on,
+ * and without the key the add-to-cart upsert inserts a new row every time. So once Hibernate
+ * has run, duplicates are merged into the oldest row and the key is created if it is still
+ * missing. Runs before the web server starts; on a database that already has the key it is
+ * a single catalog lookup.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class CartUniqueKeyMigration implements InitializingBean {
+
+    static final String UNIQUE_KEY = "uk_cart_user_food";
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public CartUniqueKeyMigration(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        // Another instance still running without the key can add a duplicate between the
+        // merge and the ALTER, so merge again and retry a couple of times.
+        for (int attempt = 1; !hasUniqueKey(); attempt++) {
+            int merged = transactionTemplate.execute(status -> mergeDuplicates());
+            try {
+                jdbcTemplate.execute("ALTER TABLE cart ADD CONSTRAINT " + UNIQUE_KEY + " UNIQUE (user_id, food_id)");
+                System.out.println("Created " + UNIQUE_KEY + " after merging " + merged + " duplicate cart rows");
+                return;
+            } catch (DataIntegrityViolationException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw new IllegalStateException("Could not create " + UNIQUE_KEY + ": duplicate cart rows keep appearing", e);
+                }
+            }
+        }
+    }
+
+    private boolean hasUniqueKey() {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.statistics "
+                + "WHERE table_schema = DATABASE() AND table_name = 'cart' AND index_name = ?", Integer.class, UNIQUE_KEY);
+        return count != null && count > 0;
+    }
+
+    // Folds each duplicate group's quantities into its lowest id, then drops the other rows.
+    private int mergeDuplicates() {
+        jdbcTemplate.update("UPDATE cart c JOIN (SELECT MIN(id) AS keep_id, SUM(quantity) AS total FROM cart "
+                + "GROUP BY user_id, food_id HAVING COUNT(*) > 1) d ON c.id = d.keep_id SET c.quantity = d.total");
+        return jdbcTemplate.update("DELETE c FROM cart c JOIN (SELECT user_id, food_id, MIN(id) AS keep_id FROM cart "
+                + "GROUP BY user_id, food_id HAVING COUNT(*) > 1) d "
+                + "ON c.user_id = d.user_id AND c.food_id = d.food_id AND c.id <> d.keep_id");
+    }
+}
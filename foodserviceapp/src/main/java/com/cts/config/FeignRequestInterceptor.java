@@ -8,6 +8,8 @@ import org.springframework.web.context.request.ServletRequestAttributes;
 
 import jakarta.servlet.http.HttpServletRequest;
 
+import java.util.List;
+
 
 @Component
 public class FeignRequestInterceptor implements RequestInterceptor {
@@ -15,12 +17,14 @@ public class FeignRequestInterceptor implements RequestInterceptor {
     private static final String HEADER_USER_EMAIL = "X-User-Email";
     private static final String HEADER_USER_ID = "X-User-Id";
     private static final String HEADER_USER_ROLE = "X-User-Role";
+    private static final String SYSTEM_USER_EMAIL = "foodserviceapp@system";
+    private static final String SYSTEM_USER_ROLE = "SYSTEM";
 
     @Override
     public void apply(RequestTemplate template) {
         HttpServletRequest request = getCurrentHttpRequest();
 
-        if (request != null) {
+        if (request != null && !isSystemCall(template)) {
           
             String userEmail = request.getHeader(HEADER_USER_EMAIL);
             String userId = request.getHeader(HEADER_USER_ID);
@@ -35,9 +39,21 @@ public class FeignRequestInterceptor implements RequestInterceptor {
             if (userRole != null) {
                 template.header(HEADER_USER_ROLE, userRole);
             }
+        } else {
+            // Background work such as the outbox dispatcher has no caller to forward.
+            template.header(HEADER_USER_EMAIL, SYSTEM_USER_EMAIL);
+            template.header(HEADER_USER_ROLE, SYSTEM_USER_ROLE);
         }
     }
 
+    // Reserving and releasing partners are SYSTEM-only in userservice, even while serving a customer.
+    private static boolean isSystemCall(RequestTemplate template) {
+        String path = template.path();
+        return path.endsWith("/api/v1/users/deliverypartners/reserve")
+                || (path.contains("/api/v1/users/availability/")
+                    && template.queries().getOrDefault("systemUpdate", List.of()).contains("true"));
+    }
+
     private HttpServletRequest getCurrentHttpRequest() {
         if (RequestContextHolder.getRequestAttributes() != null) {
             return ((ServletRequestAttributes) RequestContextHolder.getRequestAttributes()).getRequest();
@@ -3,6 +3,7 @@ package com.cts.config;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
@@ -22,7 +23,8 @@ public class SecurityConfig {
                 .cors(cors -> cors.configure(http))
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(request -> request
-                    
+                        .requestMatchers("/api/v1/cache/**").hasRole("SYSTEM")
+                        .requestMatchers(HttpMethod.GET, "/api/v1/orders/delivered").hasRole("SYSTEM")
                         .anyRequest().permitAll()
                 );
 
@@ -2,6 +2,7 @@ package com.cts.controller;
 
 import com.cts.dto.request.CartRequestDTO;
 import com.cts.dto.response.CartResponseDTO;
+import com.cts.dto.response.CartSummaryResponseDTO;
 import com.cts.exception.ResourceNotFoundException;
 import com.cts.exception.UserNotFoundException;
 import com.cts.model.User;
@@ -15,7 +16,6 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
-import java.util.Map;
 
 @RestController
 @RequestMapping("/api/v1/cart")
@@ -84,13 +84,13 @@ public class CartController {
     }
     
     @GetMapping("/summary")
-    public ResponseEntity<Map<String, Object>> getCartSummary(Authentication authentication) {
+    public ResponseEntity<CartSummaryResponseDTO> getCartSummary(Authentication authentication) {
         String email = authentication.getName();
         User user = userService.getUserByEmail(email);
         if (user == null) {
             throw new UserNotFoundException("User not found with email: " + email);
         }
-        Map<String, Object> summary = cartService.getCartSummary(user.getId());
+        CartSummaryResponseDTO summary = cartService.getCartSummary(user.getId());
         return ResponseEntity.ok(summary);
     }
 }
@@ -1,12 +1,16 @@
 package com.cts.controller;
 
-import java.util.List;
+import com.cts.cache.CatalogBody;
+import com.cts.cache.MenuCatalog;
 import com.cts.dto.request.CategoryRequestDTO;
 import com.cts.dto.response.CategoryResponseDTO;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import com.cts.service.CategoryService;
@@ -30,17 +34,23 @@ public class CategoryController {
 
     @GetMapping
     @Operation( summary = "Getting all Category", description = "Getting all Category" )
-    public ResponseEntity<List<CategoryResponseDTO>> getAllCategories() {
-        List<CategoryResponseDTO> responseCategorieslist = categoryService.getAllCategories();
-        return new ResponseEntity<>(responseCategorieslist, HttpStatus.OK);
+    public ResponseEntity<byte[]> getAllCategories() {
+        CatalogBody body = categoryService.getAllCategoriesBody();
+        return ResponseEntity.ok()
+                .eTag(body.etag())
+                .cacheControl(CacheControl.noCache())
+                .header(MenuCatalog.VERSION_HEADER, body.version())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body.json());
     }
 
     @GetMapping("/id")
     @Operation( summary = "Getting Category by ID", description = "Getting Category by ID" )
     public ResponseEntity<CategoryResponseDTO> getCategoryById(@RequestParam int id) {
+        HttpHeaders headers = catalogHeaders();
         CategoryResponseDTO responseCategory = categoryService.getCategoryById(id);
         if (responseCategory != null) {
-            return new ResponseEntity<>(responseCategory, HttpStatus.OK);
+            return new ResponseEntity<>(responseCategory, headers, HttpStatus.OK);
         }
         return new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
@@ -48,9 +58,10 @@ public class CategoryController {
     @GetMapping("/categoryname")
     @Operation( summary = "Getting Category by Name", description = "Getting Category by Name" )
     public ResponseEntity<CategoryResponseDTO> getCategoryByName(@RequestParam  String name) {
+        HttpHeaders headers = catalogHeaders();
         CategoryResponseDTO responseCategory = categoryService.getCategoryByName(name);
         if (responseCategory != null) {
-            return new ResponseEntity<>(responseCategory, HttpStatus.OK);
+            return new ResponseEntity<>(responseCategory, headers, HttpStatus.OK);
         }
         return new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
@@ -69,4 +80,13 @@ public class CategoryController {
         categoryService.deleteCategory(id);
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
-}
\ No newline at end of file
+
+    private HttpHeaders catalogHeaders() {
+        String version = categoryService.getCatalogVersion();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(MenuCatalog.VERSION_HEADER, version);
+        headers.setETag(MenuCatalog.etag(version));
+        headers.setCacheControl(CacheControl.noCache());
+        return headers;
+    }
+}
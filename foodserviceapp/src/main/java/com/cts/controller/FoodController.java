@@ -2,9 +2,14 @@ package com.cts.controller;
 
 import java.util.List;
 
+import com.cts.cache.CatalogBody;
+import com.cts.cache.MenuCatalog;
+import com.cts.dto.request.FoodRatingBatchRequestDTO;
 import com.cts.dto.request.FoodRequestDTO;
+import com.cts.dto.request.FoodStockRequestDTO;
 import com.cts.dto.response.FoodInStockResponseDTO;
 import com.cts.dto.response.FoodResponseDTO;
+import com.cts.dto.response.FoodStockResponseDTO;
 import com.cts.dto.response.RatingResponseDTO;
 import com.cts.repository.CartRepository;
 import com.cts.repository.FoodRepository;
@@ -13,8 +18,10 @@ import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 
-import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -39,43 +46,39 @@ public class FoodController {
 
     @GetMapping
     @Operation(summary = "Getting all Food", description = "Getting all Food")
-    public ResponseEntity<List<FoodResponseDTO>> getAllFood() {
-        List<FoodResponseDTO> responseFoodlist = foodService.getAllFood();
-        return new ResponseEntity<>(responseFoodlist, HttpStatus.OK);
-
+    public ResponseEntity<byte[]> getAllFood() {
+        return catalogResponse(foodService.getAllFoodBody());
     }
 
     @GetMapping("/id")
     @Operation(summary = "Getting Food by ID", description = "Getting Food by ID")
     public ResponseEntity<FoodResponseDTO> getFoodById(@RequestParam int id) {
+        HttpHeaders headers = catalogHeaders();
         FoodResponseDTO responsefood = foodService.getFoodById(id);
         if (responsefood != null) {
-            return new ResponseEntity<>(responsefood, HttpStatus.OK);
+            return new ResponseEntity<>(responsefood, headers, HttpStatus.OK);
         }
         return new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
 
     @GetMapping("/category")
     @Operation(summary = "Getting Active Food by Category with pagination", description = "Getting Active Food by Category")
-    public ResponseEntity<Page<FoodResponseDTO>> getFoodByCategory(@RequestParam String category,@RequestParam(defaultValue = "1") int page) {
-    		Page<FoodResponseDTO> responseFoodlist = foodService.getFoodByCategory(category,page);
-        
-        return new ResponseEntity<>(responseFoodlist, HttpStatus.OK);
-
+    public ResponseEntity<byte[]> getFoodByCategory(@RequestParam String category,@RequestParam(defaultValue = "1") int page) {
+        return catalogResponse(foodService.getFoodByCategoryBody(category, page));
     }
 
     @GetMapping("/name")
     @Operation(summary = "Getting Food by name", description = "Getting Food by name")
     public ResponseEntity<FoodResponseDTO> getFoodByName(@RequestParam String name) {
+        HttpHeaders headers = catalogHeaders();
         FoodResponseDTO responseFood = foodService.getFoodByName(name);
-        return new ResponseEntity<>(responseFood, HttpStatus.OK);
+        return new ResponseEntity<>(responseFood, headers, HttpStatus.OK);
 
     }
     @GetMapping("/active")
     @Operation(summary = "Getting Active Food with Pagination", description = "Getting active food items with pagination (page size = 8, page starts from 1)")
-    public ResponseEntity<Page<FoodResponseDTO>> getActiveFood(@RequestParam(defaultValue = "1") int page) {
-        Page<FoodResponseDTO> responseFoodPage = foodService.getActiveFood(page);
-        return new ResponseEntity<>(responseFoodPage, HttpStatus.OK);
+    public ResponseEntity<byte[]> getActiveFood(@RequestParam(defaultValue = "1") int page) {
+        return catalogResponse(foodService.getActiveFoodBody(page));
     }
 
     @PutMapping("/update/all")
@@ -133,6 +136,13 @@ public class FoodController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("find/instock")
+    @Operation(summary = "Get Stock, Price and Name for Many Foods", description = "Returns one entry per existing food ID in request order; unknown IDs are left out.")
+    public ResponseEntity<List<FoodStockResponseDTO>> getFoodStock(@Valid @RequestBody FoodStockRequestDTO request) {
+        List<FoodStockResponseDTO> response = foodService.getStock(request.getFoodIds());
+        return ResponseEntity.ok(response);
+    }
+
     @PutMapping("/{id}/rating")
     @Operation(summary = "Update food average rating", description = "Used by Feedback service to persist average rating")
     public ResponseEntity<Void> updateFoodRating(@PathVariable int id, @RequestParam float avgRating) {
@@ -140,4 +150,33 @@ public class FoodController {
         return ResponseEntity.ok().build();
     }
 
-}
\ No newline at end of file
+    @PutMapping("/ratings")
+    @Operation(summary = "Update many food average ratings", description = "Used by Feedback service to push coalesced ratings in one call")
+    public ResponseEntity<Void> updateFoodRatings(@Valid @RequestBody FoodRatingBatchRequestDTO request) {
+        foodService.updateFoodRatings(request.getRatings());
+        return ResponseEntity.noContent().build();
+    }
+
+    // Read before the body: if the menu changes in between, the client holds an older
+    // version than its data and simply refetches, never the other way round.
+    // A matching If-None-Match on a GET is answered with 304 by Spring from the ETag.
+    private HttpHeaders catalogHeaders() {
+        String version = foodService.getCatalogVersion();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(MenuCatalog.VERSION_HEADER, version);
+        headers.setETag(MenuCatalog.etag(version));
+        headers.setCacheControl(CacheControl.noCache());
+        return headers;
+    }
+
+    // Pre-rendered bodies carry the exact version they were built from.
+    private ResponseEntity<byte[]> catalogResponse(CatalogBody body) {
+        return ResponseEntity.ok()
+                .eTag(body.etag())
+                .cacheControl(CacheControl.noCache())
+                .header(MenuCatalog.VERSION_HEADER, body.version())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body.json());
+    }
+
+}
@@ -1,7 +1,9 @@
 package com.cts.controller;
 
+import com.cts.dto.feedback.DeliveredOrderDTO;
 import com.cts.entity.Order;
 import com.cts.dto.request.OrderPlacementRequestDTO;
+import com.cts.dto.response.OrderPageResponseDTO;
 import com.cts.dto.response.OrderPlacementResponseDTO;
 import com.cts.dto.response.OrderResponseDTO;
 import com.cts.enums.OrderStatus;
@@ -11,9 +13,11 @@ import com.cts.service.CustomerOrderService;
 import com.cts.service.DeliveryPartnerOrderService;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.time.LocalDate;
 import java.util.List;
 
 
@@ -46,6 +50,26 @@ public class FoodOrderController {
         List<OrderResponseDTO> orders = commonOrderService.getAllOrdersDtoForCurrentUser();
         return ResponseEntity.ok(orders);
     }
+
+    @GetMapping("/page")
+    public ResponseEntity<OrderPageResponseDTO> viewOrdersPage(
+        @RequestParam(required = false) Integer afterId,
+        @RequestParam(required = false) Integer limit,
+        @RequestParam(required = false) OrderStatus status,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate
+    ) {
+        return ResponseEntity.ok(commonOrderService.getOrdersPageForCurrentUser(afterId, limit, status, fromDate, toDate));
+    }
+    
+  
+    @GetMapping("/delivered")
+    public ResponseEntity<List<DeliveredOrderDTO>> viewDeliveredOrders(
+        @RequestParam(required = false) Integer afterId,
+        @RequestParam(required = false) Integer limit
+    ) {
+        return ResponseEntity.ok(commonOrderService.getDeliveredOrders(afterId, limit));
+    }
     
   
     @PutMapping("/status/{orderId}")
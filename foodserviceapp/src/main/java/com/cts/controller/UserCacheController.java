@@ -0,0 +1,30 @@
+package com.cts.controller;
+
+import com.cts.cache.UserIdentityCache;
+
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/cache/users")
+@AllArgsConstructor
+public class UserCacheController {
+
+    private final UserIdentityCache userIdentityCache;
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Invalidate a cached user", description = "Used by User service when a user changes")
+    public ResponseEntity<Void> invalidateUser(@PathVariable Long id) {
+        userIdentityCache.invalidate(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping
+    @Operation(summary = "Invalidate all cached users", description = "Drops every cached user")
+    public ResponseEntity<Void> invalidateAllUsers() {
+        userIdentityCache.invalidateAll();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,17 @@
+package com.cts.dispatch;
+
+import java.util.Comparator;
+
+/**
+ * Decides which available partner gets the next order. The index keeps partners sorted
+ * by {@link #order()}, so the choice is always the first element of a sorted set.
+ */
+public interface DispatchPolicy {
+
+    Comparator<PartnerCandidate> order();
+
+    /** Whether partners whose location matches the delivery city should be tried first. */
+    default boolean prefersLocation() {
+        return false;
+    }
+}
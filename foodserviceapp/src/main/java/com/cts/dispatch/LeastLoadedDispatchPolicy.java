@@ -0,0 +1,20 @@
+package com.cts.dispatch;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+
+@Component
+@ConditionalOnProperty(name = "dispatch.policy", havingValue = "least-loaded")
+public class LeastLoadedDispatchPolicy implements DispatchPolicy {
+
+    static final Comparator<PartnerCandidate> LEAST_LOADED = Comparator
+            .comparingInt(PartnerCandidate::totalOrders)
+            .thenComparingLong(PartnerCandidate::id);
+
+    @Override
+    public Comparator<PartnerCandidate> order() {
+        return LEAST_LOADED;
+    }
+}
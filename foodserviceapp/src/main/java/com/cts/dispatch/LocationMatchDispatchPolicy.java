@@ -0,0 +1,25 @@
+package com.cts.dispatch;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+
+/**
+ * Least-loaded partner in the delivery city, falling back to the least-loaded partner
+ * anywhere when nobody in that city is free.
+ */
+@Component
+@ConditionalOnProperty(name = "dispatch.policy", havingValue = "location", matchIfMissing = true)
+public class LocationMatchDispatchPolicy implements DispatchPolicy {
+
+    @Override
+    public Comparator<PartnerCandidate> order() {
+        return LeastLoadedDispatchPolicy.LEAST_LOADED;
+    }
+
+    @Override
+    public boolean prefersLocation() {
+        return true;
+    }
+}
@@ -0,0 +1,149 @@
+package com.cts.dispatch;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.OptionalLong;
+import java.util.TreeSet;
+import java.util.function.LongSupplier;
+
+/**
+ * Available delivery partners, kept sorted by the dispatch policy so an allocation is a
+ * single O(log n) removal. A partner handed out by {@link #allocate} or {@link #claim}
+ * moves to the allocated set and is not offered again until {@link #release}d, so two
+ * orders can never be given the same partner by this instance.
+ */
+public class PartnerAvailabilityIndex {
+
+    private final DispatchPolicy policy;
+    private final long allocationGraceMillis;
+    private final LongSupplier clock;
+
+    private final Map<Long, PartnerCandidate> available = new HashMap<>();
+    private final NavigableSet<PartnerCandidate> ordered;
+    private final Map<String, NavigableSet<PartnerCandidate>> byLocation = new HashMap<>();
+    private final Map<Long, Allocation> allocated = new HashMap<>();
+    private long sequence;
+
+    public PartnerAvailabilityIndex(DispatchPolicy policy, long allocationGraceMillis, LongSupplier clock) {
+        this.policy = policy;
+        this.allocationGraceMillis = allocationGraceMillis;
+        this.clock = clock;
+        this.ordered = new TreeSet<>(policy.order());
+    }
+
+    /**
+     * Takes the best available partner for a delivery to {@code location}, or nothing if
+     * no partner is free.
+     */
+    public synchronized OptionalLong allocate(String location) {
+        PartnerCandidate chosen = null;
+        if (policy.prefersLocation() && location != null) {
+            NavigableSet<PartnerCandidate> local = byLocation.get(normalize(location));
+            if (local != null && !local.isEmpty()) {
+                chosen = local.first();
+            }
+        }
+        if (chosen == null && !ordered.isEmpty()) {
+            chosen = ordered.first();
+        }
+        if (chosen == null) {
+            return OptionalLong.empty();
+        }
+        remove(chosen);
+        allocated.put(chosen.id(), new Allocation(chosen.withTotalOrders(chosen.totalOrders() + 1), clock.getAsLong()));
+        return OptionalLong.of(chosen.id());
+    }
+
+    /** Marks a partner chosen outside the index (e.g. assigned by an admin) as busy. */
+    public synchronized void claim(long partnerId) {
+        if (allocated.containsKey(partnerId)) {
+            return;
+        }
+        PartnerCandidate candidate = available.get(partnerId);
+        if (candidate != null) {
+            remove(candidate);
+        }
+        // An unknown partner is re-added by the next sync rather than on release.
+        allocated.put(partnerId, new Allocation(candidate, clock.getAsLong()));
+    }
+
+    /** Returns a partner to the pool once their order is delivered, cancelled or rolled back. */
+    public synchronized void release(long partnerId) {
+        Allocation allocation = allocated.remove(partnerId);
+        if (allocation != null && allocation.candidate != null) {
+            add(allocation.candidate.withSequence(++sequence));
+        }
+    }
+
+    /** Forgets an allocation without returning the partner; the next sync decides whether they are free. */
+    public synchronized void discard(long partnerId) {
+        allocated.remove(partnerId);
+    }
+
+    /**
+     * Replaces the available set with a fresh listing from USERSERVICEAPP. Partners still
+     * allocated here stay out of the pool, unless the allocation is older than the grace
+     * period and USERSERVICEAPP reports them free again (released by another instance).
+     */
+    public synchronized void sync(Collection<PartnerCandidate> availablePartners) {
+        Map<Long, PartnerCandidate> previous = new HashMap<>(available);
+        available.clear();
+        ordered.clear();
+        byLocation.clear();
+
+        long now = clock.getAsLong();
+        for (PartnerCandidate partner : availablePartners) {
+            Allocation allocation = allocated.get(partner.id());
+            if (allocation != null) {
+                if (now - allocation.allocatedAt < allocationGraceMillis) {
+                    continue;
+                }
+                allocated.remove(partner.id());
+            }
+            PartnerCandidate known = previous.get(partner.id());
+            add(partner.withSequence(known != null ? known.sequence() : ++sequence));
+        }
+    }
+
+    public synchronized int availableCount() {
+        return available.size();
+    }
+
+    public synchronized int allocatedCount() {
+        return allocated.size();
+    }
+
+    private void add(PartnerCandidate candidate) {
+        available.put(candidate.id(), candidate);
+        ordered.add(candidate);
+        if (candidate.location() != null) {
+            byLocation.computeIfAbsent(normalize(candidate.location()), key -> new TreeSet<>(policy.order()))
+                    .add(candidate);
+        }
+    }
+
+    private void remove(PartnerCandidate candidate) {
+        available.remove(candidate.id());
+        ordered.remove(candidate);
+        if (candidate.location() != null) {
+            String key = normalize(candidate.location());
+            NavigableSet<PartnerCandidate> local = byLocation.get(key);
+            if (local != null) {
+                local.remove(candidate);
+                if (local.isEmpty()) {
+                    byLocation.remove(key);
+                }
+            }
+        }
+    }
+
+    private static String normalize(String location) {
+        return location.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Allocation(PartnerCandidate candidate, long allocatedAt) {
+    }
+}
@@ -0,0 +1,17 @@
+package com.cts.dispatch;
+
+/**
+ * Snapshot of an available delivery partner as held in {@link PartnerAvailabilityIndex}.
+ * {@code sequence} increases every time the partner re-enters the index, so ordering
+ * by it yields the partner that has waited longest.
+ */
+public record PartnerCandidate(long id, String location, int totalOrders, long sequence) {
+
+    PartnerCandidate withSequence(long sequence) {
+        return new PartnerCandidate(id, location, totalOrders, sequence);
+    }
+
+    PartnerCandidate withTotalOrders(int totalOrders) {
+        return new PartnerCandidate(id, location, totalOrders, sequence);
+    }
+}
@@ -0,0 +1,132 @@
+package com.cts.dispatch;
+
+import com.cts.client.AuthServiceClient;
+import com.cts.dto.response.UserResponseDTO;
+import feign.FeignException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Chooses delivery partners for new orders from a local {@link PartnerAvailabilityIndex},
+ * so placing an order no longer lists every active partner from USERSERVICEAPP; the
+ * choice is then confirmed with a single reservation call.
+ * The index is re-synced from USERSERVICEAPP on a fixed delay and updated locally on
+ * every allocation and release in between.
+ */
+@Component
+public class PartnerDispatcher {
+
+    static final Duration ALLOCATION_GRACE = Duration.ofMinutes(2);
+    private static final long SYNC_INTERVAL_MILLIS = 15_000;
+
+    private final AuthServiceClient authServiceClient;
+    private final PartnerAvailabilityIndex index;
+    private volatile boolean synced;
+
+    public PartnerDispatcher(AuthServiceClient authServiceClient, DispatchPolicy policy) {
+        this.authServiceClient = authServiceClient;
+        this.index = new PartnerAvailabilityIndex(policy, ALLOCATION_GRACE.toMillis(), System::currentTimeMillis);
+    }
+
+    /**
+     * Allocates a partner for a delivery to {@code location}. The local index suggests a
+     * partner and USERSERVICEAPP reserves it (or another free partner) atomically, so
+     * instances never double-book. Inside a transaction the reservation is handed back
+     * if that transaction rolls back.
+     */
+    public OptionalLong allocate(String location) {
+        if (!synced) {
+            sync();
+        }
+        OptionalLong suggested = index.allocate(location);
+        UserResponseDTO reserved;
+        try {
+            reserved = authServiceClient.reserveDeliveryPartner(
+                    suggested.isPresent() ? suggested.getAsLong() : null, location).getBody();
+        } catch (FeignException.Conflict ex) {
+            suggested.ifPresent(index::discard);
+            return OptionalLong.empty();
+        } catch (RuntimeException ex) {
+            suggested.ifPresent(index::release);
+            throw ex;
+        }
+
+        long partnerId = reserved.getId();
+        if (suggested.isPresent() && suggested.getAsLong() != partnerId) {
+            index.discard(suggested.getAsLong());
+            index.claim(partnerId);
+        } else if (suggested.isEmpty()) {
+            index.claim(partnerId);
+        }
+        onRollback(() -> unreserve(partnerId));
+        return OptionalLong.of(partnerId);
+    }
+
+    public void claim(long partnerId) {
+        index.claim(partnerId);
+    }
+
+    /** Returns the partner to the pool once the current transaction commits. */
+    public void releaseAfterCommit(long partnerId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    index.release(partnerId);
+                }
+            });
+        } else {
+            index.release(partnerId);
+        }
+    }
+
+    @Scheduled(fixedDelay = SYNC_INTERVAL_MILLIS)
+    public void sync() {
+        try {
+            List<UserResponseDTO> partners = authServiceClient.getActiveDeliveryPartners().getBody();
+            List<PartnerCandidate> candidates = new ArrayList<>();
+            if (partners != null) {
+                for (UserResponseDTO partner : partners) {
+                    if (Boolean.TRUE.equals(partner.getAvailabilityStatus())) {
+                        candidates.add(new PartnerCandidate(partner.getId(), partner.getLocation(), partner.getTotalOrders(), 0));
+                    }
+                }
+            }
+            index.sync(candidates);
+            synced = true;
+        } catch (RuntimeException ex) {
+            System.err.println("Failed to sync delivery partner availability: " + ex.getMessage());
+        }
+    }
+
+    private void unreserve(long partnerId) {
+        index.release(partnerId);
+        try {
+            authServiceClient.updateDeliveryPartnerAvailability(partnerId, true, true, UUID.randomUUID().toString());
+        } catch (RuntimeException ex) {
+            System.err.println("Failed to release delivery partner " + partnerId + " after rollback: " + ex.getMessage());
+        }
+    }
+
+    private void onRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    action.run();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,20 @@
+package com.cts.dispatch;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+
+@Component
+@ConditionalOnProperty(name = "dispatch.policy", havingValue = "round-robin")
+public class RoundRobinDispatchPolicy implements DispatchPolicy {
+
+    private static final Comparator<PartnerCandidate> LONGEST_WAITING = Comparator
+            .comparingLong(PartnerCandidate::sequence)
+            .thenComparingLong(PartnerCandidate::id);
+
+    @Override
+    public Comparator<PartnerCandidate> order() {
+        return LONGEST_WAITING;
+    }
+}
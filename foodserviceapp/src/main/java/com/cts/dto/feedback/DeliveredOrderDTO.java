@@ -0,0 +1,17 @@
+package com.cts.dto.feedback;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeliveredOrderDTO {
+
+    private Integer orderId;
+    private Long customerId;
+    private List<Integer> foodIds;
+}
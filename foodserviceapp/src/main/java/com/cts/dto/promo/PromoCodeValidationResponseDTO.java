@@ -1,6 +1,7 @@
 package com.cts.dto.promo;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 import lombok.Data;
 
@@ -14,4 +15,6 @@ public class PromoCodeValidationResponseDTO {
     private BigDecimal discountValue;
     private BigDecimal discountAmount;
     private BigDecimal finalAmount;
+    private String holdToken;
+    private LocalDateTime holdExpiresAt;
 }
@@ -0,0 +1,17 @@
+package com.cts.dto.request;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class FoodRatingBatchRequestDTO {
+
+    @NotEmpty(message = "At least one rating is required")
+    @Size(max = 1000, message = "At most 1000 ratings can be updated at once")
+    private List<@Valid FoodRatingUpdateDTO> ratings;
+
+}
@@ -0,0 +1,23 @@
+package com.cts.dto.request;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FoodRatingUpdateDTO {
+
+    @NotNull(message = "Food ID is required")
+    private Integer foodId;
+
+    @NotNull(message = "Average rating is required")
+    @DecimalMin(value = "0.0", message = "Average rating must be at least 0")
+    @DecimalMax(value = "5.0", message = "Average rating must be at most 5")
+    private Float avgRating;
+
+}
@@ -0,0 +1,16 @@
+package com.cts.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartSummaryResponseDTO {
+
+    private double totalAmount;
+    private long totalItems;
+    private long itemCount;
+
+}
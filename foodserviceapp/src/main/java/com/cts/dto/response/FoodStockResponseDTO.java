@@ -0,0 +1,17 @@
+package com.cts.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FoodStockResponseDTO {
+
+    private int id;
+    private String name;
+    private double price;
+    private boolean inStock;
+
+}
@@ -0,0 +1,13 @@
+package com.cts.dto.response;
+
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class OrderPageResponseDTO {
+
+    private List<OrderResponseDTO> orders;
+    private Integer nextAfterId;
+
+}
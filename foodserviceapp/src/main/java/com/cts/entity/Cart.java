@@ -9,7 +9,7 @@ import lombok.Setter;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "cart")
+@Table(name = "cart", uniqueConstraints = @UniqueConstraint(name = "uk_cart_user_food", columnNames = {"user_id", "food_id"}))
 @Getter
 @Setter
 @AllArgsConstructor
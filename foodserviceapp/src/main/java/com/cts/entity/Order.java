@@ -14,7 +14,11 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name="orders")
+@Table(name="orders", indexes = {
+		@Index(name = "idx_orders_customer_id", columnList = "customer, id"),
+		@Index(name = "idx_orders_delivery_partner_id", columnList = "delivery_partner, id"),
+		@Index(name = "idx_orders_status_id", columnList = "order_status, id")
+})
 @JsonIgnoreProperties({"hibernateLazyInitializer","handler"})
 @Getter
 @Setter
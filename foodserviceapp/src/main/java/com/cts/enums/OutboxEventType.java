@@ -0,0 +1,8 @@
+package com.cts.enums;
+
+public enum OutboxEventType {
+    PARTNER_AVAILABILITY,
+    TOTAL_ORDERS,
+    PROMO_COMMIT,
+    ORDER_DELIVERED
+}
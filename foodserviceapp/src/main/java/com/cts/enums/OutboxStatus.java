@@ -0,0 +1,7 @@
+package com.cts.enums;
+
+public enum OutboxStatus {
+    PENDING,
+    SENT,
+    FAILED
+}
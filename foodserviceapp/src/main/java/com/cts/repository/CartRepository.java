@@ -1,19 +1,50 @@
 package com.cts.repository;
 
+import com.cts.dto.response.CartResponseDTO;
+import com.cts.dto.response.CartSummaryResponseDTO;
 import com.cts.entity.Cart;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CartRepository extends JpaRepository<Cart, Long> {
     
     List<Cart> findByUserId(Long userId);
     
-    List<Cart> findAllByUserIdAndFoodId(Long userId, int foodId);
+    Optional<Cart> findByUserIdAndFoodId(Long userId, int foodId);
+
+    @Query("SELECT new com.cts.dto.response.CartResponseDTO(c.id, f.id, f.name, f.img, cat.name, f.price, c.quantity, "
+            + "f.price * c.quantity, c.createdAt) "
+            + "FROM Cart c JOIN c.food f LEFT JOIN f.category cat WHERE c.userId = :userId ORDER BY c.id")
+    List<CartResponseDTO> findCartLines(@Param("userId") Long userId);
+
+    @Query("SELECT new com.cts.dto.response.CartResponseDTO(c.id, f.id, f.name, f.img, cat.name, f.price, c.quantity, "
+            + "f.price * c.quantity, c.createdAt) "
+            + "FROM Cart c JOIN c.food f LEFT JOIN f.category cat WHERE c.userId = :userId AND f.id = :foodId")
+    Optional<CartResponseDTO> findCartLine(@Param("userId") Long userId, @Param("foodId") int foodId);
+
+    @Query("SELECT new com.cts.dto.response.CartSummaryResponseDTO(COALESCE(SUM(f.price * c.quantity), 0.0), "
+            + "COALESCE(SUM(c.quantity), 0L), COUNT(c)) "
+            + "FROM Cart c JOIN c.food f WHERE c.userId = :userId")
+    CartSummaryResponseDTO summarize(@Param("userId") Long userId);
+
+    /**
+     * Adds {@code quantity} to the user's line for the food, creating it if needed, in one
+     * statement. Relies on uk_cart_user_food, so concurrent adds can never create duplicates.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO cart (user_id, food_id, quantity, created_at) VALUES (:userId, :foodId, :quantity, :createdAt) "
+            + "ON DUPLICATE KEY UPDATE quantity = quantity + :quantity", nativeQuery = true)
+    int upsertQuantity(@Param("userId") Long userId, @Param("foodId") int foodId,
+            @Param("quantity") int quantity, @Param("createdAt") LocalDateTime createdAt);
     
     @Transactional
     @Modifying
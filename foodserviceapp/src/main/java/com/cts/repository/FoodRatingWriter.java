@@ -0,0 +1,10 @@
+package com.cts.repository;
+
+import java.util.Map;
+
+/** Bulk rating writes for {@link FoodRepository}, kept out of JPA so they go as one JDBC batch. */
+public interface FoodRatingWriter {
+
+	void updateAvgRatings(Map<Integer, Float> ratings);
+
+}
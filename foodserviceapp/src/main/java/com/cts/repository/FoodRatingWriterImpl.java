@@ -0,0 +1,25 @@
+package com.cts.repository;
+
+import java.util.ArrayList;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import lombok.AllArgsConstructor;
+
+@AllArgsConstructor
+public class FoodRatingWriterImpl implements FoodRatingWriter {
+
+	private JdbcTemplate jdbcTemplate;
+
+	// Ids of deleted foods simply match no row.
+	@Override
+	public void updateAvgRatings(Map<Integer, Float> ratings) {
+		jdbcTemplate.batchUpdate("UPDATE food SET avg_rating = ? WHERE id = ?", new ArrayList<>(ratings.entrySet()),
+				ratings.size(), (ps, rating) -> {
+					ps.setFloat(1, rating.getValue());
+					ps.setInt(2, rating.getKey());
+				});
+	}
+
+}
@@ -1,5 +1,6 @@
 package com.cts.repository;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.domain.Page;
@@ -8,9 +9,10 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import com.cts.dto.response.FoodStockResponseDTO;
 import com.cts.entity.Food;
 
-public interface FoodRepository extends JpaRepository<Food, Integer>{
+public interface FoodRepository extends JpaRepository<Food, Integer>, FoodRatingWriter {
 
 	@Query("SELECT f FROM Food f WHERE f.category.name = :categoryName")
 	Page<Food> findByCategoryName(@Param("categoryName") String categoryName,Pageable pageable);
@@ -21,5 +23,7 @@ public interface FoodRepository extends JpaRepository<Food, Integer>{
 	
 	Food findByName(String name);
 
+	@Query("SELECT new com.cts.dto.response.FoodStockResponseDTO(f.id, f.name, f.price, f.status) FROM Food f WHERE f.id IN :ids")
+	List<FoodStockResponseDTO> findStockByIdIn(@Param("ids") Collection<Integer> ids);
 	
 }
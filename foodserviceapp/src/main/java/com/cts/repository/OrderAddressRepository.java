@@ -3,7 +3,15 @@ package com.cts.repository;
 import com.cts.entity.Order;
 import com.cts.entity.OrderAddress;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface OrderAddressRepository extends JpaRepository<OrderAddress, Integer> {
     OrderAddress findByOrder(Order order);
-}
\ No newline at end of file
+
+    @Query("SELECT a FROM OrderAddress a JOIN FETCH a.order WHERE a.order IN :orders")
+    List<OrderAddress> findByOrderIn(@Param("orders") Collection<Order> orders);
+}
@@ -3,9 +3,22 @@ package com.cts.repository;
 import com.cts.entity.Order;
 import com.cts.entity.OrderItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface OrderItemRepository extends JpaRepository<OrderItem, Integer> {
     List<OrderItem> findByOrder(Order order);
-}
\ No newline at end of file
+
+    @Query("SELECT oi FROM OrderItem oi LEFT JOIN FETCH oi.food f LEFT JOIN FETCH f.category WHERE oi.order IN :orders ORDER BY oi.id")
+    List<OrderItem> findByOrderInWithFood(@Param("orders") Collection<Order> orders);
+
+    @Query("SELECT DISTINCT oi.food.id FROM OrderItem oi WHERE oi.order.id = :orderId")
+    List<Integer> findFoodIdsByOrderId(@Param("orderId") int orderId);
+
+    /** Distinct {order id, food id} pairs for the given orders. */
+    @Query("SELECT DISTINCT oi.order.id, oi.food.id FROM OrderItem oi WHERE oi.order.id IN :orderIds")
+    List<Object[]> findFoodIdsByOrderIds(@Param("orderIds") Collection<Integer> orderIds);
+}
@@ -1,12 +1,49 @@
 package com.cts.repository;
 
 import com.cts.entity.Order;
+import com.cts.enums.OrderStatus;
+
+import java.time.LocalDate;
 import java.util.List;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface OrdersRepository extends JpaRepository<Order, Integer> {
     
     List<Order> findByCustomerOrderByIdDesc(Long customerId);
     List<Order> findByDeliveryPartnerOrderByIdDesc(Long deliveryPartnerId);
     List<Order> findAllByOrderByIdDesc();
-}
\ No newline at end of file
+
+    @Query("SELECT o FROM Order o WHERE o.id < :afterId"
+            + " AND (:status IS NULL OR o.orderStatus = :status)"
+            + " AND (:fromDate IS NULL OR o.orderDate >= :fromDate)"
+            + " AND (:toDate IS NULL OR o.orderDate <= :toDate)"
+            + " ORDER BY o.id DESC")
+    List<Order> findPage(@Param("afterId") int afterId, @Param("status") OrderStatus status,
+            @Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate, Pageable pageable);
+
+    @Query("SELECT o FROM Order o WHERE o.customer = :customerId AND o.id < :afterId"
+            + " AND (:status IS NULL OR o.orderStatus = :status)"
+            + " AND (:fromDate IS NULL OR o.orderDate >= :fromDate)"
+            + " AND (:toDate IS NULL OR o.orderDate <= :toDate)"
+            + " ORDER BY o.id DESC")
+    List<Order> findPageByCustomer(@Param("customerId") long customerId, @Param("afterId") int afterId,
+            @Param("status") OrderStatus status, @Param("fromDate") LocalDate fromDate,
+            @Param("toDate") LocalDate toDate, Pageable pageable);
+
+    @Query("SELECT o FROM Order o WHERE o.deliveryPartner = :partnerId AND o.id < :afterId"
+            + " AND (:status IS NULL OR o.orderStatus = :status)"
+            + " AND (:fromDate IS NULL OR o.orderDate >= :fromDate)"
+            + " AND (:toDate IS NULL OR o.orderDate <= :toDate)"
+            + " ORDER BY o.id DESC")
+    List<Order> findPageByDeliveryPartner(@Param("partnerId") long partnerId, @Param("afterId") int afterId,
+            @Param("status") OrderStatus status, @Param("fromDate") LocalDate fromDate,
+            @Param("toDate") LocalDate toDate, Pageable pageable);
+
+    /** {id, customer} of orders in {@code status} after {@code afterId}, oldest first. */
+    @Query("SELECT o.id, o.customer FROM Order o WHERE o.orderStatus = :status AND o.id > :afterId ORDER BY o.id")
+    List<Object[]> findIdsAndCustomersByStatus(@Param("status") OrderStatus status, @Param("afterId") int afterId,
+            Pageable pageable);
+}
@@ -0,0 +1,46 @@
+package com.cts.repository;
+
+import com.cts.entity.OutboxEvent;
+import com.cts.enums.OutboxStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Events that can be sent now: due, not held by a live claim, and with no older event for
+     * the same user still waiting out its backoff or claimed elsewhere, so users stay in order.
+     * Events that are backing off never fill the page ahead of due ones.
+     */
+    @Query("SELECT e FROM OutboxEvent e WHERE e.status = :status AND e.nextAttemptAt <= :now "
+            + "AND (e.claimedUntil IS NULL OR e.claimedUntil < :now) "
+            + "AND NOT EXISTS (SELECT o.id FROM OutboxEvent o WHERE o.userId = e.userId AND o.status = :status "
+            + "AND o.id < e.id AND (o.nextAttemptAt > :now OR o.claimedUntil >= :now)) ORDER BY e.id")
+    List<OutboxEvent> findDispatchable(@Param("status") OutboxStatus status, @Param("now") LocalDateTime now,
+                                       Pageable pageable);
+
+    List<OutboxEvent> findByClaimTokenOrderByIdAsc(String claimToken);
+
+    /**
+     * Takes the due events among {@code ids} that no other dispatcher holds a live claim on.
+     * The row locks taken by the UPDATE make concurrent claims mutually exclusive.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboxEvent e SET e.claimToken = :token, e.claimedUntil = :until WHERE e.id IN :ids "
+            + "AND e.status = :status AND e.nextAttemptAt <= :now AND (e.claimedUntil IS NULL OR e.claimedUntil < :now)")
+    int claim(@Param("ids") List<Long> ids, @Param("status") OutboxStatus status, @Param("token") String token,
+              @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OutboxEvent e WHERE e.status = :status AND e.createdAt < :before")
+    int deleteByStatusCreatedBefore(@Param("status") OutboxStatus status, @Param("before") LocalDateTime before);
+}
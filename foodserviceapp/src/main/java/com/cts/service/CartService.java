@@ -2,9 +2,9 @@ package com.cts.service;
 
 import com.cts.dto.request.CartRequestDTO;
 import com.cts.dto.response.CartResponseDTO;
+import com.cts.dto.response.CartSummaryResponseDTO;
 
 import java.util.List;
-import java.util.Map;
 
 public interface CartService {
     
@@ -13,6 +13,6 @@ public interface CartService {
     void removeFromCart(Long userId, int foodId);
     List<CartResponseDTO> getCartItems(Long userId);
     void clearCart(Long userId);
-    Map<String, Object> getCartSummary(Long userId);
+    CartSummaryResponseDTO getCartSummary(Long userId);
     
 }
@@ -1,5 +1,6 @@
 package com.cts.service;
 
+import com.cts.cache.CatalogBody;
 import com.cts.dto.request.CategoryRequestDTO;
 import com.cts.dto.response.CategoryResponseDTO;
 
@@ -11,7 +12,9 @@ public interface CategoryService {
     CategoryResponseDTO getCategoryById(int id);
     CategoryResponseDTO getCategoryByName(String name);
     List<CategoryResponseDTO> getAllCategories();
+    CatalogBody getAllCategoriesBody();
     CategoryResponseDTO updateCategory(int id, CategoryRequestDTO categoryRequest);
     void deleteCategory(int id);
+    String getCatalogVersion();
     
 }
@@ -1,14 +1,20 @@
 package com.cts.service;
 
+import java.time.LocalDate;
 import java.util.List;
 
+import com.cts.dto.feedback.DeliveredOrderDTO;
+import com.cts.dto.response.OrderPageResponseDTO;
 import com.cts.dto.response.OrderResponseDTO;
 import com.cts.entity.Order;
+import com.cts.enums.OrderStatus;
 import com.cts.model.User;
 
 public interface CommonOrderService {
 
 	List<OrderResponseDTO> getAllOrdersDtoForCurrentUser();
+	OrderPageResponseDTO getOrdersPageForCurrentUser(Integer afterId, Integer limit, OrderStatus status,
+			LocalDate fromDate, LocalDate toDate);
 	User getCurrentAuthenticatedUser();
 	User getUserById(Long id);
 	Order getOrderById(int orderId);
@@ -16,6 +22,8 @@ public interface CommonOrderService {
 	List<Order> getOrdersByCustomer(User customer);
 	List<Order> getOrdersForCurrentUser();
 	OrderResponseDTO mapToOrderResponseDto(Order order);
+	List<OrderResponseDTO> mapToOrderResponseDtos(List<Order> orders);
 	List<Order> getOrdersByDeliveryPartner(com.cts.model.User partner);
+	List<DeliveredOrderDTO> getDeliveredOrders(Integer afterId, Integer limit);
 
 }
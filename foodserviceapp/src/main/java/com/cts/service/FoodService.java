@@ -1,7 +1,10 @@
 package com.cts.service;
 
+import com.cts.cache.CatalogBody;
+import com.cts.dto.request.FoodRatingUpdateDTO;
 import com.cts.dto.request.FoodRequestDTO;
 import com.cts.dto.response.FoodResponseDTO;
+import com.cts.dto.response.FoodStockResponseDTO;
 
 import org.springframework.data.domain.Page;
 
@@ -11,11 +14,14 @@ public interface FoodService {
 
     FoodResponseDTO addFoodWithCategoryName(FoodRequestDTO requestFood, String categoryName);
     List<FoodResponseDTO> getAllFood();
+    CatalogBody getAllFoodBody();
     FoodResponseDTO getFoodById(int id);
     Page<FoodResponseDTO> getFoodByCategory(String category,int page);
+    CatalogBody getFoodByCategoryBody(String category, int page);
     FoodResponseDTO getFoodByName(String name);
     List<FoodResponseDTO> getFoodByStatus(boolean status);
     Page<FoodResponseDTO> getActiveFood(int page);
+    CatalogBody getActiveFoodBody(int page);
     FoodResponseDTO updateFood(int id, FoodRequestDTO requestFood);
     FoodResponseDTO updateFoodStatus(int id, boolean status);
     FoodResponseDTO updateFoodPrice(int id, double price);
@@ -24,6 +30,10 @@ public interface FoodService {
     FoodResponseDTO updateFoodDescription(int id, String description);
     FoodResponseDTO updateFoodImage(int id, String img);
     boolean isInStock(int foodId);
+    List<FoodStockResponseDTO> getStock(List<Integer> foodIds);
     void updateFoodRating(int id, float avgRating);
 
+    int updateFoodRatings(List<FoodRatingUpdateDTO> ratings);
+    String getCatalogVersion();
+
 }
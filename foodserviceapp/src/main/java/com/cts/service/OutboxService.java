@@ -0,0 +1,11 @@
+package com.cts.service;
+
+public interface OutboxService {
+
+	void enqueuePartnerAvailability(int orderId, long partnerId, boolean available);
+	void enqueueTotalOrders(int orderId, long userId);
+	void enqueuePromoCommit(int orderId, long customerId, String holdToken);
+	void enqueueOrderDelivered(int orderId, long customerId);
+	int dispatchPending();
+
+}
@@ -1,6 +1,8 @@
 package com.cts.service;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import com.cts.dto.response.UserResponseDTO;
 import com.cts.model.User;
@@ -9,6 +11,7 @@ public interface UserService {
 
 	User getUserByEmail(String email);
 	User getUserById(Long id);
+	Map<Long, User> getUsersByIds(Collection<Long> ids);
 	List<UserResponseDTO> getActiveCustomers();
 	List<UserResponseDTO> getActiveDeliveryPartners();
 	List<UserResponseDTO> searchCustomersByName(String name);
@@ -3,9 +3,10 @@ package com.cts.service.impl;
 import com.cts.entity.*;
 import com.cts.repository.*;
 import com.cts.service.AdminOrderService;
+import com.cts.dispatch.PartnerDispatcher;
 import com.cts.service.CommonOrderService;
+import com.cts.service.OutboxService;
 import lombok.AllArgsConstructor;
-import com.cts.client.AuthServiceClient;
 import com.cts.dto.response.OrderPlacementResponseDTO;
 import com.cts.dto.response.OrderResponseDTO;
 import com.cts.enums.OrderStatus;
@@ -14,7 +15,6 @@ import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
-import java.util.stream.Collectors;
 
 
 @Service
@@ -24,7 +24,8 @@ public class AdminOrderServiceImpl implements AdminOrderService {
     private final OrdersRepository orderRepository;
     private final CommonOrderService commonService;
     private final ModelMapper mapper;
-    private AuthServiceClient authServiceClient;
+    private final OutboxService outboxService;
+    private final PartnerDispatcher partnerDispatcher;
    
 
 	@Transactional
@@ -35,8 +36,13 @@ public class AdminOrderServiceImpl implements AdminOrderService {
             throw new UnauthorizedActionException("Only Admin can update order status.");
         }
         Order order = commonService.getOrderById(orderId);
+        OrderStatus previousStatus = order.getOrderStatus();
         order.setOrderStatus(newStatus);
         Order savedOrder = orderRepository.save(order);
+        // Same notification as a delivery partner completing the order, so the order can be rated.
+        if (newStatus == OrderStatus.DELIVERED && previousStatus != OrderStatus.DELIVERED) {
+            outboxService.enqueueOrderDelivered(orderId, order.getCustomer());
+        }
         return mapper.map(savedOrder, OrderPlacementResponseDTO.class);
     }
     
@@ -53,7 +59,8 @@ public class AdminOrderServiceImpl implements AdminOrderService {
         order.setDeliveryPartner(partnerId);
        
         Order savedOrder = orderRepository.save(order);
-        authServiceClient.updateDeliveryPartnerAvailability(partnerId, false, true);
+        outboxService.enqueuePartnerAvailability(orderId, partnerId, false);
+        partnerDispatcher.claim(partnerId);
         return mapper.map(savedOrder, OrderPlacementResponseDTO.class);
     }
     
@@ -65,9 +72,7 @@ public class AdminOrderServiceImpl implements AdminOrderService {
             throw new UnauthorizedActionException("Only Admin can view all orders.");
         }
         List<Order> orders = commonService.getAllOrders();
-        return orders.stream()
-            .map(this::mapToOrderResponseDto)
-            .collect(Collectors.toList());
+        return commonService.mapToOrderResponseDtos(orders);
     }
     
 
@@ -81,9 +86,4 @@ public class AdminOrderServiceImpl implements AdminOrderService {
     }
     
 
-
-    private OrderResponseDTO mapToOrderResponseDto(Order order) {
-        return commonService.mapToOrderResponseDto(order);
-    }
-
 }
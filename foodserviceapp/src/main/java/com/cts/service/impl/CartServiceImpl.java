@@ -2,6 +2,7 @@ package com.cts.service.impl;
 
 import com.cts.dto.request.CartRequestDTO;
 import com.cts.dto.response.CartResponseDTO;
+import com.cts.dto.response.CartSummaryResponseDTO;
 import com.cts.entity.Cart;
 import com.cts.entity.Food;
 import com.cts.exception.CartItemNotFoundException;
@@ -15,11 +16,9 @@ import com.cts.service.UserService;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import java.util.ArrayList;
-import java.util.HashMap;
+
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 @Service
 @AllArgsConstructor
@@ -34,49 +33,24 @@ public class CartServiceImpl implements CartService {
 	@Override
     @Transactional
     public CartResponseDTO addToCart(Long userId, CartRequestDTO cartRequestDto) {
-        System.out.println("CartService - Adding to cart - User ID: " + userId + ", Food ID: " + cartRequestDto.getFoodId());
-        
-  
         com.cts.model.User user = userService.getUserById(userId);
         if (user == null) {
-            System.err.println("User not found with id: " + userId);
             throw new UserNotFoundException("User not found with id: " + userId);
         }
         
-        System.out.println("User found: " + user.getName());
-        
         Food food = foodRepository.findById(cartRequestDto.getFoodId())
-                .orElseThrow(() -> {
-                    System.err.println("Food not found with id: " + cartRequestDto.getFoodId());
-                    return new FoodNotFoundException("Food not found with id: " + cartRequestDto.getFoodId());
-                });
-        
-        System.out.println("Food found: " + food.getName());
+                .orElseThrow(() -> new FoodNotFoundException("Food not found with id: " + cartRequestDto.getFoodId()));
 
         if (!food.isStatus()) {
             throw new FoodNotInStockException("Food item is not available");
         }
 
-        List<Cart> existingCarts = cartRepository.findAllByUserIdAndFoodId(userId, cartRequestDto.getFoodId());
-        
-        Cart cart;
-        if (!existingCarts.isEmpty()) {
-            System.out.println("Updating existing cart item");
-
-            cart = normalizeDuplicateCartEntries(existingCarts);
-            cart.setQuantity(cart.getQuantity() + cartRequestDto.getQuantity());
-        } else {
-            System.out.println("Creating new cart item");
+        // Insert-or-increment in the database, so concurrent adds for the same food
+        // accumulate on one row instead of racing on a read-modify-write.
+        cartRepository.upsertQuantity(userId, food.getId(), cartRequestDto.getQuantity(), LocalDateTime.now());
 
-            cart = new Cart();
-            cart.setUserId(userId);
-            cart.setFood(food);
-            cart.setQuantity(cartRequestDto.getQuantity());
-        }
-        
-        cart = cartRepository.save(cart);
-        System.out.println("Cart saved successfully with ID: " + cart.getId());
-        return convertToDto(cart);
+        return cartRepository.findCartLine(userId, food.getId())
+                .orElseThrow(() -> new CartItemNotFoundException("Cart item not found"));
     }
     
     @Override
@@ -103,10 +77,8 @@ public class CartServiceImpl implements CartService {
     
     @Override
     public List<CartResponseDTO> getCartItems(Long userId) {
-        List<Cart> cartItems = cartRepository.findByUserId(userId);
-        return cartItems.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        // Lines come back already joined with food and category, one statement per cart.
+        return cartRepository.findCartLines(userId);
     }
     
     @Override
@@ -116,23 +88,8 @@ public class CartServiceImpl implements CartService {
     }
     
     @Override
-    public Map<String, Object> getCartSummary(Long userId) {
-        List<Cart> cartItems = cartRepository.findByUserId(userId);
-        
-        double totalAmount = cartItems.stream()
-                .mapToDouble(cart -> cart.getFood().getPrice() * cart.getQuantity())
-                .sum();
-        
-        int totalItems = cartItems.stream()
-                .mapToInt(Cart::getQuantity)
-                .sum();
-        
-        Map<String, Object> summary = new HashMap<>();
-        summary.put("totalAmount", totalAmount);
-        summary.put("totalItems", totalItems);
-        summary.put("itemCount", cartItems.size());
-        
-        return summary;
+    public CartSummaryResponseDTO getCartSummary(Long userId) {
+        return cartRepository.summarize(userId);
     }
     
     private CartResponseDTO convertToDto(Cart cart) {
@@ -150,29 +107,7 @@ public class CartServiceImpl implements CartService {
     }
 
     private Cart getCartOrThrow(Long userId, int foodId) {
-        List<Cart> carts = cartRepository.findAllByUserIdAndFoodId(userId, foodId);
-        if (carts.isEmpty()) {
-            throw new CartItemNotFoundException("Cart item not found");
-        }
-        return normalizeDuplicateCartEntries(carts);
-    }
-
-    private Cart normalizeDuplicateCartEntries(List<Cart> carts) {
-        Cart primary = carts.get(0);
-        if (carts.size() == 1) {
-            return primary;
-        }
-        int combinedQuantity = primary.getQuantity();
-        List<Cart> duplicates = new ArrayList<>();
-        for (int i = 1; i < carts.size(); i++) {
-            Cart duplicate = carts.get(i);
-            combinedQuantity += duplicate.getQuantity();
-            duplicates.add(duplicate);
-        }
-        if (!duplicates.isEmpty()) {
-            cartRepository.deleteAll(duplicates);
-        }
-        primary.setQuantity(combinedQuantity);
-        return cartRepository.save(primary);
+        return cartRepository.findByUserIdAndFoodId(userId, foodId)
+                .orElseThrow(() -> new CartItemNotFoundException("Cart item not found"));
     }
 }
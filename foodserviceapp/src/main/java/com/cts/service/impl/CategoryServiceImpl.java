@@ -2,6 +2,10 @@ package com.cts.service.impl;
 
 import java.util.List;
 
+import com.cts.cache.CatalogBody;
+import com.cts.cache.CatalogResponseCache;
+import com.cts.cache.MenuCatalog;
+import com.cts.cache.MenuSnapshot;
 import com.cts.dto.request.CategoryRequestDTO;
 import com.cts.dto.response.CategoryResponseDTO;
 import com.cts.exception.CategoryAlreadyExistException;
@@ -21,6 +25,8 @@ public class CategoryServiceImpl implements CategoryService{
 
     private CategoryRepository categoryRepo;
     private ModelMapper mapper;
+    private MenuCatalog menuCatalog;
+    private CatalogResponseCache responseCache;
 
 
     public CategoryResponseDTO addCategory(CategoryRequestDTO requestCategory) {
@@ -29,33 +35,49 @@ public class CategoryServiceImpl implements CategoryService{
         }
         Category category= mapper.map(requestCategory, Category.class);
         category=categoryRepo.save(category);
+        menuCatalog.invalidate();
         CategoryResponseDTO responseCategory= mapper.map(category, CategoryResponseDTO.class);
         return responseCategory;
     }
 
     public List<CategoryResponseDTO> getAllCategories() {
-        List<Category> category = categoryRepo.findAll();
-        if(category.size()==0){
+        return allCategories(menuCatalog.current());
+    }
+
+    public CatalogBody getAllCategoriesBody() {
+        return responseCache.render("category:all", this::allCategories);
+    }
+
+    private List<CategoryResponseDTO> allCategories(MenuSnapshot snapshot) {
+        List<CategoryResponseDTO> responseCategorieslist = snapshot.categories();
+        if(responseCategorieslist.size()==0){
             throw new CategoryNotFoundException("No categories found");
         }
-        List<CategoryResponseDTO> responseCategorieslist = category.stream()
-                .map(cat -> mapper.map(cat, CategoryResponseDTO.class))
-                .toList();
         return responseCategorieslist;
     }
 
     public CategoryResponseDTO getCategoryById(int id) {
+        CategoryResponseDTO cached = menuCatalog.current().category(id);
+        if (cached != null) {
+            return cached;
+        }
         Category category=categoryRepo.findById(id).orElseThrow(()->new CategoryNotFoundException("Category not found with id - "+id));
+        menuCatalog.invalidate();
         CategoryResponseDTO responseCategory= mapper.map(category, CategoryResponseDTO.class);
         return responseCategory;
 
     }
 
     public CategoryResponseDTO getCategoryByName(String name) {
+        CategoryResponseDTO cached = menuCatalog.current().categoryByName(name);
+        if (cached != null) {
+            return cached;
+        }
         Category category=categoryRepo.findByName(name);
         if(category == null){
             throw new CategoryNotFoundException("Category not found with name - "+name);
         }
+        menuCatalog.invalidate();
         CategoryResponseDTO responseCategory= mapper.map(category, CategoryResponseDTO.class);
         return responseCategory;
 
@@ -66,6 +88,7 @@ public class CategoryServiceImpl implements CategoryService{
         existingCategory.setName(requestCategory.getName());
         existingCategory.setImg(requestCategory.getImg());
         existingCategory=categoryRepo.save(existingCategory);
+        menuCatalog.invalidate();
         CategoryResponseDTO responseCategory= mapper.map(existingCategory, CategoryResponseDTO.class);
         return responseCategory;
     }
@@ -75,5 +98,10 @@ public class CategoryServiceImpl implements CategoryService{
         Category category = categoryRepo.findById(id)
             .orElseThrow(() -> new CategoryNotFoundException("Category not found with id - " + id));
         categoryRepo.delete(category);
+        menuCatalog.invalidate();
+    }
+
+    public String getCatalogVersion() {
+        return menuCatalog.version();
     }
 }
\ No newline at end of file
@@ -1,11 +1,14 @@
 package com.cts.service.impl;
 
+import com.cts.dto.feedback.DeliveredOrderDTO;
 import com.cts.dto.request.OrderAddressDTO;
 import com.cts.dto.response.OrderItemResponseDTO;
+import com.cts.dto.response.OrderPageResponseDTO;
 import com.cts.dto.response.OrderResponseDTO;
 import com.cts.entity.Order;
 import com.cts.entity.OrderAddress;
 import com.cts.entity.OrderItem;
+import com.cts.enums.OrderStatus;
 import com.cts.repository.OrderAddressRepository;
 import com.cts.repository.OrderItemRepository;
 import com.cts.repository.OrdersRepository;
@@ -17,10 +20,19 @@ import com.cts.exception.UserNotFoundException;
 import com.cts.exception.UserRoleIsNotValidException;
 import com.cts.model.User;
 import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 
@@ -34,6 +46,10 @@ public class CommonOrderServiceImpl implements CommonOrderService{
     private final OrderItemRepository orderItemRepository;
     private final ModelMapper mapper;
     
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 200;
+    static final int MAX_DELIVERED_PAGE_SIZE = 500;
+    
    
     public User getCurrentAuthenticatedUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -92,41 +108,136 @@ public class CommonOrderServiceImpl implements CommonOrderService{
     
    
     public List<OrderResponseDTO> getAllOrdersDtoForCurrentUser() {
-        List<Order> orders = getOrdersForCurrentUser();
-        
-        return orders.stream()
-            .map(this::mapToOrderResponseDto)
-            .collect(Collectors.toList());
+        return mapToOrderResponseDtos(getOrdersForCurrentUser());
     }
     
-    public OrderResponseDTO mapToOrderResponseDto(Order order) {
-        OrderResponseDTO dto = mapper.map(order, OrderResponseDTO.class);
+    /**
+     * Keyset page of the current user's orders, newest first. Only ids below
+     * {@code afterId} are returned, so each page is an index range scan no matter
+     * how deep the client has scrolled. One extra row is fetched to tell whether
+     * another page exists.
+     */
+    public OrderPageResponseDTO getOrdersPageForCurrentUser(Integer afterId, Integer limit, OrderStatus status,
+            LocalDate fromDate, LocalDate toDate) {
+        User user = getCurrentAuthenticatedUser();
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        int cursor = afterId == null ? Integer.MAX_VALUE : afterId;
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+        
+        List<Order> orders;
+        if (user instanceof com.cts.model.Admin) {
+            orders = orderRepository.findPage(cursor, status, fromDate, toDate, pageable);
+        } else if (user instanceof com.cts.model.Customer) {
+            orders = orderRepository.findPageByCustomer(user.getId(), cursor, status, fromDate, toDate, pageable);
+        } else if (user instanceof com.cts.model.DeliveryPartner) {
+            orders = orderRepository.findPageByDeliveryPartner(user.getId(), cursor, status, fromDate, toDate, pageable);
+        } else {
+            throw new UserRoleIsNotValidException("Invalid user role");
+        }
         
+        boolean hasMore = orders.size() > pageSize;
+        if (hasMore) {
+            orders = orders.subList(0, pageSize);
+        }
         
-        if (order.getCustomer() != 0) {
-            User customer = userService.getUserById(order.getCustomer());
-            if (customer != null) {
-                dto.setCustomerId(Math.toIntExact(customer.getId()));
-                dto.setCustomerName(customer.getName());
+        OrderPageResponseDTO page = new OrderPageResponseDTO();
+        page.setOrders(mapToOrderResponseDtos(orders));
+        page.setNextAfterId(hasMore ? orders.get(orders.size() - 1).getId() : null);
+        return page;
+    }
+    
+    /**
+     * Facts about delivered orders after {@code afterId}, oldest first, for services that
+     * keep their own copy and need to catch up on orders delivered before they listened.
+     * Two queries per page, however many orders it holds.
+     */
+    public List<DeliveredOrderDTO> getDeliveredOrders(Integer afterId, Integer limit) {
+        int pageSize = limit == null ? MAX_DELIVERED_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_DELIVERED_PAGE_SIZE));
+        Map<Integer, DeliveredOrderDTO> orders = new LinkedHashMap<>();
+        for (Object[] row : orderRepository.findIdsAndCustomersByStatus(OrderStatus.DELIVERED,
+                afterId == null ? 0 : afterId, PageRequest.of(0, pageSize))) {
+            int orderId = (Integer) row[0];
+            orders.put(orderId, new DeliveredOrderDTO(orderId, (Long) row[1], new ArrayList<>()));
+        }
+        if (!orders.isEmpty()) {
+            for (Object[] row : orderItemRepository.findFoodIdsByOrderIds(orders.keySet())) {
+                orders.get((Integer) row[0]).getFoodIds().add((Integer) row[1]);
             }
         }
+        return new ArrayList<>(orders.values());
+    }
+    
+    public OrderResponseDTO mapToOrderResponseDto(Order order) {
+        return mapToOrderResponseDtos(List.of(order)).get(0);
+    }
+    
+    
+    public List<OrderResponseDTO> mapToOrderResponseDtos(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return new ArrayList<>();
+        }
         
-       
-        if (order.getDeliveryPartner() != 0) {
-            User deliveryPartner = userService.getUserById(order.getDeliveryPartner());
-            if (deliveryPartner != null) {
-                dto.setDeliveryPartnerId(Math.toIntExact(deliveryPartner.getId()));
-                dto.setAssignDeliveryPerson(deliveryPartner.getName());
+        Set<Long> userIds = new HashSet<>();
+        for (Order order : orders) {
+            if (order.getCustomer() != 0) {
+                userIds.add(order.getCustomer());
+            }
+            if (order.getDeliveryPartner() != 0) {
+                userIds.add(order.getDeliveryPartner());
             }
         }
-       
-        OrderAddress orderAddress = orderAddressRepository.findByOrder(order);
+        Map<Long, User> users = userIds.isEmpty() ? Map.of() : userService.getUsersByIds(userIds);
+        
+        Map<Integer, OrderAddress> addressesByOrderId = new HashMap<>();
+        for (OrderAddress orderAddress : orderAddressRepository.findByOrderIn(orders)) {
+            addressesByOrderId.put(orderAddress.getOrder().getId(), orderAddress);
+        }
+        
+        Map<Integer, List<OrderItem>> itemsByOrderId = new HashMap<>();
+        for (OrderItem item : orderItemRepository.findByOrderInWithFood(orders)) {
+            itemsByOrderId.computeIfAbsent(item.getOrder().getId(), id -> new ArrayList<>()).add(item);
+        }
+        
+        List<OrderResponseDTO> dtos = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            dtos.add(buildOrderResponseDto(order, users,
+                    addressesByOrderId.get(order.getId()),
+                    itemsByOrderId.getOrDefault(order.getId(), List.of())));
+        }
+        return dtos;
+    }
+    
+    private OrderResponseDTO buildOrderResponseDto(Order order, Map<Long, User> users,
+            OrderAddress orderAddress, List<OrderItem> orderItems) {
+        // Scalar fields are copied by hand: mapping the entity with ModelMapper would
+        // initialise the lazy orderItems collection and undo the batched loading.
+        OrderResponseDTO dto = new OrderResponseDTO();
+        dto.setId(order.getId());
+        dto.setTotalQty(order.getTotalQty() != null ? order.getTotalQty() : 0);
+        dto.setTotalPrice(order.getTotalPrice() != null ? order.getTotalPrice() : 0.0);
+        dto.setDiscountAmount(order.getDiscountAmount());
+        dto.setPromoCode(order.getPromoCode());
+        dto.setOrderDate(order.getOrderDate());
+        dto.setOrderTime(order.getOrderTime());
+        dto.setOrderStatus(order.getOrderStatus());
+        dto.setOtp(order.getOtp());
+        
+        User customer = users.get(order.getCustomer());
+        if (customer != null) {
+            dto.setCustomerId(Math.toIntExact(customer.getId()));
+            dto.setCustomerName(customer.getName());
+        }
+        
+        User deliveryPartner = users.get(order.getDeliveryPartner());
+        if (deliveryPartner != null) {
+            dto.setDeliveryPartnerId(Math.toIntExact(deliveryPartner.getId()));
+            dto.setAssignDeliveryPerson(deliveryPartner.getName());
+        }
+        
         if (orderAddress != null) {
             dto.setOrderAddress(mapper.map(orderAddress, OrderAddressDTO.class));
         }
         
-       
-        List<OrderItem> orderItems = orderItemRepository.findByOrder(order);
         if (!orderItems.isEmpty()) {
             List<OrderItemResponseDTO> itemDTOs = orderItems.stream()
                 .map(item -> {
@@ -5,19 +5,18 @@ import com.cts.repository.*;
 import com.cts.service.AdminOrderService;
 import com.cts.service.CommonOrderService;
 import com.cts.service.CustomerOrderService;
+import com.cts.service.OutboxService;
 
 import lombok.AllArgsConstructor;
 
-import com.cts.client.AuthServiceClient;
 import com.cts.client.PromoCodeServiceClient;
+import com.cts.dispatch.PartnerDispatcher;
 import com.cts.dto.request.OrderItemDTO;
 import com.cts.dto.request.OrderPlacementRequestDTO;
-import com.cts.dto.promo.PromoCodeRedeemRequestDTO;
 import com.cts.dto.promo.PromoCodeValidationRequestDTO;
 import com.cts.dto.promo.PromoCodeValidationResponseDTO;
 import com.cts.dto.response.OrderPlacementResponseDTO;
 import com.cts.dto.response.OrderResponseDTO;
-import com.cts.dto.response.UserResponseDTO;
 import com.cts.enums.OrderStatus;
 import com.cts.exception.FoodNotFoundException;
 import com.cts.exception.FoodNotInStockException;
@@ -32,16 +31,20 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import feign.FeignException;
 import org.modelmapper.ModelMapper;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.StringUtils;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 
 
 @Service
@@ -51,54 +54,34 @@ public class CustomerOrderServiceImpl implements CustomerOrderService{
     
     private final OrdersRepository orderRepository;
     private final FoodRepository foodRepository;
-    private final OrderItemRepository orderItemRepository;
     private final OrderAddressRepository orderAddressRepository;
     private final CommonOrderService commonService;
     private final ModelMapper mapper;
     private final AdminOrderService adminOrderService;
     private final PromoCodeServiceClient promoCodeServiceClient;
-    private final AuthServiceClient authServiceClient;
     private final ObjectMapper objectMapper;
+    private final OutboxService outboxService;
+    private final PartnerDispatcher partnerDispatcher;
 
 
 	@Transactional
     public OrderPlacementResponseDTO placeOrder(OrderPlacementRequestDTO request) {
-        List<OrderItemDTO> items = request.getItems();
-        items.forEach(item -> {
-            item.getFoodId();
-                   Food food = foodRepository.findById(item.getFoodId())
-                    .orElseThrow(() -> new FoodNotFoundException("Food not found with ID: " + item.getFoodId()));
-                    if(food.isStatus()==false) {
-                    	throw new FoodNotInStockException(food.getName() + " is currently Out Of Stock.");
-                    }
-        });
-        User customer = commonService.getCurrentAuthenticatedUser();
-        if (!(customer instanceof Customer)) {
-            throw new UnauthorizedActionException("Only customers can place orders.");
-        }
-        Order order = new Order();
-        order.setCustomer(customer.getId());
-        order.setOrderDate(LocalDate.now());
-        order.setOrderTime(LocalTime.now());
-        order.setOrderStatus(OrderStatus.PENDING);
-        order.setDiscountAmount(0.0);
-        order.setPromoCode(null);
-        
-        
-        
-        String otp = String.format("%06d", (int)(Math.random() * 1000000));
-        order.setOtp(otp);
+        Map<Integer, Food> foodsById = loadFoods(request.getItems());
         
         double totalPrice = 0.0;
         int totalQty = 0;
         List<OrderItem> orderItems = new ArrayList<>();
         
         for (OrderItemDTO itemDto : request.getItems()) {
-            Food food = foodRepository.findById(itemDto.getFoodId())
-                    .orElseThrow(() -> new FoodNotFoundException("Food not found with ID: " + itemDto.getFoodId()));
+            Food food = foodsById.get(itemDto.getFoodId());
+            if (food == null) {
+                throw new FoodNotFoundException("Food not found with ID: " + itemDto.getFoodId());
+            }
+            if (!food.isStatus()) {
+                throw new FoodNotInStockException(food.getName() + " is currently Out Of Stock.");
+            }
 
             OrderItem orderItem = new OrderItem();
-            orderItem.setOrder(order);
             orderItem.setFood(food);
             orderItem.setQuantity(itemDto.getQuantity());
             orderItem.setPrice(food.getPrice());
@@ -107,13 +90,36 @@ public class CustomerOrderServiceImpl implements CustomerOrderService{
             totalQty += itemDto.getQuantity();
             orderItems.add(orderItem);
         }
+        
+        User customer = commonService.getCurrentAuthenticatedUser();
+        if (!(customer instanceof Customer)) {
+            throw new UnauthorizedActionException("Only customers can place orders.");
+        }
+        Order order = new Order();
+        order.setCustomer(customer.getId());
+        order.setOrderDate(LocalDate.now());
+        order.setOrderTime(LocalTime.now());
+        order.setOrderStatus(OrderStatus.PENDING);
+        order.setDiscountAmount(0.0);
+        order.setPromoCode(null);
+        
+        String otp = String.format("%06d", (int)(Math.random() * 1000000));
+        order.setOtp(otp);
 
         double orderSubtotal = totalPrice;
         double grandTotal = orderSubtotal + DELIVERY_CHARGE;
         order.setTotalPrice(grandTotal);
         order.setTotalQty(totalQty);
+        
+        // The promo is priced before the first insert so the order row is written once.
+        String promoHoldToken = null;
+        if (StringUtils.hasText(request.getPromoCode())) {
+            promoHoldToken = applyPromoCode(request.getPromoCode(), customer, orderSubtotal, order);
+        }
+        
+        orderItems.forEach(item -> item.setOrder(order));
+        order.setOrderItems(orderItems);
         Order savedOrder = orderRepository.save(order);
-        final Order persistedOrder = savedOrder;
         
         OrderAddress orderAddress = new OrderAddress();
         orderAddress.setFirstName(request.getAddress().getFirstName());
@@ -125,34 +131,13 @@ public class CustomerOrderServiceImpl implements CustomerOrderService{
         orderAddress.setPhoneNo(request.getAddress().getPhoneNo());
         orderAddress.setOrder(savedOrder);
         orderAddressRepository.save(orderAddress);
-        orderItems.forEach(item -> item.setOrder(persistedOrder));
-        orderItemRepository.saveAll(orderItems);
-        
-        boolean promoApplied = false;
-        if (StringUtils.hasText(request.getPromoCode())) {
-            savedOrder = applyPromoCode(request.getPromoCode(), customer, orderSubtotal, savedOrder);
-            promoApplied = StringUtils.hasText(savedOrder.getPromoCode());
-        }
-
-        
 
-        ResponseEntity<List<UserResponseDTO>> response = authServiceClient.getActiveDeliveryPartners();
-        List<UserResponseDTO> CanBeAssignedpartnersList = new ArrayList<>();
-        
-        for(UserResponseDTO partner : response.getBody()) {
-			System.out.println("Active Delivery Partner: " + partner.getId() + " - " + partner.getName());
-			if(partner.getAvailabilityStatus()==true) {
-				CanBeAssignedpartnersList.add(partner);
-			}
-		}
-        if(CanBeAssignedpartnersList.isEmpty()){
-            throw new NoPartnerAvaliableException("No available delivery partners at the moment. Please try again later.");
-        }
-    
-        adminOrderService.assignDeliveryPartner(savedOrder.getId(), CanBeAssignedpartnersList.get(0).getId());
+        long partnerId = partnerDispatcher.allocate(request.getAddress().getCity())
+                .orElseThrow(() -> new NoPartnerAvaliableException("No available delivery partners at the moment. Please try again later."));
+        adminOrderService.assignDeliveryPartner(savedOrder.getId(), partnerId);
 
-        if (promoApplied) {
-            finalizePromoUsage(savedOrder.getPromoCode(), customer, orderSubtotal, savedOrder);
+        if (promoHoldToken != null) {
+            outboxService.enqueuePromoCommit(savedOrder.getId(), customer.getId(), promoHoldToken);
         }
 
         return mapper.map(savedOrder, OrderPlacementResponseDTO.class);
@@ -180,7 +165,10 @@ public class CustomerOrderServiceImpl implements CustomerOrderService{
             order.setOrderStatus(OrderStatus.CANCELLED);
         }
         Order savedOrder = orderRepository.save(order);
-        authServiceClient.updateDeliveryPartnerAvailability(order.getDeliveryPartner(), true, true);
+        if (order.getDeliveryPartner() != 0) {
+            outboxService.enqueuePartnerAvailability(orderId, order.getDeliveryPartner(), true);
+            partnerDispatcher.releaseAfterCommit(order.getDeliveryPartner());
+        }
         return mapper.map(savedOrder, OrderPlacementResponseDTO.class);
     }
  
@@ -188,9 +176,7 @@ public class CustomerOrderServiceImpl implements CustomerOrderService{
     public List<OrderResponseDTO> getMyOrders() {
         com.cts.model.User customer = commonService.getCurrentAuthenticatedUser();
         List<Order> orders = commonService.getOrdersByCustomer(customer);
-        return orders.stream()
-            .map(order -> mapToOrderResponseDto(order))
-            .collect(Collectors.toList());
+        return commonService.mapToOrderResponseDtos(orders);
     }
     
 
@@ -206,12 +192,24 @@ public class CustomerOrderServiceImpl implements CustomerOrderService{
     }
     
 
-
-    private OrderResponseDTO mapToOrderResponseDto(Order order) {
-        return commonService.mapToOrderResponseDto(order);
+    private Map<Integer, Food> loadFoods(List<OrderItemDTO> items) {
+        Set<Integer> foodIds = new HashSet<>();
+        for (OrderItemDTO item : items) {
+            foodIds.add(item.getFoodId());
+        }
+        Map<Integer, Food> foodsById = new HashMap<>();
+        for (Food food : foodRepository.findAllById(foodIds)) {
+            foodsById.put(food.getId(), food);
+        }
+        return foodsById;
     }
 
-    private Order applyPromoCode(String promoCode, User customer, double orderSubtotal, Order order) {
+    /**
+     * Reserves the discount with a promo hold and prices the order from it. The hold is
+     * committed through the outbox once the order is saved, and handed back straight away
+     * if the order transaction rolls back; a hold that is never resolved simply expires.
+     */
+    private String applyPromoCode(String promoCode, User customer, double orderSubtotal, Order order) {
         try {
             PromoCodeValidationRequestDTO validationRequest = new PromoCodeValidationRequestDTO();
             validationRequest.setCode(StringUtils.trimWhitespace(promoCode));
@@ -219,11 +217,14 @@ public class CustomerOrderServiceImpl implements CustomerOrderService{
             validationRequest.setCustomerEmail(customer.getEmail());
             validationRequest.setOrderTotal(BigDecimal.valueOf(orderSubtotal));
 
-            PromoCodeValidationResponseDTO promoResponse = promoCodeServiceClient.validatePromo(validationRequest);
+            PromoCodeValidationResponseDTO promoResponse = promoCodeServiceClient.holdPromo(validationRequest);
 
-            if (promoResponse == null || promoResponse.getFinalAmount() == null) {
+            if (promoResponse == null || promoResponse.getFinalAmount() == null
+                    || !StringUtils.hasText(promoResponse.getHoldToken())) {
                 throw new PromoCodeIntegrationException("Promo code service returned an invalid response");
             }
+            String holdToken = promoResponse.getHoldToken();
+            releaseHoldOnRollback(holdToken);
 
             order.setPromoCode(promoResponse.getCode());
             order.setDiscountAmount(promoResponse.getDiscountAmount() != null
@@ -233,7 +234,7 @@ public class CustomerOrderServiceImpl implements CustomerOrderService{
             double discountedItemsTotal = promoResponse.getFinalAmount().doubleValue();
             double grandTotal = discountedItemsTotal + DELIVERY_CHARGE;
             order.setTotalPrice(grandTotal);
-            return orderRepository.save(order);
+            return holdToken;
         } catch (FeignException ex) {
             throw new PromoCodeIntegrationException(resolvePromoErrorMessage(ex));
         } catch (Exception ex) {
@@ -241,20 +242,23 @@ public class CustomerOrderServiceImpl implements CustomerOrderService{
         }
     }
 
-    private void finalizePromoUsage(String promoCode, User customer, double orderSubtotal, Order order) {
-        try {
-            PromoCodeRedeemRequestDTO redeemRequest = new PromoCodeRedeemRequestDTO();
-            redeemRequest.setCode(StringUtils.trimWhitespace(promoCode));
-            redeemRequest.setCustomerId(customer.getId());
-            redeemRequest.setCustomerEmail(customer.getEmail());
-            redeemRequest.setOrderId(order.getId());
-            redeemRequest.setOrderTotal(BigDecimal.valueOf(orderSubtotal));
-            promoCodeServiceClient.redeemPromo(redeemRequest);
-        } catch (FeignException ex) {
-            throw new PromoCodeIntegrationException(resolvePromoErrorMessage(ex));
-        } catch (Exception ex) {
-            throw new PromoCodeIntegrationException(ex.getMessage());
+    private void releaseHoldOnRollback(String holdToken) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
         }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    return;
+                }
+                try {
+                    promoCodeServiceClient.releaseHold(holdToken);
+                } catch (RuntimeException ex) {
+                    System.err.println("Failed to release promo hold " + holdToken + " after rollback: " + ex.getMessage());
+                }
+            }
+        });
     }
 
     private String resolvePromoErrorMessage(FeignException exception) {
@@ -2,10 +2,11 @@ package com.cts.service.impl;
 
 import com.cts.entity.*;
 import com.cts.repository.*;
+import com.cts.dispatch.PartnerDispatcher;
 import com.cts.service.CommonOrderService;
 import com.cts.service.DeliveryPartnerOrderService;
+import com.cts.service.OutboxService;
 import lombok.AllArgsConstructor;
-import com.cts.client.AuthServiceClient;
 import com.cts.dto.response.OrderPlacementResponseDTO;
 import com.cts.dto.response.OrderResponseDTO;
 import com.cts.enums.OrderStatus;
@@ -16,7 +17,6 @@ import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
-import java.util.stream.Collectors;
 
 
 @Service
@@ -26,7 +26,8 @@ public class DeliveryPartnerOrderServiceImpl implements DeliveryPartnerOrderServ
     private final OrdersRepository orderRepository;
     private final CommonOrderService commonService;
     private final ModelMapper mapper;
-    private AuthServiceClient authServiceClient;
+    private final OutboxService outboxService;
+    private final PartnerDispatcher partnerDispatcher;
     
 
 	@Transactional
@@ -51,9 +52,11 @@ public class DeliveryPartnerOrderServiceImpl implements DeliveryPartnerOrderServ
         }
         order.setOrderStatus(OrderStatus.DELIVERED);
         Order savedOrder = orderRepository.save(order);
-        authServiceClient.updateDeliveryPartnerAvailability(order.getDeliveryPartner(), true, true);
-        authServiceClient.updateTotalOrders(order.getDeliveryPartner());
-        authServiceClient.updateTotalOrders(order.getCustomer());
+        outboxService.enqueuePartnerAvailability(orderId, order.getDeliveryPartner(), true);
+        outboxService.enqueueTotalOrders(orderId, order.getDeliveryPartner());
+        outboxService.enqueueTotalOrders(orderId, order.getCustomer());
+        outboxService.enqueueOrderDelivered(orderId, order.getCustomer());
+        partnerDispatcher.releaseAfterCommit(order.getDeliveryPartner());
 
           
         return mapper.map(savedOrder, OrderPlacementResponseDTO.class);
@@ -84,9 +87,7 @@ public class DeliveryPartnerOrderServiceImpl implements DeliveryPartnerOrderServ
             throw new UnauthorizedActionException("Only Delivery Partners can view assigned orders.");
         }
         List<Order> orders = commonService.getOrdersByDeliveryPartner(partner);
-        return orders.stream()
-            .map(this::mapToOrderResponseDto)
-            .collect(Collectors.toList());
+        return commonService.mapToOrderResponseDtos(orders);
     }
     
 
@@ -102,9 +103,4 @@ public class DeliveryPartnerOrderServiceImpl implements DeliveryPartnerOrderServ
         return order;
     }
     
-
-
-    private OrderResponseDTO mapToOrderResponseDto(Order order) {
-        return commonService.mapToOrderResponseDto(order);
-    }
 }
@@ -1,11 +1,19 @@
 package com.cts.service.impl;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
-
+import java.util.Map;
+import java.util.Objects;
+
+import com.cts.cache.CatalogBody;
+import com.cts.cache.CatalogResponseCache;
+import com.cts.cache.MenuCatalog;
+import com.cts.cache.MenuSnapshot;
+import com.cts.dto.request.FoodRatingUpdateDTO;
 import com.cts.dto.request.FoodRequestDTO;
 import com.cts.dto.response.FoodResponseDTO;
+import com.cts.dto.response.FoodStockResponseDTO;
 import com.cts.exception.CategoryNotFoundException;
 import com.cts.exception.FoodAlreadyExistsException;
 import com.cts.exception.FoodNotFoundException;
@@ -20,6 +28,7 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import com.cts.entity.Category;
 import com.cts.entity.Food;
 
@@ -33,6 +42,8 @@ public class FoodServiceImpl implements FoodService {
 	private FoodRepository repo;
 	private CategoryRepository categoryRepo;
 	private ModelMapper mapper;
+	private MenuCatalog menuCatalog;
+	private CatalogResponseCache responseCache;
 
 
 	public FoodResponseDTO addFoodWithCategoryName(FoodRequestDTO requestFood, String categoryName) {
@@ -53,88 +64,115 @@ public class FoodServiceImpl implements FoodService {
 		food.setCategory(category);
 
 		food = repo.save(food);
+		menuCatalog.invalidate();
 		return mapper.map(food, FoodResponseDTO.class);
 	}
 
 
 	public List<FoodResponseDTO> getAllFood() {
-		List<Food> list = repo.findAll();
-		if (list.isEmpty()) {
-			throw new FoodNotFoundException("No Food Found");
-		}
-		List<FoodResponseDTO> responseFoodlist = new ArrayList<>();
+		return allFood(menuCatalog.current());
+	}
+
+	public CatalogBody getAllFoodBody() {
+		return responseCache.render("food:all", this::allFood);
+	}
 
-		for (Food food : list) {
-			FoodResponseDTO res = mapper.map(food, FoodResponseDTO.class);
-			responseFoodlist.add(res);
+	private List<FoodResponseDTO> allFood(MenuSnapshot snapshot) {
+		List<FoodResponseDTO> foods = snapshot.foods();
+		if (foods.isEmpty()) {
+			throw new FoodNotFoundException("No Food Found");
 		}
-		return responseFoodlist;
+		return foods;
 	}
 
 
 	public FoodResponseDTO getFoodById(int id) {
-		Food food = repo.findById(id).orElseThrow(() -> new FoodNotFoundException("Food not found with id - " + id));
-		return mapper.map(food, FoodResponseDTO.class);
+		FoodResponseDTO food = menuCatalog.current().food(id);
+		if (food != null) {
+			return food;
+		}
+		return mapper.map(loadMissingFood(id), FoodResponseDTO.class);
 	}
 
 	public Page<FoodResponseDTO> getFoodByCategory(String category,int page) {
+		return foodByCategory(menuCatalog.current(), category, page);
+	}
+
+	public CatalogBody getFoodByCategoryBody(String category, int page) {
+		String key = "food:category:" + MenuCatalog.key(category) + ":" + Math.max(page, 1);
+		return responseCache.render(key, snapshot -> foodByCategory(snapshot, category, page));
+	}
 
+	private Page<FoodResponseDTO> foodByCategory(MenuSnapshot snapshot, String category, int page) {
 		int zeroBasedPage = page - 1;
 		if (zeroBasedPage < 0) {
 			zeroBasedPage = 0; 
 		}
 		Pageable pageable = PageRequest.of(zeroBasedPage, PAGE_SIZE);
-		Page<Food> food = repo.findByCategoryName(category,pageable);
+		List<FoodResponseDTO> inCategory = snapshot.foodsInCategory(category);
+		List<FoodResponseDTO> pageContent = slice(inCategory, pageable);
 		
-		if (food.isEmpty()) {
+		if (pageContent.isEmpty()) {
 			throw new FoodNotFoundException("No Food Found with Category - " + category);
 		}
 		List<FoodResponseDTO> responseFoodlist = new ArrayList<>();
-		for (Food f : food) {
-			FoodResponseDTO res = mapper.map(f, FoodResponseDTO.class);
+		for (FoodResponseDTO res : pageContent) {
 			if(res.isStatus()==true) {
 				responseFoodlist.add(res);
 			}
 		}
-		 return new PageImpl<>(responseFoodlist, pageable, food.getTotalElements());
+		 return new PageImpl<>(responseFoodlist, pageable, inCategory.size());
 	}
 
 	public FoodResponseDTO getFoodByName(String name){
+		FoodResponseDTO cached = menuCatalog.current().foodByName(name);
+		if (cached != null) {
+			return cached;
+		}
 		Food food = repo.findByName(name);
 		if (food == null) {
 			throw new FoodNotFoundException("Food not found with name - " + name);
 		}
+		menuCatalog.invalidate();
 		return mapper.map(food, FoodResponseDTO.class);
 	}
 
 	public List<FoodResponseDTO> getFoodByStatus(boolean status) {
-		List<Food> food = repo.findByStatus(status);
+		MenuSnapshot snapshot = menuCatalog.current();
+		List<FoodResponseDTO> food = status ? snapshot.activeFoods() : snapshot.inactiveFoods();
 		if (food.isEmpty()) {
 			throw new FoodNotFoundException("No Food Found with status - " + status);
 		}
-		List<FoodResponseDTO> responseFoodlist = new ArrayList<>();
-		for (Food f : food) {
-			FoodResponseDTO res = mapper.map(f, FoodResponseDTO.class);
-			responseFoodlist.add(res);
-		}
-		return responseFoodlist;
+		return food;
 	}
 	
 	public Page<FoodResponseDTO> getActiveFood(int page) {
-		
+		return activeFood(menuCatalog.current(), page);
+	}
+
+	public CatalogBody getActiveFoodBody(int page) {
+		return responseCache.render("food:active:" + Math.max(page, 1), snapshot -> activeFood(snapshot, page));
+	}
+
+	private Page<FoodResponseDTO> activeFood(MenuSnapshot snapshot, int page) {
 		int zeroBasedPage = page - 1;
 		if (zeroBasedPage < 0) {
 			zeroBasedPage = 0; 
 		}
 		
 		Pageable pageable = PageRequest.of(zeroBasedPage, PAGE_SIZE);
-		Page<Food> foodPage = repo.findByStatus(true, pageable);
+		List<FoodResponseDTO> activeFoods = snapshot.activeFoods();
+		List<FoodResponseDTO> pageContent = slice(activeFoods, pageable);
 		
-		if (foodPage.isEmpty()) {
+		if (pageContent.isEmpty()) {
 			throw new FoodNotFoundException("No Active Food Found");
 		}
 		
-		return foodPage.map(food -> mapper.map(food, FoodResponseDTO.class));
+		return new PageImpl<>(pageContent, pageable, activeFoods.size());
+	}
+
+	public String getCatalogVersion() {
+		return menuCatalog.version();
 	}
 
 	public FoodResponseDTO updateFood(int id, FoodRequestDTO requestFood) {
@@ -155,12 +193,14 @@ public class FoodServiceImpl implements FoodService {
 		}
 
 		existingFood = repo.save(existingFood);
+		menuCatalog.invalidate();
 		return mapper.map(existingFood, FoodResponseDTO.class);
 	}
 	public FoodResponseDTO updateFoodStatus(int id, boolean status) {
 		Food existingFood = repo.findById(id).orElseThrow(() -> new FoodNotFoundException("Food not found with id - " + id));
 		existingFood.setStatus(status);
 		existingFood = repo.save(existingFood);
+		menuCatalog.invalidate();
 		return mapper.map(existingFood, FoodResponseDTO.class);
 	}
 	public FoodResponseDTO updateFoodPrice(int id, double price) {
@@ -170,6 +210,7 @@ public class FoodServiceImpl implements FoodService {
 		}
 		existingFood.setPrice(price);
 		existingFood = repo.save(existingFood);
+		menuCatalog.invalidate();
 		return mapper.map(existingFood, FoodResponseDTO.class);
 	}
 
@@ -187,6 +228,7 @@ public class FoodServiceImpl implements FoodService {
 		existingFood.setCategory(category);
 
 		existingFood = repo.save(existingFood);
+		menuCatalog.invalidate();
 		return mapper.map(existingFood, FoodResponseDTO.class);
 	}
 
@@ -194,12 +236,14 @@ public class FoodServiceImpl implements FoodService {
 		Food existingFood = repo.findById(id).orElseThrow(() -> new FoodNotFoundException("Food not found with id - " + id));
 		existingFood.setName(name);
 		existingFood = repo.save(existingFood);
+		menuCatalog.invalidate();
 		return mapper.map(existingFood, FoodResponseDTO.class);
 	}
 	public FoodResponseDTO updateFoodDescription(int id, String description) {
 		Food existingFood = repo.findById(id).orElseThrow(() -> new FoodNotFoundException("Food not found with id - " + id));
 		existingFood.setDescription(description);
 		existingFood = repo.save(existingFood);
+		menuCatalog.invalidate();
 		return mapper.map(existingFood, FoodResponseDTO.class);
 	}
 
@@ -207,13 +251,49 @@ public class FoodServiceImpl implements FoodService {
 		Food existingFood = repo.findById(id).orElseThrow(() -> new FoodNotFoundException("Food not found with id - " + id));
 		existingFood.setImg(img);
 		existingFood = repo.save(existingFood);
+		menuCatalog.invalidate();
 		return mapper.map(existingFood, FoodResponseDTO.class);
 	}
 
 	 public boolean isInStock(int foodId) {
-		 Food existingFood = repo.findById(foodId).orElseThrow(() -> new FoodNotFoundException("Food not found with id - " + foodId));
-	     boolean inStock = existingFood.isStatus();
-	     return inStock;
+		 FoodResponseDTO food = menuCatalog.current().food(foodId);
+		 if (food != null) {
+			 return food.isStatus();
+		 }
+	     return loadMissingFood(foodId).isStatus();
+	 }
+
+	 /**
+	  * Stock, price and name for every known id, in request order. Ids the catalog does not
+	  * have are resolved with one IN query; ids that do not exist at all are left out.
+	  */
+	 public List<FoodStockResponseDTO> getStock(List<Integer> foodIds) {
+		 MenuSnapshot snapshot = menuCatalog.current();
+		 Map<Integer, FoodStockResponseDTO> stock = new LinkedHashMap<>();
+		 List<Integer> missing = new ArrayList<>();
+		 for (Integer id : foodIds) {
+			 if (id == null || stock.containsKey(id)) {
+				 continue;
+			 }
+			 FoodResponseDTO food = snapshot.food(id);
+			 if (food != null) {
+				 stock.put(id, new FoodStockResponseDTO(food.getId(), food.getName(), food.getPrice(), food.isStatus()));
+			 } else {
+				 stock.put(id, null);
+				 missing.add(id);
+			 }
+		 }
+		 if (!missing.isEmpty()) {
+			 List<FoodStockResponseDTO> loaded = repo.findStockByIdIn(missing);
+			 for (FoodStockResponseDTO food : loaded) {
+				 stock.put(food.getId(), food);
+			 }
+			 if (!loaded.isEmpty()) {
+				 menuCatalog.invalidate();
+			 }
+		 }
+		 stock.values().removeIf(Objects::isNull);
+		 return new ArrayList<>(stock.values());
 	 }
 
 	 public void updateFoodRating(int id, float avgRating) {
@@ -221,6 +301,35 @@ public class FoodServiceImpl implements FoodService {
 				 .orElseThrow(() -> new FoodNotFoundException("Food not found with id - " + id));
 		 existingFood.setAvgRating(avgRating);
 		 repo.save(existingFood);
+		 menuCatalog.ratingsUpdatedAfterCommit(Map.of(id, avgRating));
+	 }
+
+	 /**
+	  * Applies ratings pushed in bulk by the feedback service as one batched UPDATE. A food
+	  * listed more than once keeps its last rating. Returns the number of foods written.
+	  */
+	 @Transactional
+	 public int updateFoodRatings(List<FoodRatingUpdateDTO> ratings) {
+		 Map<Integer, Float> latest = new LinkedHashMap<>();
+		 for (FoodRatingUpdateDTO rating : ratings) {
+			 latest.put(rating.getFoodId(), rating.getAvgRating());
+		 }
+		 repo.updateAvgRatings(latest);
+		 menuCatalog.ratingsUpdatedAfterCommit(latest);
+		 return latest.size();
+	 }
+
+	 // A snapshot miss may be a food added on another instance since the last rebuild.
+	 private Food loadMissingFood(int id) {
+		 Food food = repo.findById(id).orElseThrow(() -> new FoodNotFoundException("Food not found with id - " + id));
+		 menuCatalog.invalidate();
+		 return food;
+	 }
+
+	 private static List<FoodResponseDTO> slice(List<FoodResponseDTO> list, Pageable pageable) {
+		 int from = (int) Math.min(pageable.getOffset(), list.size());
+		 int to = Math.min(from + pageable.getPageSize(), list.size());
+		 return list.subList(from, to);
 	 }
 
 }
@@ -0,0 +1,198 @@
+package com.cts.service.impl;
+
+import com.cts.client.AuthServiceClient;
+import com.cts.client.FeedbackServiceClient;
+import com.cts.client.PromoCodeServiceClient;
+import com.cts.dto.feedback.DeliveredOrderDTO;
+import com.cts.entity.OutboxEvent;
+import com.cts.enums.OutboxEventType;
+import com.cts.enums.OutboxStatus;
+import com.cts.repository.OrderItemRepository;
+import com.cts.repository.OutboxEventRepository;
+import com.cts.service.OutboxService;
+import feign.FeignException;
+import lombok.AllArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+
+@Service
+@AllArgsConstructor
+public class OutboxServiceImpl implements OutboxService {
+
+    static final int BATCH_SIZE = 100;
+    static final int MAX_ATTEMPTS = 10;
+    static final Duration MAX_BACKOFF = Duration.ofMinutes(5);
+    static final Duration SENT_RETENTION = Duration.ofDays(7);
+    static final Duration CLAIM_LEASE = Duration.ofMinutes(5);
+    private static final long DISPATCH_INTERVAL_MILLIS = 1000;
+    private static final long PURGE_INTERVAL_MILLIS = 60 * 60 * 1000;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final AuthServiceClient authServiceClient;
+    private final PromoCodeServiceClient promoCodeServiceClient;
+    private final FeedbackServiceClient feedbackServiceClient;
+    private final OrderItemRepository orderItemRepository;
+
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueuePartnerAvailability(int orderId, long partnerId, boolean available) {
+        OutboxEvent event = newEvent(OutboxEventType.PARTNER_AVAILABILITY, orderId, partnerId);
+        event.setAvailable(available);
+        outboxEventRepository.save(event);
+    }
+
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueTotalOrders(int orderId, long userId) {
+        outboxEventRepository.save(newEvent(OutboxEventType.TOTAL_ORDERS, orderId, userId));
+    }
+
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueuePromoCommit(int orderId, long customerId, String holdToken) {
+        OutboxEvent event = newEvent(OutboxEventType.PROMO_COMMIT, orderId, customerId);
+        event.setReference(holdToken);
+        outboxEventRepository.save(event);
+    }
+
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueOrderDelivered(int orderId, long customerId) {
+        outboxEventRepository.save(newEvent(OutboxEventType.ORDER_DELIVERED, orderId, customerId));
+    }
+
+
+    /**
+     * Delivers due events oldest first. Runs outside any transaction so no
+     * connection is held across the remote calls. Only due, unclaimed events are
+     * read, so events waiting out a backoff never crowd out newer ones. They are
+     * claimed before sending, so with several instances each event is sent by only
+     * one of them. Once an event for a user fails, is waiting out its backoff or is
+     * claimed elsewhere, later events for that user are held back so they are never
+     * applied out of order.
+     */
+    @Scheduled(fixedDelay = DISPATCH_INTERVAL_MILLIS)
+    public int dispatchPending() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> batch = outboxEventRepository.findDispatchable(
+                OutboxStatus.PENDING, now, PageRequest.of(0, BATCH_SIZE));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime claimedUntil = now.plus(CLAIM_LEASE);
+        String token = UUID.randomUUID().toString();
+        List<Long> ids = batch.stream().map(OutboxEvent::getId).toList();
+        Map<Long, OutboxEvent> claimed = new HashMap<>();
+        if (outboxEventRepository.claim(ids, OutboxStatus.PENDING, token, now, claimedUntil) > 0) {
+            for (OutboxEvent event : outboxEventRepository.findByClaimTokenOrderByIdAsc(token)) {
+                claimed.put(event.getId(), event);
+            }
+        }
+        Set<Long> blockedUsers = new HashSet<>();
+        int sent = 0;
+
+        for (OutboxEvent candidate : batch) {
+            OutboxEvent event = claimed.get(candidate.getId());
+            if (event == null) {
+                blockedUsers.add(candidate.getUserId());
+                continue;
+            }
+            if (blockedUsers.contains(event.getUserId())) {
+                release(event);
+                continue;
+            }
+            // Past the lease another instance may already have taken the rest of the batch.
+            if (LocalDateTime.now().isAfter(claimedUntil)) {
+                break;
+            }
+            try {
+                deliver(event);
+                event.setStatus(OutboxStatus.SENT);
+                event.setLastError(null);
+                sent++;
+            } catch (RuntimeException ex) {
+                recordFailure(event, ex, now);
+                if (event.getStatus() == OutboxStatus.PENDING) {
+                    blockedUsers.add(event.getUserId());
+                }
+            }
+            release(event);
+        }
+        return sent;
+    }
+
+    @Scheduled(fixedDelay = PURGE_INTERVAL_MILLIS)
+    public void purgeSent() {
+        outboxEventRepository.deleteByStatusCreatedBefore(OutboxStatus.SENT, LocalDateTime.now().minus(SENT_RETENTION));
+    }
+
+    private void deliver(OutboxEvent event) {
+        switch (event.getEventType()) {
+            case PARTNER_AVAILABILITY -> authServiceClient.updateDeliveryPartnerAvailability(
+                    event.getUserId(), event.getAvailable(), true, event.getIdempotencyKey());
+            case TOTAL_ORDERS -> authServiceClient.updateTotalOrders(
+                    event.getUserId(), event.getIdempotencyKey());
+            // Committing a hold is idempotent on the token, so no separate key is needed.
+            case PROMO_COMMIT -> promoCodeServiceClient.commitHold(event.getReference(), event.getOrderId());
+            // Items of a delivered order no longer change, so they are read at send time.
+            case ORDER_DELIVERED -> feedbackServiceClient.recordDeliveredOrder(new DeliveredOrderDTO(
+                    event.getOrderId(), event.getUserId(), orderItemRepository.findFoodIdsByOrderId(event.getOrderId())));
+        }
+    }
+
+    private void release(OutboxEvent event) {
+        event.setClaimToken(null);
+        event.setClaimedUntil(null);
+        outboxEventRepository.save(event);
+    }
+
+    private void recordFailure(OutboxEvent event, RuntimeException ex, LocalDateTime now) {
+        event.setAttempts(event.getAttempts() + 1);
+        String message = String.valueOf(ex.getMessage());
+        event.setLastError(message.length() > 500 ? message.substring(0, 500) : message);
+
+        if (isPermanent(ex) || event.getAttempts() >= MAX_ATTEMPTS) {
+            event.setStatus(OutboxStatus.FAILED);
+            System.err.println("Outbox event " + event.getId() + " (" + event.getEventType() + " for user "
+                    + event.getUserId() + ") failed after " + event.getAttempts() + " attempts: " + message);
+            return;
+        }
+        long backoffSeconds = Math.min(1L << Math.min(event.getAttempts(), 20), MAX_BACKOFF.getSeconds());
+        event.setNextAttemptAt(now.plusSeconds(backoffSeconds));
+    }
+
+    // 4xx answers will not change on retry, except timeouts, throttling and conflicts
+    // (409 is an optimistic-lock clash with a concurrent write to the same user).
+    private boolean isPermanent(RuntimeException ex) {
+        if (!(ex instanceof FeignException feignException)) {
+            return false;
+        }
+        int status = feignException.status();
+        return status >= 400 && status < 500 && status != 408 && status != 409 && status != 429;
+    }
+
+    private OutboxEvent newEvent(OutboxEventType type, int orderId, long userId) {
+        OutboxEvent event = new OutboxEvent();
+        event.setIdempotencyKey(UUID.randomUUID().toString());
+        event.setEventType(type);
+        event.setOrderId(orderId);
+        event.setUserId(userId);
+        event.setStatus(OutboxStatus.PENDING);
+        event.setAttempts(0);
+        event.setNextAttemptAt(LocalDateTime.now());
+        return event;
+    }
+}
@@ -1,6 +1,8 @@
 package com.cts.service.impl;
 
 import com.cts.client.AuthServiceClient;
+import com.cts.client.CoalescingUserClient;
+import com.cts.cache.UserIdentityCache;
 import com.cts.dto.response.UserResponseDTO;
 import com.cts.model.User;
 import com.cts.service.UserService;
@@ -11,32 +13,71 @@ import com.cts.model.DeliveryPartner;
 import com.cts.model.Admin;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import java.net.URLEncoder;
-import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @AllArgsConstructor
 public class UserServiceImpl implements UserService {
     
     private AuthServiceClient authServiceClient;
+    private CoalescingUserClient coalescingUserClient;
+    private UserIdentityCache userIdentityCache;
     
 	public User getUserById(Long id) {
-            ResponseEntity<UserResponseDTO> response = authServiceClient.getUserById(id);
-            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                return convertToUserModel(response.getBody());
+            User cached = userIdentityCache.getById(id);
+            if (cached != null) {
+                return cached;
+            }
+            long generation = userIdentityCache.currentGeneration();
+            UserResponseDTO dto = coalescingUserClient.getUserById(id);
+            if (dto != null) {
+                User user = convertToUserModel(dto);
+                userIdentityCache.put(user, generation);
+                return user;
             }
             return null;
     }
+
+    public Map<Long, User> getUsersByIds(Collection<Long> ids) {
+            Map<Long, User> users = new HashMap<>();
+            Set<Long> missing = new LinkedHashSet<>();
+            for (Long id : ids) {
+                User cached = userIdentityCache.getById(id);
+                if (cached != null) {
+                    users.put(id, cached);
+                } else {
+                    missing.add(id);
+                }
+            }
+            if (!missing.isEmpty()) {
+                long generation = userIdentityCache.currentGeneration();
+                coalescingUserClient.getUsersByIds(missing).forEach((id, dto) -> {
+                    User user = convertToUserModel(dto);
+                    userIdentityCache.put(user, generation);
+                    users.put(id, user);
+                });
+            }
+            return users;
+    }
     
   
     public User getUserByEmail(String email) {
-            String encodedEmail = URLEncoder.encode(email, StandardCharsets.UTF_8);
-            System.out.println("Encoded email: " + encodedEmail);
+            User cached = userIdentityCache.getByEmail(email);
+            if (cached != null) {
+                return cached;
+            }
+            long generation = userIdentityCache.currentGeneration();
             ResponseEntity<UserResponseDTO> response = authServiceClient.getUserByEmail(email);
         	
             if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                return convertToUserModel(response.getBody());
+                User user = convertToUserModel(response.getBody());
+                userIdentityCache.put(user, generation);
+                return user;
             }
         return null;
     }
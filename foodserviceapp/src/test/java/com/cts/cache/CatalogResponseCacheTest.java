@@ -0,0 +1,84 @@
+package com.cts.cache;
+
+import com.cts.dto.response.FoodResponseDTO;
+import com.cts.exception.FoodNotFoundException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CatalogResponseCacheTest {
+
+    @Mock
+    private MenuCatalog menuCatalog;
+
+    private CatalogResponseCache cache;
+
+    private final AtomicInteger renders = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        cache = new CatalogResponseCache(menuCatalog, new ObjectMapper());
+    }
+
+    @Test
+    @DisplayName("Positive: The same key at the same version reuses the serialized bytes and a new version re-renders")
+    void render_ReusesBytesUntilVersionChanges() {
+        when(menuCatalog.current()).thenReturn(snapshot("v1", "Burger"));
+
+        CatalogBody first = cache.render("food:all", this::countingFoods);
+        CatalogBody second = cache.render("food:all", this::countingFoods);
+
+        assertSame(first.json(), second.json());
+        assertEquals("\"v1\"", first.etag());
+        assertTrue(new String(first.json(), StandardCharsets.UTF_8).contains("\"name\":\"Burger\""));
+        assertEquals(1, renders.get());
+
+        when(menuCatalog.current()).thenReturn(snapshot("v2", "Pizza"));
+        CatalogBody third = cache.render("food:all", this::countingFoods);
+
+        assertEquals("v2", third.version());
+        assertTrue(new String(third.json(), StandardCharsets.UTF_8).contains("\"name\":\"Pizza\""));
+        assertEquals(2, renders.get());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    @DisplayName("Negative: A body that fails to render is not cached and the error reaches the caller")
+    void render_FailureNotCached() {
+        when(menuCatalog.current()).thenReturn(snapshot("v1", "Burger"));
+
+        assertThrows(FoodNotFoundException.class, () -> cache.render("food:active:9", snapshot -> {
+            throw new FoodNotFoundException("No Active Food Found");
+        }));
+
+        assertEquals(0, cache.size());
+    }
+
+    private List<FoodResponseDTO> countingFoods(MenuSnapshot snapshot) {
+        renders.incrementAndGet();
+        return snapshot.foods();
+    }
+
+    private static MenuSnapshot snapshot(String version, String foodName) {
+        FoodResponseDTO food = new FoodResponseDTO();
+        food.setId(1);
+        food.setName(foodName);
+        food.setStatus(true);
+        return new MenuSnapshot(version, List.of(food), List.of(food), List.of(), Map.of(1, food), Map.of(),
+                Map.of(), List.of(), Map.of(), Map.of());
+    }
+}
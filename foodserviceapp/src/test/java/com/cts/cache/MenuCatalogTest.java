@@ -0,0 +1,113 @@
+package com.cts.cache;
+
+import com.cts.dto.response.CategoryResponseDTO;
+import com.cts.dto.response.FoodResponseDTO;
+import com.cts.entity.Category;
+import com.cts.entity.Food;
+import com.cts.repository.CategoryRepository;
+import com.cts.repository.FoodRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.modelmapper.ModelMapper;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class MenuCatalogTest {
+
+    @Mock
+    private FoodRepository foodRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    private final AtomicLong now = new AtomicLong();
+
+    private MenuCatalog catalog;
+
+    private Category category;
+    private Food burger;
+    private Food pizza;
+
+    @BeforeEach
+    void setUp() {
+        catalog = new MenuCatalog(foodRepository, categoryRepository, new ModelMapper(), Duration.ofSeconds(30), now::get);
+
+        category = new Category(1, "Fast Food", "fast.jpg");
+        burger = new Food(1, "Burger", "burger.jpg", 199.0, "Veg burger", true, 4.0f, category, null);
+        pizza = new Food(2, "Pizza", "pizza.jpg", 299.0, "Cheese pizza", false, 3.0f, category, null);
+    }
+
+    @Test
+    @DisplayName("Positive: Repeated browse reads are served from one snapshot without touching the database")
+    void current_ServesFromMemory() {
+        when(foodRepository.findAll()).thenReturn(List.of(pizza, burger));
+        when(categoryRepository.findAll()).thenReturn(List.of(category));
+
+        for (int i = 0; i < 100; i++) {
+            MenuSnapshot snapshot = catalog.current();
+            assertEquals(2, snapshot.foods().size());
+            assertEquals(List.of(burger.getId()), snapshot.activeFoods().stream().map(FoodResponseDTO::getId).toList());
+            assertEquals("Pizza", snapshot.foodByName("pizza").getName());
+            assertEquals(2, snapshot.foodsInCategory("FAST FOOD").size());
+            CategoryResponseDTO cached = snapshot.categoryByName("fast food");
+            assertEquals(1, cached.getId());
+        }
+
+        verify(foodRepository, times(1)).findAll();
+        verify(categoryRepository, times(1)).findAll();
+    }
+
+    @Test
+    @DisplayName("Negative: A snapshot is not reused after invalidation and its version follows the content")
+    void invalidate_RebuildsWithNewVersion() {
+        when(foodRepository.findAll()).thenReturn(List.of(burger, pizza));
+        when(categoryRepository.findAll()).thenReturn(List.of(category));
+
+        String before = catalog.version();
+        pizza.setStatus(true);
+        catalog.invalidate();
+        MenuSnapshot after = catalog.current();
+
+        assertNotEquals(before, after.version());
+        assertEquals(2, after.activeFoods().size());
+        verify(foodRepository, times(2)).findAll();
+
+        catalog.invalidate();
+        assertEquals(after.version(), catalog.version());
+    }
+
+    @Test
+    @DisplayName("Positive: A rating push only rebuilds the snapshot when the served whole-star rating changes")
+    void ratingsUpdated_KeepsVersionUnlessServedRatingChanges() {
+        when(foodRepository.findAll()).thenReturn(List.of(burger, pizza));
+        when(categoryRepository.findAll()).thenReturn(List.of(category));
+
+        String before = catalog.version();
+        burger.setAvgRating(4.6f);
+        catalog.ratingsUpdatedAfterCommit(Map.of(1, 4.6f));
+        assertEquals(before, catalog.version());
+        verify(foodRepository, times(1)).findAll();
+
+        burger.setAvgRating(3.2f);
+        catalog.ratingsUpdatedAfterCommit(Map.of(1, 3.2f));
+        MenuSnapshot after = catalog.current();
+
+        assertNotEquals(before, after.version());
+        assertEquals(3, after.food(1).getAvgRating());
+        verify(foodRepository, times(2)).findAll();
+    }
+}
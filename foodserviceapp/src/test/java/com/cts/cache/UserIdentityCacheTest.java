@@ -0,0 +1,58 @@
+package com.cts.cache;
+
+import com.cts.model.User;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserIdentityCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private UserIdentityCache cache;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        cache = new UserIdentityCache(2, Duration.ofSeconds(60), now::get);
+
+        user = new User(1L, "john@example.com", "John Doe", "customer");
+    }
+
+    @Test
+    @DisplayName("Positive: Cached user is found by id and by email until it expires")
+    void getUser_HitThenExpire() {
+        cache.put(user, cache.currentGeneration());
+
+        assertSame(user, cache.getById(1L));
+        assertSame(user, cache.getByEmail("john@example.com"));
+        assertEquals(2, cache.getHits());
+
+        now.addAndGet(Duration.ofSeconds(61).toNanos());
+
+        assertNull(cache.getByEmail("john@example.com"));
+        assertEquals(1, cache.getEvictions());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("Negative: Invalidated user is dropped and a racing fetch is not cached")
+    void invalidate_RemovesUser() {
+        long generation = cache.currentGeneration();
+        cache.put(user, generation);
+
+        cache.invalidate(1L);
+        cache.put(user, generation);
+
+        assertNull(cache.getById(1L));
+        assertNull(cache.getByEmail("john@example.com"));
+        assertEquals(2, cache.getMisses());
+    }
+}
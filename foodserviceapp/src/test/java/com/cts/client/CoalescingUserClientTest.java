@@ -0,0 +1,108 @@
+package com.cts.client;
+
+import com.cts.dto.response.UserResponseDTO;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CoalescingUserClientTest {
+
+    @Mock
+    private AuthServiceClient authServiceClient;
+
+    private CoalescingUserClient coalescingUserClient;
+
+    @BeforeEach
+    void setUp() {
+        coalescingUserClient = new CoalescingUserClient(authServiceClient, 200);
+    }
+
+    @Test
+    @DisplayName("Positive: Concurrent lookups are sent as one batch request")
+    void getUserById_CoalescesConcurrentCalls() throws Exception {
+        when(authServiceClient.getUsersByIds(anyList())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            List<UserResponseDTO> users = new ArrayList<>();
+            for (Long id : ids) {
+                UserResponseDTO dto = new UserResponseDTO();
+                dto.setId(id);
+                dto.setName("User " + id);
+                users.add(dto);
+            }
+            return ResponseEntity.ok(users);
+        });
+
+        int callers = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<UserResponseDTO>> results = new ArrayList<>();
+        for (long id = 1; id <= callers; id++) {
+            long userId = id;
+            results.add(executor.submit(() -> {
+                start.await();
+                return coalescingUserClient.getUserById(userId);
+            }));
+        }
+        start.countDown();
+
+        for (int i = 0; i < callers; i++) {
+            assertEquals("User " + (i + 1), results.get(i).get().getName());
+        }
+        executor.shutdown();
+        verify(authServiceClient, times(1)).getUsersByIds(anyList());
+    }
+
+    @Test
+    @DisplayName("Negative: Unknown user id resolves to null")
+    void getUserById_NotFound() {
+        when(authServiceClient.getUsersByIds(anyList())).thenReturn(ResponseEntity.ok(List.of()));
+
+        assertNull(coalescingUserClient.getUserById(999L));
+    }
+
+    @Test
+    @DisplayName("Positive: A large id list is split into requests no bigger than the batch size")
+    void getUsersByIds_SplitsLargeLists() {
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= 250; id++) {
+            ids.add(id);
+        }
+        List<Integer> requestSizes = new ArrayList<>();
+        when(authServiceClient.getUsersByIds(anyList())).thenAnswer(invocation -> {
+            List<Long> requested = invocation.getArgument(0);
+            requestSizes.add(requested.size());
+            List<UserResponseDTO> users = new ArrayList<>();
+            for (Long id : requested) {
+                UserResponseDTO user = new UserResponseDTO();
+                user.setId(id);
+                users.add(user);
+            }
+            return ResponseEntity.ok(users);
+        });
+
+        Map<Long, UserResponseDTO> users = coalescingUserClient.getUsersByIds(ids);
+
+        assertEquals(250, users.size());
+        assertEquals(List.of(100, 100, 50), requestSizes);
+    }
+}
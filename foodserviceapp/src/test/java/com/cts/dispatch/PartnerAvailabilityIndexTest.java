@@ -0,0 +1,75 @@
+package com.cts.dispatch;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PartnerAvailabilityIndexTest {
+
+    @Test
+    @DisplayName("Positive: Concurrent allocations never hand out the same partner twice")
+    void allocate_ConcurrentCallersGetDistinctPartners() throws Exception {
+        PartnerAvailabilityIndex index = new PartnerAvailabilityIndex(new LeastLoadedDispatchPolicy(), 60_000, () -> 0L);
+        List<PartnerCandidate> partners = new ArrayList<>();
+        for (long id = 1; id <= 50; id++) {
+            partners.add(new PartnerCandidate(id, "Pune", (int) (id % 7), 0));
+        }
+        index.sync(partners);
+
+        int callers = 64;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        CountDownLatch start = new CountDownLatch(1);
+        Set<Long> allocated = ConcurrentHashMap.newKeySet();
+        List<Future<OptionalLong>> results = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                OptionalLong partnerId = index.allocate("Pune");
+                partnerId.ifPresent(allocated::add);
+                return partnerId;
+            }));
+        }
+        start.countDown();
+        int empty = 0;
+        for (Future<OptionalLong> result : results) {
+            if (result.get().isEmpty()) {
+                empty++;
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(50, allocated.size());
+        assertEquals(14, empty);
+        assertEquals(0, index.availableCount());
+        assertEquals(50, index.allocatedCount());
+    }
+
+    @Test
+    @DisplayName("Negative: Location policy falls back to the least-loaded partner when no one is free in the city")
+    void allocate_LocationFallback() {
+        PartnerAvailabilityIndex index = new PartnerAvailabilityIndex(new LocationMatchDispatchPolicy(), 60_000, () -> 0L);
+        index.sync(List.of(
+                new PartnerCandidate(1L, "Chennai", 9, 0),
+                new PartnerCandidate(2L, " pune ", 12, 0),
+                new PartnerCandidate(3L, "Mumbai", 4, 0)));
+
+        assertEquals(2L, index.allocate("Pune").getAsLong());
+        assertEquals(3L, index.allocate("Pune").getAsLong());
+
+        index.release(2L);
+        assertEquals(2L, index.allocate("PUNE").getAsLong());
+        assertEquals(1L, index.allocate("Pune").getAsLong());
+        assertTrue(index.allocate("Pune").isEmpty());
+    }
+}
@@ -0,0 +1,158 @@
+package com.cts.repository;
+
+import com.cts.dto.response.CartResponseDTO;
+import com.cts.dto.response.CartSummaryResponseDTO;
+import com.cts.entity.Cart;
+import com.cts.entity.Category;
+import com.cts.entity.Food;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the cart projection, aggregate and upsert statements on MySQL, since the upsert is
+ * MySQL-only SQL. Tests roll back, except the concurrency test, which has to commit and
+ * cleans up after itself.
+ */
+public class CartRepositoryTest extends MySqlRepositoryTest {
+
+    private static final long USER_ID = -4242L;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private FoodRepository foodRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("Positive: Cart lines are projected with line totals, in id order, with or without a category")
+    void findCartLines_ProjectsLines() {
+        Category category = categoryRepository.save(new Category(0, "Cart test " + System.nanoTime(), "category.jpg"));
+        Food pizza = food("Pizza", 299.99, category);
+        Food water = food("Water", 20.0, null);
+        Cart first = cartRepository.save(new Cart(null, USER_ID, pizza, 2, null));
+        Cart second = cartRepository.save(new Cart(null, USER_ID, water, 3, null));
+
+        List<CartResponseDTO> lines = cartRepository.findCartLines(USER_ID);
+
+        assertEquals(2, lines.size());
+        CartResponseDTO pizzaLine = lines.get(0);
+        assertEquals(first.getId(), pizzaLine.getId());
+        assertEquals(pizza.getId(), pizzaLine.getFoodId());
+        assertEquals("Pizza", pizzaLine.getFoodName());
+        assertEquals(category.getName(), pizzaLine.getCategoryName());
+        assertEquals(2, pizzaLine.getQuantity());
+        assertEquals(599.98, pizzaLine.getTotalPrice(), 0.001);
+        assertNotNull(pizzaLine.getCreatedAt());
+        CartResponseDTO waterLine = lines.get(1);
+        assertEquals(second.getId(), waterLine.getId());
+        assertNull(waterLine.getCategoryName());
+        assertEquals(60.0, waterLine.getTotalPrice(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Positive: A single line is projected for the user and food, and missing lines come back empty")
+    void findCartLine_ProjectsOneLine() {
+        Food pizza = food("Pizza", 299.99, null);
+        Food water = food("Water", 20.0, null);
+        Cart line = cartRepository.save(new Cart(null, USER_ID, pizza, 2, null));
+
+        CartResponseDTO projected = cartRepository.findCartLine(USER_ID, pizza.getId()).orElseThrow();
+
+        assertEquals(line.getId(), projected.getId());
+        assertEquals(599.98, projected.getTotalPrice(), 0.001);
+        assertTrue(cartRepository.findCartLine(USER_ID, water.getId()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Positive: The summary adds up amount, quantity and line count in one aggregate")
+    void summarize_AddsUpLines() {
+        cartRepository.save(new Cart(null, USER_ID, food("Pizza", 299.99, null), 2, null));
+        cartRepository.save(new Cart(null, USER_ID, food("Water", 20.0, null), 3, null));
+
+        CartSummaryResponseDTO summary = cartRepository.summarize(USER_ID);
+
+        assertEquals(659.98, summary.getTotalAmount(), 0.001);
+        assertEquals(5, summary.getTotalItems());
+        assertEquals(2, summary.getItemCount());
+    }
+
+    @Test
+    @DisplayName("Negative: An empty cart summarizes to zeros instead of nulls")
+    void summarize_EmptyCart() {
+        CartSummaryResponseDTO summary = cartRepository.summarize(USER_ID);
+
+        assertEquals(0.0, summary.getTotalAmount());
+        assertEquals(0, summary.getTotalItems());
+        assertEquals(0, summary.getItemCount());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Positive: 64 threads upserting the same food leave one cart row holding the full quantity")
+    void upsertQuantity_ConcurrentAddsAccumulateOnOneRow() throws Exception {
+        int threads = 64;
+        int addsPerThread = 25;
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Food food = food("Pizza", 299.99, null);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < addsPerThread; i++) {
+                        transaction.executeWithoutResult(status ->
+                                cartRepository.upsertQuantity(USER_ID, food.getId(), 1, LocalDateTime.now()));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+
+            List<Cart> rows = cartRepository.findByUserId(USER_ID);
+            assertEquals(1, rows.size());
+            assertEquals(threads * addsPerThread, rows.get(0).getQuantity());
+        } finally {
+            pool.shutdownNow();
+            cartRepository.deleteByUserId(USER_ID);
+            foodRepository.delete(food);
+        }
+    }
+
+    private Food food(String name, double price, Category category) {
+        Food food = new Food();
+        food.setName(name);
+        food.setPrice(price);
+        food.setDescription(name + " for the cart repository test");
+        food.setStatus(true);
+        food.setCategory(category);
+        return foodRepository.save(food);
+    }
+}
@@ -0,0 +1,80 @@
+package com.cts.repository;
+
+import com.cts.entity.OutboxEvent;
+import com.cts.enums.OutboxEventType;
+import com.cts.enums.OutboxStatus;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the dispatcher's pick query on MySQL; every test rolls back.
+ */
+public class OutboxEventRepositoryTest extends MySqlRepositoryTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Test
+    @DisplayName("Positive: A due event is picked even with more than a page of backed-off events ahead of it")
+    void findDispatchable_SkipsBackedOffEvents() {
+        for (long userId = 1; userId <= 150; userId++) {
+            save(userId, NOW.plusMinutes(5), null);
+        }
+        OutboxEvent due = save(500L, NOW.minusSeconds(1), null);
+
+        List<OutboxEvent> batch = outboxEventRepository.findDispatchable(OutboxStatus.PENDING, NOW, PageRequest.of(0, 100));
+
+        assertEquals(List.of(due.getId()), batch.stream().map(OutboxEvent::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Negative: A user's due event waits behind that user's older backed-off or claimed event")
+    void findDispatchable_KeepsUsersInOrder() {
+        save(7L, NOW.plusMinutes(5), null);
+        save(7L, NOW.minusSeconds(1), null);
+        save(8L, NOW.minusSeconds(1), NOW.plusMinutes(1));
+        save(8L, NOW.minusSeconds(1), null);
+        OutboxEvent other = save(9L, NOW.minusSeconds(1), null);
+
+        List<OutboxEvent> batch = outboxEventRepository.findDispatchable(OutboxStatus.PENDING, NOW, PageRequest.of(0, 100));
+
+        assertEquals(List.of(other.getId()), batch.stream().map(OutboxEvent::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Positive: An event whose claim lease has run out is picked up again")
+    void findDispatchable_TakesOverExpiredClaims() {
+        OutboxEvent abandoned = save(7L, NOW.minusMinutes(10), NOW.minusMinutes(1));
+        OutboxEvent next = save(7L, NOW.minusSeconds(1), null);
+
+        List<OutboxEvent> batch = outboxEventRepository.findDispatchable(OutboxStatus.PENDING, NOW, PageRequest.of(0, 100));
+
+        assertEquals(List.of(abandoned.getId(), next.getId()), batch.stream().map(OutboxEvent::getId).toList());
+    }
+
+    private OutboxEvent save(long userId, LocalDateTime nextAttemptAt, LocalDateTime claimedUntil) {
+        OutboxEvent event = new OutboxEvent();
+        event.setIdempotencyKey(UUID.randomUUID().toString());
+        event.setEventType(OutboxEventType.TOTAL_ORDERS);
+        event.setOrderId(101);
+        event.setUserId(userId);
+        event.setStatus(OutboxStatus.PENDING);
+        event.setNextAttemptAt(nextAttemptAt);
+        if (claimedUntil != null) {
+            event.setClaimToken(UUID.randomUUID().toString());
+            event.setClaimedUntil(claimedUntil);
+        }
+        return outboxEventRepository.save(event);
+    }
+}
@@ -0,0 +1,79 @@
+package com.cts.service;
+
+import com.cts.dispatch.PartnerDispatcher;
+import com.cts.dto.response.OrderPlacementResponseDTO;
+import com.cts.entity.Order;
+import com.cts.enums.OrderStatus;
+import com.cts.model.Admin;
+import com.cts.repository.OrdersRepository;
+import com.cts.service.impl.AdminOrderServiceImpl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.modelmapper.ModelMapper;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class AdminOrderServiceTest {
+
+    @Mock
+    private OrdersRepository orderRepository;
+
+    @Mock
+    private CommonOrderService commonService;
+
+    @Mock
+    private ModelMapper mapper;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private PartnerDispatcher partnerDispatcher;
+
+    private AdminOrderService adminOrderService;
+
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        adminOrderService = new AdminOrderServiceImpl(orderRepository, commonService, mapper, outboxService, partnerDispatcher);
+
+        order = new Order();
+        order.setId(42);
+        order.setCustomer(7L);
+        order.setOrderStatus(OrderStatus.OUT);
+
+        when(commonService.getCurrentAuthenticatedUser()).thenReturn(new Admin(1L, "admin@test.com", "Admin"));
+        when(commonService.getOrderById(42)).thenReturn(order);
+        when(orderRepository.save(order)).thenReturn(order);
+        when(mapper.map(order, OrderPlacementResponseDTO.class)).thenReturn(new OrderPlacementResponseDTO());
+    }
+
+    @Test
+    @DisplayName("Positive: An admin marking an order delivered notifies the feedback service")
+    void updateOrderStatus_DeliveredEnqueuesNotification() {
+        adminOrderService.updateOrderStatus(42, OrderStatus.DELIVERED);
+
+        verify(outboxService).enqueueOrderDelivered(42, 7L);
+    }
+
+    @Test
+    @DisplayName("Negative: Other statuses, or an order already delivered, send no delivery notification")
+    void updateOrderStatus_NoNotificationOtherwise() {
+        adminOrderService.updateOrderStatus(42, OrderStatus.CANCELLED);
+        order.setOrderStatus(OrderStatus.DELIVERED);
+        adminOrderService.updateOrderStatus(42, OrderStatus.DELIVERED);
+
+        verify(outboxService, never()).enqueueOrderDelivered(anyInt(), anyLong());
+    }
+}
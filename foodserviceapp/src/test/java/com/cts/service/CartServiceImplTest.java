@@ -3,6 +3,7 @@ package com.cts.service;
 
 import com.cts.dto.request.CartRequestDTO;
 import com.cts.dto.response.CartResponseDTO;
+import com.cts.dto.response.CartSummaryResponseDTO;
 import com.cts.entity.Cart;
 import com.cts.entity.Food;
 import com.cts.exception.FoodNotFoundException;
@@ -18,11 +19,25 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.util.Collections;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -73,14 +88,15 @@ public class CartServiceImplTest {
 
         when(userService.getUserById(1L)).thenReturn(user);
         when(foodRepository.findById(101)).thenReturn(Optional.of(food));
-        when(cartRepository.findAllByUserIdAndFoodId(1L, 101)).thenReturn(Collections.emptyList());
-        when(cartRepository.save(any(Cart.class))).thenReturn(cart);
+        CartResponseDTO line = new CartResponseDTO(1L, 101, "Pizza", null, null, 299.99, 2, 599.98, LocalDateTime.now());
+        when(cartRepository.findCartLine(1L, 101)).thenReturn(Optional.of(line));
 
         CartResponseDTO result = cartService.addToCart(1L, cartRequestDTO);
 
-        assertNotNull(result);
-        assertEquals(101, result.getFoodId());
-        assertEquals("Pizza", result.getFoodName());
+        verify(cartRepository).upsertQuantity(eq(1L), eq(101), eq(2), any(LocalDateTime.class));
+        verify(cartRepository, never()).save(any(Cart.class));
+        verify(cartRepository, never()).findByUserIdAndFoodId(anyLong(), anyInt());
+        assertSame(line, result);
     }
 
     @Test
@@ -101,4 +117,77 @@ public class CartServiceImplTest {
             cartService.addToCart(1L, invalidRequest);
         });
     }
+
+    @Test
+    @DisplayName("Positive: 64 threads adding the same food leave one cart row holding the full quantity")
+    void addToCart_ConcurrentAddsAccumulateOnOneRow() throws Exception {
+        int threads = 64;
+        int addsPerThread = 25;
+        com.cts.model.User user = new com.cts.model.User();
+        user.setId(1L);
+        food.setStatus(true);
+
+        // Stands in for the cart table: one row per (user_id, food_id), incremented atomically on conflict.
+        // This only checks that the service leans on the upsert; CartRepositoryTest runs the real statement on MySQL.
+        ConcurrentMap<String, Cart> rows = new ConcurrentHashMap<>();
+        when(userService.getUserById(1L)).thenReturn(user);
+        when(foodRepository.findById(101)).thenReturn(Optional.of(food));
+        when(cartRepository.upsertQuantity(anyLong(), anyInt(), anyInt(), any(LocalDateTime.class))).thenAnswer(invocation -> {
+            Long userId = invocation.getArgument(0);
+            int quantity = invocation.getArgument(2);
+            Cart inserted = new Cart(1L, userId, food, quantity, invocation.getArgument(3));
+            rows.merge(userId + ":" + invocation.getArgument(1), inserted, (existing, ignored) -> {
+                existing.setQuantity(existing.getQuantity() + quantity);
+                return existing;
+            });
+            return 1;
+        });
+        when(cartRepository.findCartLine(1L, 101)).thenAnswer(invocation -> rows.values().stream().findFirst()
+                .map(row -> new CartResponseDTO(row.getId(), 101, "Pizza", null, null, 299.99, row.getQuantity(),
+                        299.99 * row.getQuantity(), row.getCreatedAt())));
+
+        CartRequestDTO addOne = new CartRequestDTO();
+        addOne.setFoodId(101);
+        addOne.setQuantity(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < addsPerThread; i++) {
+                    cartService.addToCart(1L, addOne);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertEquals(1, rows.size());
+        assertEquals(threads * addsPerThread, rows.values().iterator().next().getQuantity());
+        verify(cartRepository, never()).save(any(Cart.class));
+    }
+
+    @Test
+    @DisplayName("Positive: Cart lines and summary come from one projection and one aggregate query")
+    void getCartItemsAndSummary_UseProjectionQueries() {
+        LocalDateTime addedAt = LocalDateTime.now();
+        CartResponseDTO line = new CartResponseDTO(1L, 101, "Pizza", "pizza.jpg", "Italian", 299.99, 2, 599.98, addedAt);
+        when(cartRepository.findCartLines(1L)).thenReturn(List.of(line));
+        when(cartRepository.summarize(1L)).thenReturn(new CartSummaryResponseDTO(599.98, 2, 1));
+
+        List<CartResponseDTO> items = cartService.getCartItems(1L);
+        CartSummaryResponseDTO summary = cartService.getCartSummary(1L);
+
+        assertEquals(List.of(line), items);
+        assertEquals(599.98, summary.getTotalAmount());
+        assertEquals(2, summary.getTotalItems());
+        assertEquals(1, summary.getItemCount());
+        verify(cartRepository, never()).findByUserId(any());
+    }
 }
@@ -1,6 +1,7 @@
 package com.cts.service;
 
-
+import com.cts.cache.CatalogResponseCache;
+import com.cts.cache.MenuCatalog;
 import com.cts.dto.request.CategoryRequestDTO;
 import com.cts.dto.response.CategoryResponseDTO;
 import com.cts.entity.Category;
@@ -29,6 +30,12 @@ public class CategoryServiceImplTest {
     @Mock
     private ModelMapper mapper;
 
+    @Mock
+    private MenuCatalog menuCatalog;
+
+    @Mock
+    private CatalogResponseCache responseCache;
+
     private CategoryServiceImpl categoryService;
 
     private Category category;
@@ -37,7 +44,7 @@ public class CategoryServiceImplTest {
 
     @BeforeEach
     void setUp() {
-        categoryService = new CategoryServiceImpl(categoryRepo, mapper);
+        categoryService = new CategoryServiceImpl(categoryRepo, mapper, menuCatalog, responseCache);
 
         categoryRequestDTO = new CategoryRequestDTO();
         categoryRequestDTO.setName("Italian");
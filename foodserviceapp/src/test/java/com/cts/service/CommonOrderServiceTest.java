@@ -1,12 +1,21 @@
 package com.cts.service;
 
+import com.cts.dto.feedback.DeliveredOrderDTO;
+import com.cts.dto.response.OrderPageResponseDTO;
+import com.cts.dto.response.OrderResponseDTO;
+import com.cts.entity.Food;
 import com.cts.entity.Order;
+import com.cts.entity.OrderAddress;
+import com.cts.entity.OrderItem;
+import com.cts.enums.OrderStatus;
+import com.cts.model.Customer;
 import com.cts.model.User;
 import com.cts.repository.OrderAddressRepository;
 import com.cts.repository.OrderItemRepository;
 import com.cts.repository.OrdersRepository;
 import com.cts.service.impl.CommonOrderServiceImpl;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -14,10 +23,27 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.modelmapper.ModelMapper;
-
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -61,6 +87,11 @@ public class CommonOrderServiceTest {
         order.setCustomer(1L);
     }
 
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
     @Test
     @DisplayName("Positive: Get order by ID successfully")
     void getOrderById_Success() {
@@ -81,4 +112,123 @@ public class CommonOrderServiceTest {
             commonOrderService.getOrderById(999);
         });
     }
+
+    @Test
+    @DisplayName("Positive: Order assembly issues a constant number of lookups as order count grows")
+    void mapToOrderResponseDtos_ConstantLookups() {
+        for (int orderCount : new int[] {1, 10, 1000}) {
+            List<Order> orders = new ArrayList<>();
+            List<OrderAddress> addresses = new ArrayList<>();
+            List<OrderItem> items = new ArrayList<>();
+            Map<Long, User> users = new HashMap<>();
+            for (int i = 1; i <= orderCount; i++) {
+                Order o = new Order();
+                o.setId(i);
+                o.setTotalQty(1);
+                o.setTotalPrice(100.0);
+                o.setCustomer(i);
+                o.setDeliveryPartner(100000L + i);
+                orders.add(o);
+
+                OrderAddress address = new OrderAddress();
+                address.setOrder(o);
+                addresses.add(address);
+
+                Food food = new Food();
+                food.setId(i);
+                food.setName("Food " + i);
+                items.add(new OrderItem(i, o, food, 1, 100.0));
+
+                users.put((long) i, new User((long) i, "c" + i + "@test.com", "Customer " + i, "customer"));
+            }
+
+            when(userService.getUsersByIds(any())).thenReturn(users);
+            when(orderAddressRepository.findByOrderIn(anyList())).thenReturn(addresses);
+            when(orderItemRepository.findByOrderInWithFood(anyList())).thenReturn(items);
+
+            List<OrderResponseDTO> result = commonOrderService.mapToOrderResponseDtos(orders);
+
+            assertEquals(orderCount, result.size());
+            assertEquals("Customer " + orderCount, result.get(orderCount - 1).getCustomerName());
+            assertEquals(1, result.get(0).getOrderItems().size());
+            verify(userService, times(1)).getUsersByIds(any());
+            verify(userService, never()).getUserById(anyLong());
+            verify(orderAddressRepository, times(1)).findByOrderIn(anyList());
+            verify(orderAddressRepository, never()).findByOrder(any());
+            verify(orderItemRepository, times(1)).findByOrderInWithFood(anyList());
+            verify(orderItemRepository, never()).findByOrder(any());
+            clearInvocations(userService, orderAddressRepository, orderItemRepository);
+        }
+    }
+
+    @Test
+    @DisplayName("Positive: Customer order page is a keyset range with a cursor for the next page")
+    void getOrdersPageForCurrentUser_ReturnsNextCursor() {
+        Customer customer = new Customer(7L, "cust@test.com", "Cust");
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("cust@test.com", null, List.of()));
+        when(userService.getUserByEmail("cust@test.com")).thenReturn(customer);
+
+        List<Order> rows = new ArrayList<>();
+        for (int id = 40; id > 37; id--) {
+            Order o = new Order();
+            o.setId(id);
+            o.setTotalQty(1);
+            o.setTotalPrice(100.0);
+            o.setCustomer(7L);
+            rows.add(o);
+        }
+        when(orderRepository.findPageByCustomer(eq(7L), eq(41), isNull(), isNull(), isNull(), eq(PageRequest.of(0, 3))))
+                .thenReturn(rows);
+        when(userService.getUsersByIds(any())).thenReturn(Map.of(7L, customer));
+
+        OrderPageResponseDTO page = commonOrderService.getOrdersPageForCurrentUser(41, 2, null, null, null);
+
+        assertEquals(2, page.getOrders().size());
+        assertEquals(40, page.getOrders().get(0).getId());
+        assertEquals(39, page.getNextAfterId());
+        verify(orderRepository, never()).findByCustomerOrderByIdDesc(anyLong());
+    }
+
+    @Test
+    @DisplayName("Negative: Last order page has no next cursor")
+    void getOrdersPageForCurrentUser_LastPage() {
+        Customer customer = new Customer(7L, "cust@test.com", "Cust");
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("cust@test.com", null, List.of()));
+        when(userService.getUserByEmail("cust@test.com")).thenReturn(customer);
+        when(orderRepository.findPageByCustomer(eq(7L), eq(Integer.MAX_VALUE), isNull(), isNull(), isNull(), any()))
+                .thenReturn(new ArrayList<>());
+
+        OrderPageResponseDTO page = commonOrderService.getOrdersPageForCurrentUser(null, null, null, null, null);
+
+        assertTrue(page.getOrders().isEmpty());
+        assertNull(page.getNextAfterId());
+    }
+
+    @Test
+    @DisplayName("Positive: A page of delivered orders is built from one order query and one item query")
+    void getDeliveredOrders_BatchesItemLookup() {
+        when(orderRepository.findIdsAndCustomersByStatus(OrderStatus.DELIVERED, 40, PageRequest.of(0, 2)))
+                .thenReturn(List.of(new Object[] {41, 7L}, new Object[] {44, 8L}));
+        when(orderItemRepository.findFoodIdsByOrderIds(any()))
+                .thenReturn(List.of(new Object[] {41, 101}, new Object[] {41, 102}, new Object[] {44, 101}));
+
+        List<DeliveredOrderDTO> delivered = commonOrderService.getDeliveredOrders(40, 2);
+
+        assertEquals(List.of(new DeliveredOrderDTO(41, 7L, List.of(101, 102)), new DeliveredOrderDTO(44, 8L, List.of(101))),
+                delivered);
+        verify(orderItemRepository, times(1)).findFoodIdsByOrderIds(any());
+        verify(orderItemRepository, never()).findFoodIdsByOrderId(anyInt());
+    }
+
+    @Test
+    @DisplayName("Negative: Past the last delivered order the page is empty and no items are read")
+    void getDeliveredOrders_PastTheEnd() {
+        when(orderRepository.findIdsAndCustomersByStatus(eq(OrderStatus.DELIVERED), eq(0), any()))
+                .thenReturn(new ArrayList<>());
+
+        assertTrue(commonOrderService.getDeliveredOrders(null, null).isEmpty());
+        verify(orderItemRepository, never()).findFoodIdsByOrderIds(any());
+    }
 }
@@ -1,13 +1,20 @@
 package com.cts.service;
 
-import com.cts.client.AuthServiceClient;
 import com.cts.client.PromoCodeServiceClient;
+import com.cts.dispatch.PartnerDispatcher;
+import com.cts.dto.promo.PromoCodeValidationRequestDTO;
+import com.cts.dto.promo.PromoCodeValidationResponseDTO;
+import com.cts.dto.request.OrderAddressDTO;
+import com.cts.dto.request.OrderItemDTO;
+import com.cts.dto.request.OrderPlacementRequestDTO;
+import com.cts.dto.response.OrderPlacementResponseDTO;
+import com.cts.entity.Food;
 import com.cts.entity.Order;
 import com.cts.enums.OrderStatus;
+import com.cts.exception.FoodNotInStockException;
 import com.cts.model.Customer;
 import com.cts.repository.FoodRepository;
 import com.cts.repository.OrderAddressRepository;
-import com.cts.repository.OrderItemRepository;
 import com.cts.repository.OrdersRepository;
 import com.cts.service.impl.CustomerOrderServiceImpl;
 
@@ -15,12 +22,26 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.modelmapper.ModelMapper;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,9 +53,6 @@ public class CustomerOrderServiceTest {
     @Mock
     private FoodRepository foodRepository;
 
-    @Mock
-    private OrderItemRepository orderItemRepository;
-
     @Mock
     private OrderAddressRepository orderAddressRepository;
 
@@ -51,10 +69,13 @@ public class CustomerOrderServiceTest {
     private PromoCodeServiceClient promoCodeServiceClient;
 
     @Mock
-    private AuthServiceClient authServiceClient;
+    private ObjectMapper objectMapper;
 
     @Mock
-    private ObjectMapper objectMapper;
+    private OutboxService outboxService;
+
+    @Mock
+    private PartnerDispatcher partnerDispatcher;
 
     private CustomerOrderService customerOrderService;
 
@@ -66,14 +87,14 @@ public class CustomerOrderServiceTest {
         customerOrderService = new CustomerOrderServiceImpl(
                 orderRepository,
                 foodRepository,
-                orderItemRepository,
                 orderAddressRepository,
                 commonService,
                 mapper,
                 adminOrderService,
                 promoCodeServiceClient,
-                authServiceClient,
-                objectMapper);
+                objectMapper,
+                outboxService,
+                partnerDispatcher);
 
         customer = new Customer();
         customer.setId(1L);
@@ -108,4 +129,114 @@ public class CustomerOrderServiceTest {
             customerOrderService.getMyOrder(999);
         });
     }
+
+    @Test
+    @DisplayName("Positive: Placing an order issues a constant number of food lookups and order writes")
+    void placeOrder_ConstantRoundTrips() {
+        when(commonService.getCurrentAuthenticatedUser()).thenReturn(customer);
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(partnerDispatcher.allocate("Pune")).thenReturn(OptionalLong.of(50L));
+        when(mapper.map(any(Order.class), eq(OrderPlacementResponseDTO.class))).thenReturn(new OrderPlacementResponseDTO());
+
+        for (int itemCount : new int[] {1, 10, 50}) {
+            List<Food> foods = new ArrayList<>();
+            List<OrderItemDTO> items = new ArrayList<>();
+            for (int i = 1; i <= itemCount; i++) {
+                Food food = new Food();
+                food.setId(i);
+                food.setName("Food " + i);
+                food.setPrice(10.0);
+                food.setStatus(true);
+                foods.add(food);
+
+                OrderItemDTO item = new OrderItemDTO();
+                item.setFoodId(i);
+                item.setQuantity(2);
+                items.add(item);
+            }
+            when(foodRepository.findAllById(anyIterable())).thenReturn(foods);
+
+            customerOrderService.placeOrder(placementRequest(items));
+
+            verify(foodRepository, times(1)).findAllById(anyIterable());
+            verify(foodRepository, never()).findById(anyInt());
+            verify(orderRepository, times(1)).save(any(Order.class));
+            verify(orderAddressRepository, times(1)).save(any());
+            clearInvocations(foodRepository, orderRepository, orderAddressRepository);
+        }
+    }
+
+    @Test
+    @DisplayName("Negative: Out of stock item rejects the order before anything is written")
+    void placeOrder_OutOfStock() {
+        Food food = new Food();
+        food.setId(1);
+        food.setName("Paneer Tikka");
+        food.setStatus(false);
+        when(foodRepository.findAllById(anyIterable())).thenReturn(List.of(food));
+
+        OrderItemDTO item = new OrderItemDTO();
+        item.setFoodId(1);
+        item.setQuantity(1);
+
+        assertThrows(FoodNotInStockException.class, () -> customerOrderService.placeOrder(placementRequest(List.of(item))));
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    @DisplayName("Positive: A promo is held once at checkout and its commit is queued, with no second validation")
+    void placeOrder_PromoHeldAndCommitQueued() {
+        Food food = new Food();
+        food.setId(1);
+        food.setName("Paneer Tikka");
+        food.setPrice(200.0);
+        food.setStatus(true);
+        OrderItemDTO item = new OrderItemDTO();
+        item.setFoodId(1);
+        item.setQuantity(1);
+
+        PromoCodeValidationResponseDTO hold = new PromoCodeValidationResponseDTO();
+        hold.setCode("SAVE20");
+        hold.setDiscountAmount(BigDecimal.valueOf(40));
+        hold.setFinalAmount(BigDecimal.valueOf(160));
+        hold.setHoldToken("hold-1");
+
+        when(foodRepository.findAllById(anyIterable())).thenReturn(List.of(food));
+        when(commonService.getCurrentAuthenticatedUser()).thenReturn(customer);
+        when(promoCodeServiceClient.holdPromo(any(PromoCodeValidationRequestDTO.class))).thenReturn(hold);
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
+            Order saved = invocation.getArgument(0);
+            saved.setId(101);
+            return saved;
+        });
+        when(partnerDispatcher.allocate("Pune")).thenReturn(OptionalLong.of(50L));
+
+        OrderPlacementRequestDTO request = placementRequest(List.of(item));
+        request.setPromoCode("save20");
+        customerOrderService.placeOrder(request);
+
+        ArgumentCaptor<Order> saved = ArgumentCaptor.forClass(Order.class);
+        verify(orderRepository).save(saved.capture());
+        assertEquals(190.0, saved.getValue().getTotalPrice());
+        assertEquals("SAVE20", saved.getValue().getPromoCode());
+        verify(outboxService).enqueuePromoCommit(101, 1L, "hold-1");
+        verify(promoCodeServiceClient, never()).validatePromo(any());
+        verify(promoCodeServiceClient, never()).redeemPromo(any());
+    }
+
+    private OrderPlacementRequestDTO placementRequest(List<OrderItemDTO> items) {
+        OrderAddressDTO address = new OrderAddressDTO();
+        address.setFirstName("Asha");
+        address.setLastName("Rao");
+        address.setStreet("MG Road");
+        address.setCity("Pune");
+        address.setState("MH");
+        address.setPin("411001");
+        address.setPhoneNo("9876543210");
+
+        OrderPlacementRequestDTO request = new OrderPlacementRequestDTO();
+        request.setAddress(address);
+        request.setItems(items);
+        return request;
+    }
 }
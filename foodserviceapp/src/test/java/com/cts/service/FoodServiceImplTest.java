@@ -1,14 +1,18 @@
 package com.cts.service;
 
-
+import com.cts.cache.CatalogResponseCache;
+import com.cts.cache.MenuCatalog;
+import com.cts.dto.request.FoodRatingUpdateDTO;
 import com.cts.dto.request.FoodRequestDTO;
 import com.cts.dto.response.FoodResponseDTO;
+import com.cts.dto.response.FoodStockResponseDTO;
 import com.cts.entity.Category;
 import com.cts.entity.Food;
 import com.cts.exception.FoodNotFoundException;
 import com.cts.repository.CategoryRepository;
 import com.cts.repository.FoodRepository;
 import com.cts.service.impl.FoodServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -18,10 +22,15 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.modelmapper.ModelMapper;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -45,7 +54,9 @@ public class FoodServiceImplTest {
 
     @BeforeEach
     void setUp() {
-        foodService = new FoodServiceImpl(foodRepository, categoryRepository, mapper);
+        MenuCatalog menuCatalog = new MenuCatalog(foodRepository, categoryRepository, mapper);
+        foodService = new FoodServiceImpl(foodRepository, categoryRepository, mapper, menuCatalog,
+                new CatalogResponseCache(menuCatalog, new ObjectMapper()));
 
         category = new Category();
         category.setId(1);
@@ -92,4 +103,60 @@ public class FoodServiceImplTest {
             foodService.getFoodById(999);
         });
     }
+
+    @Test
+    @DisplayName("Positive: Bulk stock lookup is answered from the catalog in request order without entity loads")
+    void getStock_ServedFromCatalog() {
+        Food pizza = new Food();
+        pizza.setId(2);
+        pizza.setName("Pizza");
+        pizza.setPrice(299.0);
+        pizza.setCategory(category);
+        FoodResponseDTO pizzaResponse = new FoodResponseDTO();
+        pizzaResponse.setId(2);
+        pizzaResponse.setName("Pizza");
+        pizzaResponse.setPrice(299.0);
+        foodResponseDTO.setStatus(true);
+        when(foodRepository.findAll()).thenReturn(List.of(food, pizza));
+        when(categoryRepository.findAll()).thenReturn(List.of());
+        when(mapper.map(food, FoodResponseDTO.class)).thenReturn(foodResponseDTO);
+        when(mapper.map(pizza, FoodResponseDTO.class)).thenReturn(pizzaResponse);
+
+        List<FoodStockResponseDTO> result = foodService.getStock(List.of(2, 1, 2));
+
+        assertEquals(List.of(new FoodStockResponseDTO(2, "Pizza", 299.0, false),
+                new FoodStockResponseDTO(1, "Burger", 199.99, true)), result);
+        verify(foodRepository, never()).findById(any());
+        verify(foodRepository, never()).findStockByIdIn(any());
+    }
+
+    @Test
+    @DisplayName("Negative: Ids missing from the catalog are resolved with one IN query and unknown ids are left out")
+    void getStock_MissingIdsUseOneQuery() {
+        when(foodRepository.findAll()).thenReturn(List.of());
+        when(categoryRepository.findAll()).thenReturn(List.of());
+        when(foodRepository.findStockByIdIn(List.of(1, 999)))
+                .thenReturn(List.of(new FoodStockResponseDTO(1, "Burger", 199.99, true)));
+
+        List<FoodStockResponseDTO> result = foodService.getStock(List.of(1, 999));
+
+        assertEquals(List.of(new FoodStockResponseDTO(1, "Burger", 199.99, true)), result);
+        verify(foodRepository, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("Positive: Bulk rating update is one batched write where the last rating per food wins")
+    void updateFoodRatings_CoalescesPerFood() {
+        int written = foodService.updateFoodRatings(List.of(
+                new FoodRatingUpdateDTO(1, 3.5f),
+                new FoodRatingUpdateDTO(2, 4.0f),
+                new FoodRatingUpdateDTO(1, 4.5f)));
+
+        Map<Integer, Float> expected = new LinkedHashMap<>();
+        expected.put(1, 4.5f);
+        expected.put(2, 4.0f);
+        assertEquals(2, written);
+        verify(foodRepository).updateAvgRatings(expected);
+        verify(foodRepository, never()).save(any(Food.class));
+    }
 }
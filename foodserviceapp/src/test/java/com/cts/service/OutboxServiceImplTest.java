@@ -0,0 +1,181 @@
+package com.cts.service;
+
+import com.cts.client.AuthServiceClient;
+import com.cts.client.FeedbackServiceClient;
+import com.cts.client.PromoCodeServiceClient;
+import com.cts.dto.feedback.DeliveredOrderDTO;
+import com.cts.entity.OutboxEvent;
+import com.cts.enums.OutboxEventType;
+import com.cts.enums.OutboxStatus;
+import com.cts.repository.OrderItemRepository;
+import com.cts.repository.OutboxEventRepository;
+import com.cts.service.impl.OutboxServiceImpl;
+
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class OutboxServiceImplTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private AuthServiceClient authServiceClient;
+
+    @Mock
+    private PromoCodeServiceClient promoCodeServiceClient;
+
+    @Mock
+    private FeedbackServiceClient feedbackServiceClient;
+
+    @Mock
+    private OrderItemRepository orderItemRepository;
+
+    private OutboxService outboxService;
+
+    @BeforeEach
+    void setUp() {
+        outboxService = new OutboxServiceImpl(outboxEventRepository, authServiceClient, promoCodeServiceClient,
+                feedbackServiceClient, orderItemRepository);
+    }
+
+    @Test
+    @DisplayName("Positive: Pending events are delivered with their idempotency keys and marked sent")
+    void dispatchPending_Success() {
+        OutboxEvent availability = event(1L, OutboxEventType.PARTNER_AVAILABILITY, 50L, "key-1");
+        availability.setAvailable(true);
+        OutboxEvent totalOrders = event(2L, OutboxEventType.TOTAL_ORDERS, 7L, "key-2");
+        givenPending(List.of(availability, totalOrders), List.of(availability, totalOrders));
+
+        int sent = outboxService.dispatchPending();
+
+        assertEquals(2, sent);
+        assertEquals(OutboxStatus.SENT, availability.getStatus());
+        assertEquals(OutboxStatus.SENT, totalOrders.getStatus());
+        verify(authServiceClient).updateDeliveryPartnerAvailability(50L, true, true, "key-1");
+        verify(authServiceClient).updateTotalOrders(7L, "key-2");
+    }
+
+    @Test
+    @DisplayName("Negative: A failed event is retried later and holds back newer events for the same user")
+    void dispatchPending_FailureBacksOff() {
+        OutboxEvent first = event(1L, OutboxEventType.TOTAL_ORDERS, 7L, "key-1");
+        OutboxEvent second = event(2L, OutboxEventType.TOTAL_ORDERS, 7L, "key-2");
+        OutboxEvent other = event(3L, OutboxEventType.TOTAL_ORDERS, 8L, "key-3");
+        givenPending(List.of(first, second, other), List.of(first, second, other));
+        when(authServiceClient.updateTotalOrders(7L, "key-1")).thenThrow(new RuntimeException("connection refused"));
+
+        int sent = outboxService.dispatchPending();
+
+        assertEquals(1, sent);
+        assertEquals(OutboxStatus.PENDING, first.getStatus());
+        assertEquals(1, first.getAttempts());
+        assertTrue(first.getNextAttemptAt().isAfter(LocalDateTime.now()));
+        assertEquals(OutboxStatus.PENDING, second.getStatus());
+        verify(authServiceClient, never()).updateTotalOrders(eq(7L), eq("key-2"));
+        assertEquals(OutboxStatus.SENT, other.getStatus());
+        verify(authServiceClient, never()).updateDeliveryPartnerAvailability(any(), any(), eq(true), anyString());
+    }
+
+    @Test
+    @DisplayName("Negative: A 409 from a concurrent update to the user is retried, not failed")
+    void dispatchPending_ConflictIsRetried() {
+        OutboxEvent availability = event(1L, OutboxEventType.PARTNER_AVAILABILITY, 50L, "key-1");
+        availability.setAvailable(true);
+        OutboxEvent rejected = event(2L, OutboxEventType.TOTAL_ORDERS, 8L, "key-2");
+        givenPending(List.of(availability, rejected), List.of(availability, rejected));
+        when(authServiceClient.updateDeliveryPartnerAvailability(50L, true, true, "key-1"))
+                .thenThrow(feignError(409));
+        when(authServiceClient.updateTotalOrders(8L, "key-2")).thenThrow(feignError(400));
+
+        outboxService.dispatchPending();
+
+        assertEquals(OutboxStatus.PENDING, availability.getStatus());
+        assertEquals(1, availability.getAttempts());
+        assertEquals(OutboxStatus.FAILED, rejected.getStatus());
+    }
+
+    @Test
+    @DisplayName("Positive: A delivered-order event sends the order's customer and food ids to the feedback service")
+    void dispatchPending_OrderDelivered() {
+        OutboxEvent delivered = event(4L, OutboxEventType.ORDER_DELIVERED, 7L, "key-4");
+        givenPending(List.of(delivered), List.of(delivered));
+        when(orderItemRepository.findFoodIdsByOrderId(101)).thenReturn(List.of(3, 5));
+
+        int sent = outboxService.dispatchPending();
+
+        assertEquals(1, sent);
+        assertEquals(OutboxStatus.SENT, delivered.getStatus());
+        verify(feedbackServiceClient).recordDeliveredOrder(new DeliveredOrderDTO(101, 7L, List.of(3, 5)));
+    }
+
+    @Test
+    @DisplayName("Negative: An event claimed by another instance is skipped and holds back that user's later events")
+    void dispatchPending_ClaimedElsewhereIsSkipped() {
+        OutboxEvent taken = event(1L, OutboxEventType.PARTNER_AVAILABILITY, 50L, "key-1");
+        taken.setAvailable(true);
+        OutboxEvent later = event(2L, OutboxEventType.PARTNER_AVAILABILITY, 50L, "key-2");
+        later.setAvailable(false);
+        OutboxEvent other = event(3L, OutboxEventType.TOTAL_ORDERS, 8L, "key-3");
+        givenPending(List.of(taken, later, other), List.of(later, other));
+
+        int sent = outboxService.dispatchPending();
+
+        assertEquals(1, sent);
+        verify(authServiceClient, never()).updateDeliveryPartnerAvailability(any(), any(), anyBoolean(), anyString());
+        assertEquals(OutboxStatus.PENDING, later.getStatus());
+        assertNull(later.getClaimToken());
+        assertNull(later.getClaimedUntil());
+        assertEquals(OutboxStatus.SENT, other.getStatus());
+        assertNull(other.getClaimToken());
+    }
+
+    // The claim UPDATE takes the ids it is given; only those in claimed come back under the token.
+    private void givenPending(List<OutboxEvent> pending, List<OutboxEvent> claimed) {
+        when(outboxEventRepository.findDispatchable(eq(OutboxStatus.PENDING), any(), any())).thenReturn(pending);
+        when(outboxEventRepository.claim(eq(pending.stream().map(OutboxEvent::getId).toList()), eq(OutboxStatus.PENDING),
+                anyString(), any(), any())).thenReturn(claimed.size());
+        when(outboxEventRepository.findByClaimTokenOrderByIdAsc(anyString())).thenReturn(claimed);
+    }
+
+    private FeignException feignError(int status) {
+        Request request = Request.create(Request.HttpMethod.PUT, "http://userservice", Map.of(), null,
+                StandardCharsets.UTF_8, null);
+        return FeignException.errorStatus("AuthServiceClient#update",
+                Response.builder().status(status).reason("error").request(request).headers(Map.of()).build());
+    }
+
+    private OutboxEvent event(Long id, OutboxEventType type, long userId, String key) {
+        OutboxEvent event = new OutboxEvent();
+        event.setId(id);
+        event.setEventType(type);
+        event.setOrderId(101);
+        event.setUserId(userId);
+        event.setIdempotencyKey(key);
+        event.setStatus(OutboxStatus.PENDING);
+        event.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        return event;
+    }
+}
@@ -0,0 +1,63 @@
+package com.cts.promocode.analytics;
+
+/**
+ * HyperLogLog helpers for counting distinct customers in a usage rollup. A sketch is
+ * {@link #REGISTERS} bytes, one register per byte, which keeps the standard error around
+ * 3% and lets MySQL raise a single register in place (see
+ * {@code PromoCodeUsageRollupRepository#record}) without reading the sketch back.
+ */
+public final class CustomerSketch {
+
+    static final int PRECISION = 10;
+    public static final int REGISTERS = 1 << PRECISION;
+
+    private CustomerSketch() {
+    }
+
+    /** Zero-based register the customer falls into. */
+    public static int register(long customerId) {
+        return (int) (hash(customerId) >>> (64 - PRECISION));
+    }
+
+    /** Position of the first set bit after the register bits, the value a register keeps the maximum of. */
+    public static int rank(long customerId) {
+        long remaining = hash(customerId) << PRECISION;
+        return Math.min(Long.numberOfLeadingZeros(remaining), 64 - PRECISION) + 1;
+    }
+
+    /** A sketch that has seen exactly one customer. */
+    public static byte[] of(long customerId) {
+        byte[] sketch = new byte[REGISTERS];
+        sketch[register(customerId)] = (byte) rank(customerId);
+        return sketch;
+    }
+
+    public static long estimate(byte[] sketch) {
+        if (sketch == null || sketch.length != REGISTERS) {
+            return 0;
+        }
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : sketch) {
+            sum += Math.scalb(1.0, -register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double alpha = 0.7213 / (1 + 1.079 / REGISTERS);
+        double estimate = alpha * REGISTERS * REGISTERS / sum;
+        // Linear counting is more accurate while many registers are still empty.
+        if (estimate <= 2.5 * REGISTERS && zeros > 0) {
+            estimate = REGISTERS * Math.log((double) REGISTERS / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    // SplitMix64 finalizer: sequential customer IDs need to spread across all 64 bits.
+    private static long hash(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,59 @@
+package com.cts.promocode.batch;
+
+import java.util.BitSet;
+
+/**
+ * Bloom filter over promo codes. A false positive only makes the generator discard a
+ * candidate it could have used, so a small error rate buys a filter of a few bytes per
+ * code instead of a set holding every existing code.
+ */
+final class CodeBloomFilter {
+
+    private final BitSet bits;
+    private final int size;
+    private final int hashes;
+
+    CodeBloomFilter(long expectedCodes, double falsePositiveRate) {
+        long expected = Math.max(expectedCodes, 1);
+        double ln2 = Math.log(2);
+        long optimalBits = (long) Math.ceil(-expected * Math.log(falsePositiveRate) / (ln2 * ln2));
+        this.size = (int) Math.min(Math.max(optimalBits, 64), Integer.MAX_VALUE - 1);
+        this.hashes = Math.max(1, (int) Math.round((double) size / expected * ln2));
+        this.bits = new BitSet(size);
+    }
+
+    void add(String code) {
+        long hash = hash64(code);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashes; i++) {
+            bits.set(index(h1 + i * h2));
+        }
+    }
+
+    boolean mightContain(String code) {
+        long hash = hash64(code);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashes; i++) {
+            if (!bits.get(index(h1 + i * h2))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int index(int combined) {
+        return (combined < 0 ? ~combined : combined) % size;
+    }
+
+    // 64-bit FNV-1a; the two halves drive the double hashing above.
+    private static long hash64(String code) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < code.length(); i++) {
+            hash ^= code.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
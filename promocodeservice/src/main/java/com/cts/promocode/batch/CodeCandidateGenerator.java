@@ -0,0 +1,48 @@
+package com.cts.promocode.batch;
+
+import java.security.SecureRandom;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Produces random codes that the Bloom filter has not seen, adding each one to the filter
+ * so a batch never proposes the same code twice. Kept apart from the JDBC writes so the
+ * generation cost can be measured without a database.
+ */
+final class CodeCandidateGenerator {
+
+    static final String ALPHABET = "ABCDEFGHJKLMNPQRSTUVWXYZ23456789";
+
+    private final Random random;
+
+    CodeCandidateGenerator() {
+        this(new SecureRandom());
+    }
+
+    CodeCandidateGenerator(Random random) {
+        this.random = random;
+    }
+
+    /** Appends fresh codes to {@code chunk} until it holds {@code size}; returns the number of candidates rejected. */
+    int fill(List<String> chunk, int size, String prefix, int codeLength, CodeBloomFilter known) {
+        int rejected = 0;
+        while (chunk.size() < size) {
+            String code = prefix + randomSuffix(codeLength);
+            if (known.mightContain(code)) {
+                rejected++;
+                continue;
+            }
+            known.add(code);
+            chunk.add(code);
+        }
+        return rejected;
+    }
+
+    private String randomSuffix(int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,218 @@
+package com.cts.promocode.batch;
+
+import com.cts.promocode.dto.PromoCodeBatchRequest;
+import com.cts.promocode.entity.BatchStatus;
+import jakarta.annotation.PreDestroy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Writes the codes of a campaign batch in the background. Candidates are checked against
+ * a Bloom filter seeded with every existing code, so a collision costs a bit lookup rather
+ * than a query, and new codes are inserted in JDBC batches of {@link #CHUNK_SIZE}. The
+ * unique index on code stays the final authority: rows it rejects are simply regenerated
+ * in the next round. Progress is written to the batch row after every chunk.
+ */
+@Component
+public class PromoCodeBatchGenerator {
+
+    static final int CHUNK_SIZE = 1_000;
+    static final int MAX_ROUNDS = 5;
+    static final double FALSE_POSITIVE_RATE = 0.01;
+    static final long STALE_CHECK_INTERVAL_MS = 60_000;
+    static final Duration STALE_AFTER = Duration.ofMinutes(10);
+
+    private static final String INSERT_CODE = "INSERT IGNORE INTO promo_codes (code, title, description, "
+            + "discount_type, discount_value, max_discount_amount, min_order_amount, usage_limit_per_customer, "
+            + "max_redemptions, total_redemptions, active, valid_from, valid_until, created_at, updated_at, batch_id) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingTemplate;
+    private final CodeCandidateGenerator candidates = new CodeCandidateGenerator();
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "promo-batch-generator");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public PromoCodeBatchGenerator(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingTemplate = new JdbcTemplate(dataSource);
+        // Integer.MIN_VALUE makes MySQL Connector/J stream rows instead of buffering the whole result.
+        this.streamingTemplate.setFetchSize(Integer.MIN_VALUE);
+    }
+
+    /** Starts generating once the transaction that created the batch row commits. */
+    public void startAfterCommit(Long batchId, String prefix, PromoCodeBatchRequest request) {
+        Runnable start = () -> {
+            queued.add(batchId);
+            executor.execute(() -> {
+                queued.remove(batchId);
+                generate(batchId, prefix, request);
+            });
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            start.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                start.run();
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    void generate(Long batchId, String prefix, PromoCodeBatchRequest request) {
+        long started = System.currentTimeMillis();
+        try {
+            updateProgress(batchId, 0);
+            CodeBloomFilter known = loadExistingCodes(request.getCount());
+            int generated = 0;
+            for (int round = 0; round < MAX_ROUNDS && generated < request.getCount(); round++) {
+                insertCodes(batchId, prefix, request, request.getCount() - generated, generated, known);
+                // INSERT IGNORE skips codes taken since the filter was seeded; count what actually landed.
+                generated = countBatchCodes(batchId);
+                updateProgress(batchId, generated);
+            }
+            if (generated < request.getCount()) {
+                finish(batchId, BatchStatus.FAILED, generated,
+                        "Generated " + generated + " of " + request.getCount() + " codes; code space is too crowded");
+            } else {
+                finish(batchId, BatchStatus.COMPLETED, generated, null);
+            }
+            System.out.println("Promo batch " + batchId + " generated " + generated + " codes in "
+                    + (System.currentTimeMillis() - started) + " ms");
+        } catch (RuntimeException ex) {
+            System.err.println("Promo batch " + batchId + " failed: " + ex.getMessage());
+            finish(batchId, BatchStatus.FAILED, countBatchCodes(batchId), truncate(ex.getMessage()));
+        }
+    }
+
+    private CodeBloomFilter loadExistingCodes(int newCodes) {
+        Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM promo_codes", Long.class);
+        CodeBloomFilter filter = new CodeBloomFilter((existing == null ? 0 : existing) + newCodes, FALSE_POSITIVE_RATE);
+        streamingTemplate.query("SELECT code FROM promo_codes", rs -> {
+            filter.add(rs.getString(1));
+        });
+        return filter;
+    }
+
+    private void insertCodes(Long batchId, String prefix, PromoCodeBatchRequest request, int missing,
+                             int alreadyGenerated, CodeBloomFilter known) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Timestamp validFrom = Timestamp.valueOf(request.getValidFrom());
+        Timestamp validUntil = Timestamp.valueOf(request.getValidUntil());
+        String discountType = request.getDiscountType().name();
+        int written = 0;
+        List<String> chunk = new ArrayList<>(CHUNK_SIZE);
+        while (written < missing) {
+            chunk.clear();
+            candidates.fill(chunk, Math.min(CHUNK_SIZE, missing - written), prefix, request.getCodeLength(), known);
+            jdbcTemplate.batchUpdate(INSERT_CODE, chunk, chunk.size(), (ps, code) -> {
+                ps.setString(1, code);
+                ps.setString(2, request.getTitle());
+                ps.setString(3, request.getDescription());
+                ps.setString(4, discountType);
+                ps.setBigDecimal(5, request.getDiscountValue());
+                setDecimal(ps, 6, request.getMaxDiscountAmount());
+                setDecimal(ps, 7, request.getMinOrderAmount());
+                ps.setInt(8, request.getUsageLimitPerCustomer() == null ? 1 : request.getUsageLimitPerCustomer());
+                if (request.getMaxRedemptions() == null) {
+                    ps.setNull(9, Types.INTEGER);
+                } else {
+                    ps.setInt(9, request.getMaxRedemptions());
+                }
+                ps.setBoolean(10, request.isActive());
+                ps.setTimestamp(11, validFrom);
+                ps.setTimestamp(12, validUntil);
+                ps.setTimestamp(13, now);
+                ps.setTimestamp(14, now);
+                ps.setLong(15, batchId);
+            });
+            written += chunk.size();
+            updateProgress(batchId, alreadyGenerated + written);
+        }
+    }
+
+    private int countBatchCodes(Long batchId) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM promo_codes WHERE batch_id = ?", Integer.class, batchId);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * Fails batches whose generator stopped reporting progress, e.g. because the instance
+     * running it was restarted. Progress is written after every chunk, so a live batch never
+     * goes {@link #STALE_AFTER} without touching updated_at, and queued batches are touched
+     * here. Codes already written are kept.
+     */
+    @Scheduled(fixedDelay = STALE_CHECK_INTERVAL_MS)
+    public int failInterruptedBatches() {
+        LocalDateTime now = LocalDateTime.now();
+        // Batches waiting behind another one on this instance are alive too.
+        for (Long batchId : queued) {
+            jdbcTemplate.update("UPDATE promo_code_batches SET updated_at = ? WHERE id = ?", Timestamp.valueOf(now), batchId);
+        }
+        int failed = jdbcTemplate.update("UPDATE promo_code_batches SET status = ?, error_message = ?, completed_at = ? "
+                        + "WHERE status = ? AND (updated_at IS NULL OR updated_at < ?)",
+                BatchStatus.FAILED.name(), "Generation was interrupted before completion",
+                Timestamp.valueOf(now), BatchStatus.RUNNING.name(), Timestamp.valueOf(now.minus(STALE_AFTER)));
+        if (failed > 0) {
+            System.err.println("Marked " + failed + " interrupted promo batches as failed");
+        }
+        return failed;
+    }
+
+    private void updateProgress(Long batchId, int generated) {
+        jdbcTemplate.update("UPDATE promo_code_batches SET generated_count = ?, updated_at = ? WHERE id = ?",
+                generated, Timestamp.valueOf(LocalDateTime.now()), batchId);
+    }
+
+    private void finish(Long batchId, BatchStatus status, int generated, String errorMessage) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update("UPDATE promo_code_batches SET status = ?, generated_count = ?, error_message = ?, "
+                        + "completed_at = ?, updated_at = ? WHERE id = ?",
+                status.name(), generated, errorMessage, now, now, batchId);
+    }
+
+    private static void setDecimal(PreparedStatement ps, int index, BigDecimal value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.DECIMAL);
+        } else {
+            ps.setBigDecimal(index, value);
+        }
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return "Batch generation failed";
+        }
+        return message.length() <= 500 ? message : message.substring(0, 500);
+    }
+}
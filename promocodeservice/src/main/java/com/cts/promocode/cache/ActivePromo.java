@@ -0,0 +1,66 @@
+package com.cts.promocode.cache;
+
+import com.cts.promocode.entity.DiscountType;
+import com.cts.promocode.entity.PromoCode;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Immutable copy of the fields eligibility and discount calculation need, so the
+ * checkout path can work from the registry without touching a managed entity.
+ */
+public record ActivePromo(
+        Long id,
+        String code,
+        DiscountType discountType,
+        BigDecimal discountValue,
+        BigDecimal maxDiscountAmount,
+        BigDecimal minOrderAmount,
+        Integer usageLimitPerCustomer,
+        Integer maxRedemptions,
+        int totalRedemptions,
+        boolean active,
+        LocalDateTime validFrom,
+        LocalDateTime validUntil,
+        Long batchId) {
+
+    public static ActivePromo of(PromoCode promoCode) {
+        return new ActivePromo(
+                promoCode.getId(),
+                promoCode.getCode(),
+                promoCode.getDiscountType(),
+                promoCode.getDiscountValue(),
+                promoCode.getMaxDiscountAmount(),
+                promoCode.getMinOrderAmount(),
+                promoCode.getUsageLimitPerCustomer(),
+                promoCode.getMaxRedemptions(),
+                promoCode.getTotalRedemptions() == null ? 0 : promoCode.getTotalRedemptions(),
+                promoCode.isActive(),
+                promoCode.getValidFrom(),
+                promoCode.getValidUntil(),
+                promoCode.getBatchId());
+    }
+
+    public ActivePromo withTotalRedemptions(int redemptions) {
+        return new ActivePromo(id, code, discountType, discountValue, maxDiscountAmount, minOrderAmount,
+                usageLimitPerCustomer, maxRedemptions, redemptions, active, validFrom, validUntil, batchId);
+    }
+
+    /** Minimum order total, with no minimum treated as zero. */
+    public BigDecimal minimumOrder() {
+        return minOrderAmount == null ? BigDecimal.ZERO : minOrderAmount;
+    }
+
+    public boolean notYetValid(LocalDateTime now) {
+        return validFrom != null && now.isBefore(validFrom);
+    }
+
+    public boolean expired(LocalDateTime now) {
+        return validUntil != null && now.isAfter(validUntil);
+    }
+
+    public boolean redemptionLimitReached() {
+        return maxRedemptions != null && totalRedemptions >= maxRedemptions;
+    }
+}
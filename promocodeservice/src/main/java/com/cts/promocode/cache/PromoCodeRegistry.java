@@ -0,0 +1,257 @@
+package com.cts.promocode.cache;
+
+import com.cts.promocode.entity.PromoCode;
+import com.cts.promocode.repository.PromoCodeRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Active promo codes keyed by their normalized (upper-case) code, so validation on the
+ * checkout path is a map lookup instead of an {@code upper(code) = upper(?)} scan.
+ * Local changes are applied once their transaction commits; a periodic reconcile picks
+ * up changes made by other instances and drops codes whose validity window has ended.
+ * The registry only ever holds what reconcile itself loads: active, unexpired codes that
+ * do not belong to a campaign batch. Anything else is looked up in the database each time.
+ * For offering promos without a code, the same entries are also kept sorted by minimum
+ * order total; that index is rebuilt lazily on the first read after a change.
+ */
+@Component
+@RequiredArgsConstructor
+public class PromoCodeRegistry {
+
+    static final long RECONCILE_INTERVAL_MS = 60_000;
+
+    private static final Comparator<ActivePromo> BY_MIN_ORDER = Comparator
+            .comparing(ActivePromo::minimumOrder)
+            .thenComparing(ActivePromo::validUntil, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(ActivePromo::code);
+
+    private final PromoCodeRepository promoCodeRepository;
+
+    private volatile Map<String, ActivePromo> promos;
+    private long generation;
+    // Generation of the last local save or removal per code, since the last reconcile swap
+    private final Map<String, Long> changedAt = new HashMap<>();
+    private long clearedUpTo;
+    private volatile long revision;
+    private volatile MinOrderIndex minOrderIndex;
+
+    public static String normalize(String code) {
+        return code == null ? null : code.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /** The active promo for {@code code}, or null if this instance does not know it as active. */
+    public ActivePromo find(String code) {
+        Map<String, ActivePromo> current = promos;
+        if (current == null) {
+            current = reconcile();
+        }
+        return code == null ? null : current.get(normalize(code));
+    }
+
+    /**
+     * Promos that {@code orderTotal} qualifies for right now, ignoring per-customer limits.
+     * Codes generated for a campaign batch are handed out individually and never offered here.
+     */
+    public List<ActivePromo> applicable(BigDecimal orderTotal, LocalDateTime now) {
+        MinOrderIndex index = minOrderIndex();
+        List<ActivePromo> result = new ArrayList<>();
+        int end = index.upperBound(orderTotal);
+        for (int i = 0; i < end; i++) {
+            ActivePromo promo = index.promos[i];
+            if (promo.active() && promo.batchId() == null && !promo.notYetValid(now) && !promo.expired(now)
+                    && !promo.redemptionLimitReached()) {
+                result.add(promo);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reads a code this instance does not hold from the database and, if reconcile would load
+     * it too, adopts it so the next lookup is a hit. Adopting is not a local change: it never
+     * makes a running reconcile discard its result, and it is skipped when the code was saved
+     * or removed here after the read started, as the row read may be older than that change.
+     */
+    public Optional<PromoCode> load(String code) {
+        String key = normalize(code);
+        long observed;
+        synchronized (this) {
+            observed = generation;
+        }
+        Optional<PromoCode> promoCode = promoCodeRepository.findByCode(key);
+        promoCode.map(ActivePromo::of)
+                .filter(promo -> cacheable(promo, LocalDateTime.now()))
+                .ifPresent(promo -> adopt(key, promo, observed));
+        return promoCode;
+    }
+
+    /** Publishes the saved state of {@code promoCode} once the surrounding transaction commits. */
+    public void refreshAfterCommit(PromoCode promoCode) {
+        ActivePromo promo = ActivePromo.of(promoCode);
+        afterCommit(() -> put(promo));
+    }
+
+    /** Shifts the cached redemption count once the transaction that reserved or returned redemptions commits. */
+    public void adjustRedemptionsAfterCommit(String code, int delta) {
+        String key = normalize(code);
+        afterCommit(() -> adjust(key, delta));
+    }
+
+    public void removeAfterCommit(String code) {
+        String key = normalize(code);
+        afterCommit(() -> remove(key));
+    }
+
+    @Scheduled(fixedDelay = RECONCILE_INTERVAL_MS, initialDelay = RECONCILE_INTERVAL_MS)
+    public Map<String, ActivePromo> reconcile() {
+        long loadGeneration;
+        synchronized (this) {
+            loadGeneration = generation;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, ActivePromo> loaded = new ConcurrentHashMap<>();
+        for (PromoCode promoCode : promoCodeRepository.findByActiveTrueAndValidUntilAfterAndBatchIdIsNull(now)) {
+            loaded.put(normalize(promoCode.getCode()), ActivePromo.of(promoCode));
+        }
+        synchronized (this) {
+            // A code saved or removed locally while loading may be missing from, or stale in,
+            // this copy; carry the local state of just those codes over. Redemption counts do
+            // not count as changes here, see adjust().
+            if (promos != null) {
+                changedAt.forEach((key, changed) -> {
+                    if (changed > loadGeneration) {
+                        ActivePromo local = promos.get(key);
+                        if (local == null) {
+                            loaded.remove(key);
+                        } else {
+                            loaded.put(key, local);
+                        }
+                    }
+                });
+            }
+            // Every change recorded so far had committed before the next load can start.
+            changedAt.clear();
+            clearedUpTo = generation;
+            promos = loaded;
+            revision++;
+            return loaded;
+        }
+    }
+
+    private synchronized void put(ActivePromo promo) {
+        String key = normalize(promo.code());
+        if (!cacheable(promo, LocalDateTime.now())) {
+            remove(key);
+            return;
+        }
+        if (promos != null) {
+            promos.put(key, promo);
+        }
+        changedAt.put(key, ++generation);
+        revision++;
+    }
+
+    private synchronized void adopt(String key, ActivePromo promo, long observed) {
+        // Changes recorded before the last swap are no longer tracked per code, so a read
+        // that started before them cannot be told apart from a stale one.
+        if (promos == null || observed < clearedUpTo || changedAt.getOrDefault(key, 0L) > observed) {
+            return;
+        }
+        if (promos.putIfAbsent(key, promo) == null) {
+            revision++;
+        }
+    }
+
+    // Count deltas leave the generation alone: a reconcile reloads totalRedemptions anyway,
+    // and on a busy instance bumping it here would make every reconcile discard its result.
+    private synchronized void adjust(String key, int delta) {
+        if (promos != null) {
+            promos.computeIfPresent(key, (k, promo) ->
+                    promo.withTotalRedemptions(Math.max(0, promo.totalRedemptions() + delta)));
+        }
+        revision++;
+    }
+
+    private synchronized void remove(String key) {
+        if (promos != null) {
+            promos.remove(key);
+        }
+        changedAt.put(key, ++generation);
+        revision++;
+    }
+
+    /** Whether reconcile would load this code: active, unexpired and not part of a campaign batch. */
+    private static boolean cacheable(ActivePromo promo, LocalDateTime now) {
+        return promo.active() && promo.batchId() == null
+                && promo.validUntil() != null && promo.validUntil().isAfter(now);
+    }
+
+    private MinOrderIndex minOrderIndex() {
+        MinOrderIndex index = minOrderIndex;
+        if (index != null && index.revision == revision) {
+            return index;
+        }
+        if (promos == null) {
+            reconcile();
+        }
+        synchronized (this) {
+            index = minOrderIndex;
+            if (index != null && index.revision == revision) {
+                return index;
+            }
+            // Read under the lock so the revision matches the map contents being sorted.
+            long indexRevision = revision;
+            ActivePromo[] sorted = promos.values().toArray(new ActivePromo[0]);
+            Arrays.sort(sorted, BY_MIN_ORDER);
+            minOrderIndex = new MinOrderIndex(indexRevision, sorted);
+            return minOrderIndex;
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private record MinOrderIndex(long revision, ActivePromo[] promos) {
+
+        /** Number of leading promos whose minimum order total is at most {@code orderTotal}. */
+        int upperBound(BigDecimal orderTotal) {
+            int low = 0;
+            int high = promos.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (promos[mid].minimumOrder().compareTo(orderTotal) <= 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.cts.promocode.config;
+
+import com.cts.promocode.repository.PromoCodeCustomerUsageRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Brings promo_code_customer_usage up to date with promo_code_usage on startup, covering
+ * redemptions recorded before the counter table existed.
+ */
+@Component
+@RequiredArgsConstructor
+public class PromoUsageBackfill {
+
+    private final PromoCodeCustomerUsageRepository customerUsageRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfill() {
+        customerUsageRepository.backfillFromUsage();
+    }
+}
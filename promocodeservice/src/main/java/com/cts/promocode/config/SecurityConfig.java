@@ -22,6 +22,8 @@ public class SecurityConfig {
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/actuator/**", "/v3/api-docs/**", "/swagger-ui.html", "/swagger-ui/**").permitAll()
+                        // Campaign batches write up to a million rows; only admins may start or inspect them.
+                        .requestMatchers("/api/v1/promocodes/batches/**").hasRole("ADMIN")
                         .anyRequest().permitAll()
                 );
 
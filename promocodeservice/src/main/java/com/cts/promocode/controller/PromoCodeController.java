@@ -1,22 +1,30 @@
 package com.cts.promocode.controller;
 
+import com.cts.promocode.dto.PromoCodeBatchRequest;
+import com.cts.promocode.dto.PromoCodeBatchResponse;
+import com.cts.promocode.dto.PromoCodeBestRequest;
 import com.cts.promocode.dto.PromoCodeExpiryRequest;
+import com.cts.promocode.dto.PromoCodeOfferResponse;
 import com.cts.promocode.dto.PromoCodeRedeemRequest;
 import com.cts.promocode.dto.PromoCodeRequest;
 import com.cts.promocode.dto.PromoCodeResponse;
 import com.cts.promocode.dto.PromoCodeUpdateRequest;
 import com.cts.promocode.dto.PromoCodeUsageResponse;
+import com.cts.promocode.dto.PromoCodeUsageRollupResponse;
 import com.cts.promocode.dto.PromoCodeValidationRequest;
 import com.cts.promocode.dto.PromoCodeValidationResponse;
+import com.cts.promocode.entity.RollupGranularity;
 import com.cts.promocode.service.PromoCodeService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -65,8 +73,21 @@ public class PromoCodeController {
     }
 
     @GetMapping("/{id}/usage")
-    public ResponseEntity<List<PromoCodeUsageResponse>> getPromoUsage(@PathVariable Long id) {
-        return ResponseEntity.ok(promoCodeService.getUsageForPromo(id));
+    @Operation(summary = "Raw usage rows for export, paged by the last usageId seen")
+    public ResponseEntity<List<PromoCodeUsageResponse>> getPromoUsage(@PathVariable Long id,
+                                                                      @RequestParam(defaultValue = "0") Long afterId,
+                                                                      @RequestParam(defaultValue = "500") int limit) {
+        return ResponseEntity.ok(promoCodeService.getUsageForPromo(id, afterId, limit));
+    }
+
+    @GetMapping("/{id}/usage/rollups")
+    @Operation(summary = "Hourly or daily redemption totals for dashboards")
+    public ResponseEntity<List<PromoCodeUsageRollupResponse>> getUsageRollups(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "DAY") RollupGranularity granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return ResponseEntity.ok(promoCodeService.getUsageRollups(id, granularity, from, to));
     }
 
     @PostMapping("/validate")
@@ -74,8 +95,46 @@ public class PromoCodeController {
         return ResponseEntity.ok(promoCodeService.validatePromo(request));
     }
 
+    @PostMapping("/best")
+    @Operation(summary = "Promos applicable to an order total, best discount first")
+    public ResponseEntity<List<PromoCodeOfferResponse>> bestPromos(@Valid @RequestBody PromoCodeBestRequest request) {
+        return ResponseEntity.ok(promoCodeService.findBestPromos(request));
+    }
+
     @PostMapping("/redeem")
     public ResponseEntity<PromoCodeValidationResponse> redeemPromo(@Valid @RequestBody PromoCodeRedeemRequest request) {
         return ResponseEntity.ok(promoCodeService.redeemPromo(request));
     }
+
+    @PostMapping("/holds")
+    @Operation(summary = "Validate a promo code and reserve its discount for a short time")
+    public ResponseEntity<PromoCodeValidationResponse> holdPromo(@Valid @RequestBody PromoCodeValidationRequest request) {
+        return new ResponseEntity<>(promoCodeService.holdPromo(request), HttpStatus.CREATED);
+    }
+
+    @PostMapping("/holds/{token}/commit")
+    @Operation(summary = "Turn a promo hold into a redemption for an order")
+    public ResponseEntity<Void> commitHold(@PathVariable String token, @RequestParam Integer orderId) {
+        promoCodeService.commitHold(token, orderId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping("/holds/{token}")
+    @Operation(summary = "Give a promo hold back without redeeming it")
+    public ResponseEntity<Void> releaseHold(@PathVariable String token) {
+        promoCodeService.releaseHold(token);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/batches")
+    @Operation(summary = "Generate a campaign batch of random codes from one template")
+    public ResponseEntity<PromoCodeBatchResponse> generateBatch(@Valid @RequestBody PromoCodeBatchRequest request) {
+        return new ResponseEntity<>(promoCodeService.generateBatch(request), HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping("/batches/{id}")
+    @Operation(summary = "Progress of a campaign batch")
+    public ResponseEntity<PromoCodeBatchResponse> getBatch(@PathVariable Long id) {
+        return ResponseEntity.ok(promoCodeService.getBatch(id));
+    }
 }
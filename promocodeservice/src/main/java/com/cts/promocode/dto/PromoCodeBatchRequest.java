@@ -0,0 +1,65 @@
+package com.cts.promocode.dto;
+
+import com.cts.promocode.entity.DiscountType;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/** Template shared by every code in a generated batch; codes are prefix + random characters. */
+@Data
+public class PromoCodeBatchRequest {
+
+    @Pattern(regexp = "[A-Za-z0-9]{0,20}")
+    private String prefix;
+
+    @Min(6)
+    @Max(30)
+    private int codeLength = 10;
+
+    @Min(1)
+    @Max(1_000_000)
+    private int count;
+
+    @NotBlank
+    private String title;
+
+    private String description;
+
+    @NotNull
+    private DiscountType discountType;
+
+    @NotNull
+    @DecimalMin(value = "0.0", inclusive = false)
+    private BigDecimal discountValue;
+
+    @PositiveOrZero
+    private BigDecimal maxDiscountAmount;
+
+    @PositiveOrZero
+    private BigDecimal minOrderAmount;
+
+    @Positive
+    private Integer usageLimitPerCustomer = 1;
+
+    @Positive
+    private Integer maxRedemptions = 1;
+
+    private boolean active = true;
+
+    @NotNull
+    private LocalDateTime validFrom;
+
+    @NotNull
+    @Future
+    private LocalDateTime validUntil;
+}
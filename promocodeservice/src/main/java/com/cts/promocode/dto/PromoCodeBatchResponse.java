@@ -0,0 +1,21 @@
+package com.cts.promocode.dto;
+
+import com.cts.promocode.entity.BatchStatus;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class PromoCodeBatchResponse {
+    private Long id;
+    private String prefix;
+    private String title;
+    private int requestedCount;
+    private int generatedCount;
+    private BatchStatus status;
+    private String errorMessage;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+}
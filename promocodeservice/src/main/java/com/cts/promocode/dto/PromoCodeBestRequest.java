@@ -0,0 +1,18 @@
+package com.cts.promocode.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class PromoCodeBestRequest {
+
+    @NotNull
+    private Long customerId;
+
+    @NotNull
+    @DecimalMin(value = "0.0", inclusive = false)
+    private BigDecimal orderTotal;
+}
@@ -0,0 +1,19 @@
+package com.cts.promocode.dto;
+
+import com.cts.promocode.entity.DiscountType;
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class PromoCodeOfferResponse {
+    private String code;
+    private DiscountType discountType;
+    private BigDecimal discountValue;
+    private BigDecimal discountAmount;
+    private BigDecimal finalAmount;
+    private LocalDateTime validUntil;
+}
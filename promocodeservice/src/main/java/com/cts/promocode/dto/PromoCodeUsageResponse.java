@@ -1,13 +1,17 @@
 package com.cts.promocode.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class PromoCodeUsageResponse {
     private Long usageId;
     private Long promoCodeId;
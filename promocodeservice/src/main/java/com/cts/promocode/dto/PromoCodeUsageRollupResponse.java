@@ -0,0 +1,19 @@
+package com.cts.promocode.dto;
+
+import com.cts.promocode.entity.RollupGranularity;
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class PromoCodeUsageRollupResponse {
+    private RollupGranularity granularity;
+    private LocalDateTime bucketStart;
+    private long redemptions;
+    private BigDecimal totalDiscount;
+    private BigDecimal totalOrderValue;
+    private long uniqueCustomers;
+}
@@ -5,6 +5,7 @@ import lombok.Builder;
 import lombok.Data;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @Data
 @Builder
@@ -16,4 +17,6 @@ public class PromoCodeValidationResponse {
     private BigDecimal discountValue;
     private BigDecimal discountAmount;
     private BigDecimal finalAmount;
+    private String holdToken;
+    private LocalDateTime holdExpiresAt;
 }
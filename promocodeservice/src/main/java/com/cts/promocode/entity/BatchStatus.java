@@ -0,0 +1,7 @@
+package com.cts.promocode.entity;
+
+public enum BatchStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,8 @@
+package com.cts.promocode.entity;
+
+public enum HoldStatus {
+    HELD,
+    COMMITTED,
+    RELEASED,
+    EXPIRED
+}
@@ -13,7 +13,7 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "promo_codes")
+@Table(name = "promo_codes", indexes = @Index(name = "idx_promo_codes_batch", columnList = "batch_id"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -68,6 +68,10 @@ public class PromoCode {
 
     private String createdBy;
 
+    /** Set on codes produced by a campaign batch; null for codes created one at a time. */
+    @Column(name = "batch_id")
+    private Long batchId;
+
     @CreationTimestamp
     private LocalDateTime createdAt;
 
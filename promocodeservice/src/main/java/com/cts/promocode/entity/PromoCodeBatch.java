@@ -0,0 +1,54 @@
+package com.cts.promocode.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/** One campaign run of generated codes; generatedCount is updated as chunks are written. */
+@Entity
+@Table(name = "promo_code_batches")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PromoCodeBatch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(length = 20)
+    private String prefix;
+
+    @Column(nullable = false, length = 120)
+    private String title;
+
+    @Column(name = "requested_count", nullable = false)
+    private int requestedCount;
+
+    @Column(name = "generated_count", nullable = false)
+    private int generatedCount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private BatchStatus status;
+
+    @Column(name = "error_message", length = 500)
+    private String errorMessage;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    // Touched with every progress update; a RUNNING batch that stops touching it was interrupted.
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,29 @@
+package com.cts.promocode.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * How many times a customer has redeemed a promo code. Kept next to the usage history so
+ * the per-customer limit is a primary-key lookup rather than a count over every redemption.
+ */
+@Entity
+@Table(name = "promo_code_customer_usage")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PromoCodeCustomerUsage {
+
+    @EmbeddedId
+    private PromoCodeCustomerUsageId id;
+
+    @Column(name = "used_count", nullable = false)
+    @Builder.Default
+    private int usedCount = 0;
+}
@@ -0,0 +1,26 @@
+package com.cts.promocode.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+@Embeddable
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class PromoCodeCustomerUsageId implements Serializable {
+
+    @Column(name = "promo_code_id", nullable = false)
+    private Long promoCodeId;
+
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+}
@@ -0,0 +1,64 @@
+package com.cts.promocode.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A discount reserved for one checkout. While HELD it already counts against the
+ * redemption budget and the customer's limit; committing turns it into a usage row,
+ * releasing or expiring gives the reservation back.
+ */
+@Entity
+@Table(name = "promo_code_holds", indexes = {
+        @Index(name = "idx_promo_holds_status_expires", columnList = "status, expires_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PromoCodeHold {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true, length = 36)
+    private String token;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "promo_code_id", nullable = false)
+    private PromoCode promoCode;
+
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+
+    @Column(name = "customer_email", nullable = false)
+    private String customerEmail;
+
+    @Column(precision = 10, scale = 2)
+    private BigDecimal orderTotal;
+
+    @Column(precision = 10, scale = 2)
+    private BigDecimal discountAmount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private HoldStatus status;
+
+    @Column(name = "order_id")
+    private Integer orderId;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,55 @@
+package com.cts.promocode.entity;
+
+import com.cts.promocode.analytics.CustomerSketch;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Redemption totals for one promo code over one hour or day, maintained as redemptions
+ * are recorded so dashboards never have to aggregate promo_code_usage.
+ */
+@Entity
+@Table(name = "promo_code_usage_rollups",
+        uniqueConstraints = @UniqueConstraint(name = "uk_usage_rollup_bucket",
+                columnNames = {"promo_code_id", "granularity", "bucket_start"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PromoCodeUsageRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "promo_code_id", nullable = false)
+    private Long promoCodeId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 5)
+    private RollupGranularity granularity;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(nullable = false)
+    private long redemptions;
+
+    @Column(name = "total_discount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalDiscount;
+
+    @Column(name = "total_order_value", nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalOrderValue;
+
+    /** HyperLogLog registers of the customers who redeemed in this bucket. */
+    @Column(name = "customer_sketch", nullable = false, length = CustomerSketch.REGISTERS)
+    private byte[] customerSketch;
+}
@@ -0,0 +1,7 @@
+package com.cts.promocode.repository;
+
+import com.cts.promocode.entity.PromoCodeBatch;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface PromoCodeBatchRepository extends JpaRepository<PromoCodeBatch, Long> {
+}
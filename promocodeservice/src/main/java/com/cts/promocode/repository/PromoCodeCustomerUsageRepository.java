@@ -0,0 +1,55 @@
+package com.cts.promocode.repository;
+
+import com.cts.promocode.entity.PromoCodeCustomerUsage;
+import com.cts.promocode.entity.PromoCodeCustomerUsageId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface PromoCodeCustomerUsageRepository extends JpaRepository<PromoCodeCustomerUsage, PromoCodeCustomerUsageId> {
+
+    @Query("SELECT u.usedCount FROM PromoCodeCustomerUsage u WHERE u.id.promoCodeId = :promoCodeId AND u.id.customerId = :customerId")
+    Optional<Integer> findUsedCount(@Param("promoCodeId") Long promoCodeId, @Param("customerId") Long customerId);
+
+    /** One customer's counters for several promos at once; each row is a primary-key lookup. */
+    @Query("SELECT u FROM PromoCodeCustomerUsage u WHERE u.id.customerId = :customerId AND u.id.promoCodeId IN :promoCodeIds")
+    List<PromoCodeCustomerUsage> findForCustomer(@Param("customerId") Long customerId,
+                                                 @Param("promoCodeIds") Collection<Long> promoCodeIds);
+
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO promo_code_customer_usage (promo_code_id, customer_id, used_count) "
+            + "VALUES (:promoCodeId, :customerId, 0)", nativeQuery = true)
+    int createIfAbsent(@Param("promoCodeId") Long promoCodeId, @Param("customerId") Long customerId);
+
+    /** Counts one more use unless the customer is already at {@code limit}; returns 0 in that case. */
+    @Modifying
+    @Query("UPDATE PromoCodeCustomerUsage u SET u.usedCount = u.usedCount + 1 "
+            + "WHERE u.id.promoCodeId = :promoCodeId AND u.id.customerId = :customerId AND u.usedCount < :limit")
+    int incrementIfBelow(@Param("promoCodeId") Long promoCodeId, @Param("customerId") Long customerId,
+                         @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE PromoCodeCustomerUsage u SET u.usedCount = u.usedCount + :delta "
+            + "WHERE u.id.promoCodeId = :promoCodeId AND u.id.customerId = :customerId")
+    int adjust(@Param("promoCodeId") Long promoCodeId, @Param("customerId") Long customerId,
+               @Param("delta") int delta);
+
+    @Modifying
+    @Query("DELETE FROM PromoCodeCustomerUsage u WHERE u.id.promoCodeId = :promoCodeId")
+    int deleteByPromoCodeId(@Param("promoCodeId") Long promoCodeId);
+
+    /**
+     * Rebuilds counters from the usage history. GREATEST keeps it safe to run repeatedly and
+     * alongside live redemptions, which bump the counter in the same transaction as the row.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO promo_code_customer_usage (promo_code_id, customer_id, used_count) "
+            + "SELECT promo_code_id, customer_id, COUNT(*) FROM promo_code_usage GROUP BY promo_code_id, customer_id "
+            + "ON DUPLICATE KEY UPDATE used_count = GREATEST(used_count, VALUES(used_count))", nativeQuery = true)
+    int backfillFromUsage();
+}
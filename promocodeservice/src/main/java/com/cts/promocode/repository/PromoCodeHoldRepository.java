@@ -0,0 +1,34 @@
+package com.cts.promocode.repository;
+
+import com.cts.promocode.entity.HoldStatus;
+import com.cts.promocode.entity.PromoCodeHold;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface PromoCodeHoldRepository extends JpaRepository<PromoCodeHold, Long> {
+
+    // Commit, release and the expiry sweep all lock the hold row, so exactly one of them
+    // decides what happens to its reservation.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h FROM PromoCodeHold h WHERE h.token = :token")
+    Optional<PromoCodeHold> findByTokenForUpdate(@Param("token") String token);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h FROM PromoCodeHold h WHERE h.status = :status AND h.expiresAt < :now ORDER BY h.id")
+    List<PromoCodeHold> findExpiredForUpdate(@Param("status") HoldStatus status, @Param("now") LocalDateTime now,
+                                             Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE PromoCodeHold h SET h.status = :status WHERE h.id IN :ids")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("status") HoldStatus status);
+}
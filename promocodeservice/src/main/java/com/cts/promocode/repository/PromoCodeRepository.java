@@ -2,10 +2,38 @@ package com.cts.promocode.repository;
 
 import com.cts.promocode.entity.PromoCode;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 public interface PromoCodeRepository extends JpaRepository<PromoCode, Long> {
     Optional<PromoCode> findByCodeIgnoreCase(String code);
     boolean existsByCodeIgnoreCase(String code);
+
+    // Codes are stored upper-case, so exact matches on a normalized code can use the unique index.
+    Optional<PromoCode> findByCode(String code);
+    boolean existsByCode(String code);
+    // Batch codes are left out: there can be millions of them and they are looked up by code on demand.
+    List<PromoCode> findByActiveTrueAndValidUntilAfterAndBatchIdIsNull(LocalDateTime now);
+    List<PromoCode> findByBatchIdIsNull();
+
+    /**
+     * Takes one redemption from the budget; returns 0 when maxRedemptions is already reached or
+     * the code is no longer active and valid at {@code now}. The row is the authority here, not
+     * the cached copy that was validated against.
+     */
+    @Modifying
+    @Query("UPDATE PromoCode p SET p.totalRedemptions = p.totalRedemptions + 1 "
+            + "WHERE p.id = :id AND p.active = true "
+            + "AND (p.validFrom IS NULL OR p.validFrom <= :now) AND (p.validUntil IS NULL OR p.validUntil > :now) "
+            + "AND (p.maxRedemptions IS NULL OR p.totalRedemptions < p.maxRedemptions)")
+    int incrementRedemptionsIfBelowMax(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE PromoCode p SET p.totalRedemptions = p.totalRedemptions + :delta WHERE p.id = :id")
+    int adjustRedemptions(@Param("id") Long id, @Param("delta") int delta);
 }
@@ -1,7 +1,11 @@
 package com.cts.promocode.repository;
 
+import com.cts.promocode.dto.PromoCodeUsageResponse;
 import com.cts.promocode.entity.PromoCodeUsage;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -10,5 +14,12 @@ public interface PromoCodeUsageRepository extends JpaRepository<PromoCodeUsage,
     boolean existsByPromoCodeIdAndCustomerId(Long promoCodeId, Long customerId);
     Optional<PromoCodeUsage> findByPromoCodeIdAndCustomerId(Long promoCodeId, Long customerId);
     List<PromoCodeUsage> findByPromoCodeId(Long promoCodeId);
+
+    /** Keyset page of usage rows after {@code afterId}, read through the promo_code_id index. */
+    @Query("SELECT new com.cts.promocode.dto.PromoCodeUsageResponse(u.id, p.id, p.code, u.customerId, "
+            + "u.customerEmail, u.orderId, u.usedAt, u.orderTotal, u.discountApplied) "
+            + "FROM PromoCodeUsage u JOIN u.promoCode p WHERE p.id = :promoCodeId AND u.id > :afterId ORDER BY u.id")
+    List<PromoCodeUsageResponse> findPage(@Param("promoCodeId") Long promoCodeId, @Param("afterId") Long afterId,
+                                          Pageable pageable);
     long countByPromoCodeIdAndCustomerId(Long promoCodeId, Long customerId);
 }
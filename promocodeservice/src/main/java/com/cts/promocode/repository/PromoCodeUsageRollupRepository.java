@@ -0,0 +1,37 @@
+package com.cts.promocode.repository;
+
+import com.cts.promocode.entity.PromoCodeUsageRollup;
+import com.cts.promocode.entity.RollupGranularity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface PromoCodeUsageRollupRepository extends JpaRepository<PromoCodeUsageRollup, Long> {
+
+    List<PromoCodeUsageRollup> findByPromoCodeIdAndGranularityAndBucketStartBetweenOrderByBucketStart(
+            Long promoCodeId, RollupGranularity granularity, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Adds one redemption to a bucket, creating it on first use. The customer sketch is
+     * updated by raising a single register to {@code rank}, byte-wise, in place.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO promo_code_usage_rollups (promo_code_id, granularity, bucket_start, redemptions, "
+            + "total_discount, total_order_value, customer_sketch) "
+            + "VALUES (:promoCodeId, :granularity, :bucketStart, 1, :discount, :orderTotal, :sketch) "
+            + "ON DUPLICATE KEY UPDATE redemptions = redemptions + 1, "
+            + "total_discount = total_discount + VALUES(total_discount), "
+            + "total_order_value = total_order_value + VALUES(total_order_value), "
+            + "customer_sketch = CONCAT(SUBSTRING(customer_sketch, 1, :register), "
+            + "CHAR(GREATEST(ASCII(SUBSTRING(customer_sketch, :register + 1, 1)), :rank) USING binary), "
+            + "SUBSTRING(customer_sketch, :register + 2))", nativeQuery = true)
+    int record(@Param("promoCodeId") Long promoCodeId, @Param("granularity") String granularity,
+               @Param("bucketStart") LocalDateTime bucketStart, @Param("discount") BigDecimal discount,
+               @Param("orderTotal") BigDecimal orderTotal, @Param("sketch") byte[] sketch,
+               @Param("register") int register, @Param("rank") int rank);
+}
@@ -1,14 +1,22 @@
 package com.cts.promocode.service;
 
+import com.cts.promocode.dto.PromoCodeBatchRequest;
+import com.cts.promocode.dto.PromoCodeBatchResponse;
+import com.cts.promocode.dto.PromoCodeBestRequest;
 import com.cts.promocode.dto.PromoCodeExpiryRequest;
+import com.cts.promocode.dto.PromoCodeOfferResponse;
 import com.cts.promocode.dto.PromoCodeRedeemRequest;
 import com.cts.promocode.dto.PromoCodeRequest;
 import com.cts.promocode.dto.PromoCodeResponse;
 import com.cts.promocode.dto.PromoCodeUpdateRequest;
 import com.cts.promocode.dto.PromoCodeUsageResponse;
+import com.cts.promocode.dto.PromoCodeUsageRollupResponse;
 import com.cts.promocode.dto.PromoCodeValidationRequest;
 import com.cts.promocode.dto.PromoCodeValidationResponse;
 
+import com.cts.promocode.entity.RollupGranularity;
+
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface PromoCodeService {
@@ -25,9 +33,26 @@ public interface PromoCodeService {
 
     PromoCodeResponse updateExpiry(Long id, PromoCodeExpiryRequest request);
 
-    List<PromoCodeUsageResponse> getUsageForPromo(Long id);
+    List<PromoCodeUsageResponse> getUsageForPromo(Long id, Long afterId, int limit);
+
+    List<PromoCodeUsageRollupResponse> getUsageRollups(Long id, RollupGranularity granularity,
+                                                       LocalDateTime from, LocalDateTime to);
 
     PromoCodeValidationResponse validatePromo(PromoCodeValidationRequest request);
 
+    List<PromoCodeOfferResponse> findBestPromos(PromoCodeBestRequest request);
+
     PromoCodeValidationResponse redeemPromo(PromoCodeRedeemRequest request);
+
+    PromoCodeValidationResponse holdPromo(PromoCodeValidationRequest request);
+
+    void commitHold(String token, Integer orderId);
+
+    void releaseHold(String token);
+
+    int sweepExpiredHolds();
+
+    PromoCodeBatchResponse generateBatch(PromoCodeBatchRequest request);
+
+    PromoCodeBatchResponse getBatch(Long id);
 }
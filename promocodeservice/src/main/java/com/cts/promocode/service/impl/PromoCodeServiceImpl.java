@@ -1,32 +1,60 @@
 package com.cts.promocode.service.impl;
 
+import com.cts.promocode.analytics.CustomerSketch;
+import com.cts.promocode.batch.PromoCodeBatchGenerator;
+import com.cts.promocode.cache.ActivePromo;
+import com.cts.promocode.cache.PromoCodeRegistry;
+import com.cts.promocode.dto.PromoCodeBatchRequest;
+import com.cts.promocode.dto.PromoCodeBatchResponse;
+import com.cts.promocode.dto.PromoCodeBestRequest;
 import com.cts.promocode.dto.PromoCodeExpiryRequest;
+import com.cts.promocode.dto.PromoCodeOfferResponse;
 import com.cts.promocode.dto.PromoCodeRedeemRequest;
 import com.cts.promocode.dto.PromoCodeRequest;
 import com.cts.promocode.dto.PromoCodeResponse;
 import com.cts.promocode.dto.PromoCodeUpdateRequest;
 import com.cts.promocode.dto.PromoCodeUsageResponse;
+import com.cts.promocode.dto.PromoCodeUsageRollupResponse;
 import com.cts.promocode.dto.PromoCodeValidationRequest;
 import com.cts.promocode.dto.PromoCodeValidationResponse;
+import com.cts.promocode.entity.BatchStatus;
 import com.cts.promocode.entity.DiscountType;
+import com.cts.promocode.entity.HoldStatus;
 import com.cts.promocode.entity.PromoCode;
+import com.cts.promocode.entity.PromoCodeBatch;
+import com.cts.promocode.entity.PromoCodeCustomerUsage;
+import com.cts.promocode.entity.PromoCodeHold;
 import com.cts.promocode.entity.PromoCodeUsage;
+import com.cts.promocode.entity.PromoCodeUsageRollup;
+import com.cts.promocode.entity.RollupGranularity;
 import com.cts.promocode.exception.PromoCodeAlreadyUsedException;
 import com.cts.promocode.exception.PromoCodeException;
 import com.cts.promocode.exception.PromoCodeExpiredException;
 import com.cts.promocode.exception.PromoCodeInactiveException;
 import com.cts.promocode.exception.PromoCodeNotFoundException;
+import com.cts.promocode.repository.PromoCodeBatchRepository;
+import com.cts.promocode.repository.PromoCodeCustomerUsageRepository;
+import com.cts.promocode.repository.PromoCodeHoldRepository;
 import com.cts.promocode.repository.PromoCodeRepository;
 import com.cts.promocode.repository.PromoCodeUsageRepository;
+import com.cts.promocode.repository.PromoCodeUsageRollupRepository;
 import com.cts.promocode.service.PromoCodeService;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
@@ -34,21 +62,36 @@ import java.util.stream.Collectors;
 @Transactional
 public class PromoCodeServiceImpl implements PromoCodeService {
 
+    static final Duration HOLD_TTL = Duration.ofMinutes(5);
+    static final int HOLD_SWEEP_BATCH = 500;
+    private static final long HOLD_SWEEP_INTERVAL_MS = 10_000;
+    private static final int MAX_CODE_LENGTH = 50;
+    static final int MAX_USAGE_PAGE_SIZE = 5_000;
+    private static final Duration DEFAULT_ROLLUP_WINDOW = Duration.ofDays(30);
+
     private final PromoCodeRepository promoCodeRepository;
     private final PromoCodeUsageRepository promoCodeUsageRepository;
     private final ModelMapper modelMapper;
+    private final PromoCodeRegistry promoCodeRegistry;
+    private final PromoCodeCustomerUsageRepository customerUsageRepository;
+    private final PromoCodeHoldRepository holdRepository;
+    private final PromoCodeBatchRepository batchRepository;
+    private final PromoCodeBatchGenerator batchGenerator;
+    private final PromoCodeUsageRollupRepository rollupRepository;
 
     @Override
     public PromoCodeResponse createPromoCode(PromoCodeRequest request) {
-        if (promoCodeRepository.existsByCodeIgnoreCase(request.getCode())) {
+        String code = PromoCodeRegistry.normalize(request.getCode());
+        if (promoCodeRepository.existsByCode(code)) {
             throw new PromoCodeException("Promo code already exists");
         }
         PromoCode promoCode = modelMapper.map(request, PromoCode.class);
-        promoCode.setCode(request.getCode().toUpperCase());
+        promoCode.setCode(code);
         promoCode.setCreatedAt(LocalDateTime.now());
         promoCode.setUpdatedAt(LocalDateTime.now());
         promoCode.setTotalRedemptions(0);
         promoCode = promoCodeRepository.save(promoCode);
+        promoCodeRegistry.refreshAfterCommit(promoCode);
         return mapToResponse(promoCode);
     }
 
@@ -69,13 +112,17 @@ public class PromoCodeServiceImpl implements PromoCodeService {
         if (request.getValidUntil() != null) promoCode.setValidUntil(request.getValidUntil());
 
         promoCode.setUpdatedAt(LocalDateTime.now());
-        return mapToResponse(promoCodeRepository.save(promoCode));
+        promoCode = promoCodeRepository.save(promoCode);
+        promoCodeRegistry.refreshAfterCommit(promoCode);
+        return mapToResponse(promoCode);
     }
 
     @Override
     public void deletePromoCode(Long id) {
         PromoCode promoCode = getPromoCodeEntity(id);
+        customerUsageRepository.deleteByPromoCodeId(promoCode.getId());
         promoCodeRepository.delete(promoCode);
+        promoCodeRegistry.removeAfterCommit(promoCode.getCode());
     }
 
     @Override
@@ -85,7 +132,8 @@ public class PromoCodeServiceImpl implements PromoCodeService {
 
     @Override
     public List<PromoCodeResponse> getAllPromoCodes() {
-        return promoCodeRepository.findAll().stream()
+        // Campaign batches can hold millions of codes; they are reported through their batch instead.
+        return promoCodeRepository.findByBatchIdIsNull().stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
@@ -95,46 +143,228 @@ public class PromoCodeServiceImpl implements PromoCodeService {
         PromoCode promoCode = getPromoCodeEntity(id);
         promoCode.setValidUntil(request.getValidUntil());
         promoCode.setUpdatedAt(LocalDateTime.now());
-        return mapToResponse(promoCodeRepository.save(promoCode));
+        promoCode = promoCodeRepository.save(promoCode);
+        promoCodeRegistry.refreshAfterCommit(promoCode);
+        return mapToResponse(promoCode);
+    }
+
+    /** One page of raw usage rows in id order; pass the last usageId back as {@code afterId} for the next. */
+    @Override
+    @Transactional(readOnly = true)
+    public List<PromoCodeUsageResponse> getUsageForPromo(Long id, Long afterId, int limit) {
+        PromoCode promoCode = getPromoCodeEntity(id);
+        int pageSize = Math.max(1, Math.min(limit, MAX_USAGE_PAGE_SIZE));
+        return promoCodeUsageRepository.findPage(promoCode.getId(), afterId == null ? 0L : afterId,
+                PageRequest.of(0, pageSize));
     }
 
     @Override
-    public List<PromoCodeUsageResponse> getUsageForPromo(Long id) {
+    @Transactional(readOnly = true)
+    public List<PromoCodeUsageRollupResponse> getUsageRollups(Long id, RollupGranularity granularity,
+                                                              LocalDateTime from, LocalDateTime to) {
         PromoCode promoCode = getPromoCodeEntity(id);
-        return promoCodeUsageRepository.findByPromoCodeId(promoCode.getId()).stream()
-                .map(this::mapUsageToResponse)
+        LocalDateTime end = to == null ? LocalDateTime.now() : to;
+        LocalDateTime start = from == null ? end.minus(DEFAULT_ROLLUP_WINDOW) : from;
+        if (start.isAfter(end)) {
+            throw new PromoCodeException("from must not be after to");
+        }
+        return rollupRepository.findByPromoCodeIdAndGranularityAndBucketStartBetweenOrderByBucketStart(
+                        promoCode.getId(), granularity, granularity.bucketStart(start), end).stream()
+                .map(this::mapRollupToResponse)
                 .collect(Collectors.toList());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public PromoCodeValidationResponse validatePromo(PromoCodeValidationRequest request) {
-        PromoCode promoCode = promoCodeRepository.findByCodeIgnoreCase(request.getCode())
-                .orElseThrow(() -> new PromoCodeNotFoundException("Promo code not found"));
-        validatePromoEligibility(promoCode, request.getCustomerId(), request.getOrderTotal());
-        return buildValidationResponse(promoCode, request.getOrderTotal());
+        ActivePromo promo = findActivePromo(request.getCode());
+        validatePromoEligibility(promo, request.getCustomerId(), request.getOrderTotal());
+        return buildValidationResponse(promo, request.getOrderTotal());
+    }
+
+    /**
+     * Ranks every promo the order qualifies for by the discount it would give. Candidates
+     * come from the registry's minimum-order index; the customer's usage counters for all
+     * of them are read in one query.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<PromoCodeOfferResponse> findBestPromos(PromoCodeBestRequest request) {
+        BigDecimal orderTotal = request.getOrderTotal();
+        List<ActivePromo> candidates = promoCodeRegistry.applicable(orderTotal, LocalDateTime.now());
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+        List<Long> limitedIds = candidates.stream()
+                .filter(promo -> promo.usageLimitPerCustomer() != null)
+                .map(ActivePromo::id)
+                .collect(Collectors.toList());
+        Map<Long, Integer> usedCounts = new HashMap<>();
+        if (!limitedIds.isEmpty()) {
+            for (PromoCodeCustomerUsage usage : customerUsageRepository.findForCustomer(request.getCustomerId(), limitedIds)) {
+                usedCounts.put(usage.getId().getPromoCodeId(), usage.getUsedCount());
+            }
+        }
+        return candidates.stream()
+                .filter(promo -> promo.usageLimitPerCustomer() == null
+                        || usedCounts.getOrDefault(promo.id(), 0) < promo.usageLimitPerCustomer())
+                .map(promo -> mapToOffer(promo, orderTotal))
+                .sorted(Comparator.comparing(PromoCodeOfferResponse::getDiscountAmount).reversed()
+                        .thenComparing(PromoCodeOfferResponse::getCode))
+                .collect(Collectors.toList());
     }
 
     @Override
     public PromoCodeValidationResponse redeemPromo(PromoCodeRedeemRequest request) {
-        PromoCode promoCode = promoCodeRepository.findByCodeIgnoreCase(request.getCode())
-                .orElseThrow(() -> new PromoCodeNotFoundException("Promo code not found"));
-        validatePromoEligibility(promoCode, request.getCustomerId(), request.getOrderTotal());
+        ActivePromo promo = findActivePromo(request.getCode());
+        validatePromoEligibility(promo, request.getCustomerId(), request.getOrderTotal());
+        reserveRedemption(promo, request.getCustomerId());
 
         PromoCodeUsage usage = PromoCodeUsage.builder()
-                .promoCode(promoCode)
+                .promoCode(promoCodeRepository.getReferenceById(promo.id()))
                 .customerId(request.getCustomerId())
                 .customerEmail(request.getCustomerEmail())
                 .orderId(request.getOrderId())
                 .usedAt(LocalDateTime.now())
                 .orderTotal(request.getOrderTotal())
-                .discountApplied(calculateDiscount(promoCode, request.getOrderTotal()))
+                .discountApplied(calculateDiscount(promo, request.getOrderTotal()))
                 .build();
-        promoCodeUsageRepository.save(usage);
+        recordUsage(usage, promo.id());
+
+        return buildValidationResponse(promo, request.getOrderTotal());
+    }
+
+    @Override
+    public PromoCodeValidationResponse holdPromo(PromoCodeValidationRequest request) {
+        ActivePromo promo = findActivePromo(request.getCode());
+        validatePromoEligibility(promo, request.getCustomerId(), request.getOrderTotal());
+        reserveRedemption(promo, request.getCustomerId());
+
+        LocalDateTime now = LocalDateTime.now();
+        PromoCodeHold hold = PromoCodeHold.builder()
+                .token(UUID.randomUUID().toString())
+                .promoCode(promoCodeRepository.getReferenceById(promo.id()))
+                .customerId(request.getCustomerId())
+                .customerEmail(request.getCustomerEmail())
+                .orderTotal(request.getOrderTotal())
+                .discountAmount(calculateDiscount(promo, request.getOrderTotal()))
+                .status(HoldStatus.HELD)
+                .expiresAt(now.plus(HOLD_TTL))
+                .createdAt(now)
+                .build();
+        holdRepository.save(hold);
+
+        PromoCodeValidationResponse response = buildValidationResponse(promo, request.getOrderTotal());
+        response.setHoldToken(hold.getToken());
+        response.setHoldExpiresAt(hold.getExpiresAt());
+        return response;
+    }
+
+    /**
+     * Records the redemption for a hold. Safe to repeat. A hold that was already released
+     * or swept takes its redemption again without the limit check, because the order was
+     * placed with the discount when the hold was valid.
+     */
+    @Override
+    public void commitHold(String token, Integer orderId) {
+        PromoCodeHold hold = getHoldForUpdate(token);
+        if (hold.getStatus() == HoldStatus.COMMITTED) {
+            return;
+        }
+        PromoCode promoCode = hold.getPromoCode();
+        if (hold.getStatus() != HoldStatus.HELD) {
+            customerUsageRepository.createIfAbsent(promoCode.getId(), hold.getCustomerId());
+            adjustRedemptions(promoCode.getId(), promoCode.getCode(), hold.getCustomerId(), 1);
+        }
+        hold.setStatus(HoldStatus.COMMITTED);
+        hold.setOrderId(orderId);
+
+        PromoCodeUsage usage = PromoCodeUsage.builder()
+                .promoCode(promoCode)
+                .customerId(hold.getCustomerId())
+                .customerEmail(hold.getCustomerEmail())
+                .orderId(orderId)
+                .usedAt(LocalDateTime.now())
+                .orderTotal(hold.getOrderTotal())
+                .discountApplied(hold.getDiscountAmount())
+                .build();
+        recordUsage(usage, promoCode.getId());
+    }
+
+    @Override
+    public void releaseHold(String token) {
+        PromoCodeHold hold = getHoldForUpdate(token);
+        if (hold.getStatus() != HoldStatus.HELD) {
+            return;
+        }
+        hold.setStatus(HoldStatus.RELEASED);
+        PromoCode promoCode = hold.getPromoCode();
+        adjustRedemptions(promoCode.getId(), promoCode.getCode(), hold.getCustomerId(), -1);
+    }
+
+    /**
+     * Expires up to one batch of overdue holds and hands their reservations back with one
+     * counter update per promo and per promo/customer pair rather than per hold.
+     */
+    @Override
+    @Scheduled(fixedDelay = HOLD_SWEEP_INTERVAL_MS)
+    public int sweepExpiredHolds() {
+        List<PromoCodeHold> expired = holdRepository.findExpiredForUpdate(
+                HoldStatus.HELD, LocalDateTime.now(), PageRequest.of(0, HOLD_SWEEP_BATCH));
+        if (expired.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = new ArrayList<>();
+        Map<PromoCode, Map<Long, Integer>> returned = new HashMap<>();
+        for (PromoCodeHold hold : expired) {
+            ids.add(hold.getId());
+            returned.computeIfAbsent(hold.getPromoCode(), promo -> new HashMap<>())
+                    .merge(hold.getCustomerId(), 1, Integer::sum);
+        }
+        holdRepository.updateStatus(ids, HoldStatus.EXPIRED);
+
+        for (Map.Entry<PromoCode, Map<Long, Integer>> perPromo : returned.entrySet()) {
+            PromoCode promoCode = perPromo.getKey();
+            int total = 0;
+            for (Map.Entry<Long, Integer> perCustomer : perPromo.getValue().entrySet()) {
+                customerUsageRepository.adjust(promoCode.getId(), perCustomer.getKey(), -perCustomer.getValue());
+                total += perCustomer.getValue();
+            }
+            promoCodeRepository.adjustRedemptions(promoCode.getId(), -total);
+            promoCodeRegistry.adjustRedemptionsAfterCommit(promoCode.getCode(), -total);
+        }
+        return expired.size();
+    }
 
-        promoCode.setTotalRedemptions(promoCode.getTotalRedemptions() + 1);
-        promoCodeRepository.save(promoCode);
+    @Override
+    public PromoCodeBatchResponse generateBatch(PromoCodeBatchRequest request) {
+        String prefix = request.getPrefix() == null ? "" : PromoCodeRegistry.normalize(request.getPrefix());
+        if (prefix.length() + request.getCodeLength() > MAX_CODE_LENGTH) {
+            throw new PromoCodeException("Prefix and code length exceed " + MAX_CODE_LENGTH + " characters");
+        }
+        if (!request.getValidUntil().isAfter(request.getValidFrom())) {
+            throw new PromoCodeException("validUntil must be after validFrom");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        PromoCodeBatch batch = batchRepository.save(PromoCodeBatch.builder()
+                .prefix(prefix)
+                .title(request.getTitle())
+                .requestedCount(request.getCount())
+                .generatedCount(0)
+                .status(BatchStatus.RUNNING)
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+        batchGenerator.startAfterCommit(batch.getId(), prefix, request);
+        return mapBatchToResponse(batch);
+    }
 
-        return buildValidationResponse(promoCode, request.getOrderTotal());
+    @Override
+    @Transactional(readOnly = true)
+    public PromoCodeBatchResponse getBatch(Long id) {
+        return batchRepository.findById(id)
+                .map(this::mapBatchToResponse)
+                .orElseThrow(() -> new PromoCodeNotFoundException("Promo code batch not found"));
     }
 
     private PromoCodeResponse mapToResponse(PromoCode promoCode) {
@@ -158,17 +388,28 @@ public class PromoCodeServiceImpl implements PromoCodeService {
                 .build();
     }
 
-    private PromoCodeUsageResponse mapUsageToResponse(PromoCodeUsage usage) {
-        return PromoCodeUsageResponse.builder()
-                .usageId(usage.getId())
-                .promoCodeId(usage.getPromoCode().getId())
-                .code(usage.getPromoCode().getCode())
-                .customerId(usage.getCustomerId())
-                .customerEmail(usage.getCustomerEmail())
-                .orderId(usage.getOrderId())
-                .usedAt(usage.getUsedAt())
-                .orderTotal(usage.getOrderTotal())
-                .discountApplied(usage.getDiscountApplied())
+    private PromoCodeBatchResponse mapBatchToResponse(PromoCodeBatch batch) {
+        return PromoCodeBatchResponse.builder()
+                .id(batch.getId())
+                .prefix(batch.getPrefix())
+                .title(batch.getTitle())
+                .requestedCount(batch.getRequestedCount())
+                .generatedCount(batch.getGeneratedCount())
+                .status(batch.getStatus())
+                .errorMessage(batch.getErrorMessage())
+                .createdAt(batch.getCreatedAt())
+                .completedAt(batch.getCompletedAt())
+                .build();
+    }
+
+    private PromoCodeUsageRollupResponse mapRollupToResponse(PromoCodeUsageRollup rollup) {
+        return PromoCodeUsageRollupResponse.builder()
+                .granularity(rollup.getGranularity())
+                .bucketStart(rollup.getBucketStart())
+                .redemptions(rollup.getRedemptions())
+                .totalDiscount(rollup.getTotalDiscount())
+                .totalOrderValue(rollup.getTotalOrderValue())
+                .uniqueCustomers(CustomerSketch.estimate(rollup.getCustomerSketch()))
                 .build();
     }
 
@@ -177,62 +418,151 @@ public class PromoCodeServiceImpl implements PromoCodeService {
                 .orElseThrow(() -> new PromoCodeNotFoundException("Promo code not found"));
     }
 
-    private void validatePromoEligibility(PromoCode promoCode, Long customerId, BigDecimal orderTotal) {
+    /**
+     * Looks the code up in the registry. A miss goes to the database by exact normalized
+     * code, either to report why the code is unusable or to pick up a code created on
+     * another instance since the last reconcile; the registry adopts only the latter.
+     */
+    private ActivePromo findActivePromo(String code) {
+        ActivePromo promo = promoCodeRegistry.find(code);
+        if (promo != null) {
+            return promo;
+        }
+        PromoCode promoCode = promoCodeRegistry.load(code)
+                .orElseThrow(() -> new PromoCodeNotFoundException("Promo code not found"));
         if (!promoCode.isActive()) {
             throw new PromoCodeInactiveException("Promo code is inactive");
         }
-        if (promoCode.getValidFrom() != null && LocalDateTime.now().isBefore(promoCode.getValidFrom())) {
+        return ActivePromo.of(promoCode);
+    }
+
+    private void validatePromoEligibility(ActivePromo promo, Long customerId, BigDecimal orderTotal) {
+        LocalDateTime now = LocalDateTime.now();
+        if (!promo.active()) {
+            throw new PromoCodeInactiveException("Promo code is inactive");
+        }
+        if (promo.notYetValid(now)) {
             throw new PromoCodeExpiredException("Promo code is not yet active");
         }
-        if (promoCode.getValidUntil() != null && LocalDateTime.now().isAfter(promoCode.getValidUntil())) {
+        if (promo.expired(now)) {
             throw new PromoCodeExpiredException("Promo code has expired");
         }
-        if (promoCode.getMinOrderAmount() != null && orderTotal.compareTo(promoCode.getMinOrderAmount()) < 0) {
+        if (promo.minOrderAmount() != null && orderTotal.compareTo(promo.minOrderAmount()) < 0) {
             throw new PromoCodeException("Order total does not meet minimum requirement");
         }
-        if (promoCode.getMaxRedemptions() != null && promoCode.getTotalRedemptions() >= promoCode.getMaxRedemptions()) {
+        if (promo.redemptionLimitReached()) {
             throw new PromoCodeException("Promo code redemption limit reached");
         }
-        validateCustomerUsageLimit(promoCode, customerId);
+        validateCustomerUsageLimit(promo, customerId);
     }
 
-    private PromoCodeValidationResponse buildValidationResponse(PromoCode promoCode, BigDecimal orderTotal) {
-        BigDecimal discountAmount = calculateDiscount(promoCode, orderTotal);
+    private PromoCodeValidationResponse buildValidationResponse(ActivePromo promo, BigDecimal orderTotal) {
+        BigDecimal discountAmount = calculateDiscount(promo, orderTotal);
         BigDecimal finalAmount = orderTotal.subtract(discountAmount);
 
         return PromoCodeValidationResponse.builder()
-                .code(promoCode.getCode())
+                .code(promo.code())
                 .valid(true)
                 .message("Promo code applied successfully")
-                .discountType(promoCode.getDiscountType())
-                .discountValue(promoCode.getDiscountValue())
+                .discountType(promo.discountType())
+                .discountValue(promo.discountValue())
                 .discountAmount(discountAmount)
                 .finalAmount(finalAmount)
                 .build();
     }
 
-    private BigDecimal calculateDiscount(PromoCode promoCode, BigDecimal orderTotal) {
+    private PromoCodeOfferResponse mapToOffer(ActivePromo promo, BigDecimal orderTotal) {
+        BigDecimal discountAmount = calculateDiscount(promo, orderTotal);
+        return PromoCodeOfferResponse.builder()
+                .code(promo.code())
+                .discountType(promo.discountType())
+                .discountValue(promo.discountValue())
+                .discountAmount(discountAmount)
+                .finalAmount(orderTotal.subtract(discountAmount))
+                .validUntil(promo.validUntil())
+                .build();
+    }
+
+    private BigDecimal calculateDiscount(ActivePromo promo, BigDecimal orderTotal) {
         BigDecimal discountAmount = BigDecimal.ZERO;
-        if (promoCode.getDiscountType() == DiscountType.FLAT) {
-            discountAmount = promoCode.getDiscountValue();
-        } else if (promoCode.getDiscountType() == DiscountType.PERCENTAGE) {
-            discountAmount = orderTotal.multiply(promoCode.getDiscountValue())
+        if (promo.discountType() == DiscountType.FLAT) {
+            discountAmount = promo.discountValue();
+        } else if (promo.discountType() == DiscountType.PERCENTAGE) {
+            discountAmount = orderTotal.multiply(promo.discountValue())
                     .divide(BigDecimal.valueOf(100));
         }
 
-        if (promoCode.getMaxDiscountAmount() != null) {
-            discountAmount = discountAmount.min(promoCode.getMaxDiscountAmount());
+        if (promo.maxDiscountAmount() != null) {
+            discountAmount = discountAmount.min(promo.maxDiscountAmount());
         }
         return discountAmount.min(orderTotal);
     }
 
-    private void validateCustomerUsageLimit(PromoCode promoCode, Long customerId) {
-        if (promoCode.getUsageLimitPerCustomer() == null) {
+    private void validateCustomerUsageLimit(ActivePromo promo, Long customerId) {
+        if (promo.usageLimitPerCustomer() == null) {
             return;
         }
-        long count = promoCodeUsageRepository.countByPromoCodeIdAndCustomerId(promoCode.getId(), customerId);
-        if (count >= promoCode.getUsageLimitPerCustomer()) {
+        int used = customerUsageRepository.findUsedCount(promo.id(), customerId).orElse(0);
+        if (used >= promo.usageLimitPerCustomer()) {
+            throw new PromoCodeAlreadyUsedException("Promo code usage limit reached for this customer");
+        }
+    }
+
+    // The conditional increments are what actually enforce the limits: concurrent checkouts
+    // serialize on the counter rows and only one of them can take the last use.
+    private void reserveRedemption(ActivePromo promo, Long customerId) {
+        int limit = promo.usageLimitPerCustomer() == null ? Integer.MAX_VALUE : promo.usageLimitPerCustomer();
+        customerUsageRepository.createIfAbsent(promo.id(), customerId);
+        if (customerUsageRepository.incrementIfBelow(promo.id(), customerId, limit) == 0) {
             throw new PromoCodeAlreadyUsedException("Promo code usage limit reached for this customer");
         }
+        LocalDateTime now = LocalDateTime.now();
+        if (promoCodeRepository.incrementRedemptionsIfBelowMax(promo.id(), now) == 0) {
+            throw redemptionRejected(promo.id(), now);
+        }
+        promoCodeRegistry.adjustRedemptionsAfterCommit(promo.code(), 1);
+    }
+
+    // The cached copy passed validation but the row did not, e.g. the code was switched off or
+    // its window changed on another instance. Report what the row says.
+    private PromoCodeException redemptionRejected(Long promoCodeId, LocalDateTime now) {
+        PromoCode promoCode = promoCodeRepository.findById(promoCodeId).orElse(null);
+        if (promoCode == null || !promoCode.isActive()) {
+            return new PromoCodeInactiveException("Promo code is inactive");
+        }
+        if (promoCode.getValidFrom() != null && now.isBefore(promoCode.getValidFrom())) {
+            return new PromoCodeExpiredException("Promo code is not yet active");
+        }
+        if (promoCode.getValidUntil() != null && !now.isBefore(promoCode.getValidUntil())) {
+            return new PromoCodeExpiredException("Promo code has expired");
+        }
+        return new PromoCodeException("Promo code redemption limit reached");
+    }
+
+    private void adjustRedemptions(Long promoCodeId, String code, Long customerId, int delta) {
+        customerUsageRepository.adjust(promoCodeId, customerId, delta);
+        promoCodeRepository.adjustRedemptions(promoCodeId, delta);
+        promoCodeRegistry.adjustRedemptionsAfterCommit(code, delta);
+    }
+
+    // Rollups are bumped in the same transaction as the usage row, so they never count a
+    // redemption that rolled back.
+    private void recordUsage(PromoCodeUsage usage, Long promoCodeId) {
+        promoCodeUsageRepository.save(usage);
+        BigDecimal discount = usage.getDiscountApplied() == null ? BigDecimal.ZERO : usage.getDiscountApplied();
+        BigDecimal orderTotal = usage.getOrderTotal() == null ? BigDecimal.ZERO : usage.getOrderTotal();
+        long customerId = usage.getCustomerId();
+        byte[] sketch = CustomerSketch.of(customerId);
+        int register = CustomerSketch.register(customerId);
+        int rank = CustomerSketch.rank(customerId);
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            rollupRepository.record(promoCodeId, granularity.name(), granularity.bucketStart(usage.getUsedAt()),
+                    discount, orderTotal, sketch, register, rank);
+        }
+    }
+
+    private PromoCodeHold getHoldForUpdate(String token) {
+        return holdRepository.findByTokenForUpdate(token)
+                .orElseThrow(() -> new PromoCodeNotFoundException("Promo hold not found"));
     }
 }
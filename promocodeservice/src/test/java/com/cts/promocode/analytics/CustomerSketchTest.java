@@ -0,0 +1,95 @@
+package com.cts.promocode.analytics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CustomerSketchTest {
+
+    @Test
+    @DisplayName("Positive: Estimates for 10k and 100k distinct customers are off by about 3% on average")
+    void estimate_TypicalErrorAboutThreePercent() {
+        for (int customers : new int[] {10_000, 100_000}) {
+            double squaredErrors = 0;
+            double errors = 0;
+            int sets = 20;
+            for (int set = 0; set < sets; set++) {
+                double error = relativeError(set * 1_000_000_000L, customers);
+                errors += error;
+                squaredErrors += error * error;
+            }
+            double rmse = Math.sqrt(squaredErrors / sets);
+            assertTrue(rmse <= 0.04, customers + " customers: rms error " + rmse);
+            assertTrue(Math.abs(errors / sets) <= 0.015, customers + " customers: bias " + errors / sets);
+        }
+    }
+
+    @Test
+    @DisplayName("Positive: A single set of 10k or 100k customers lands within two standard errors")
+    void estimate_SingleSetWithinTwoStandardErrors() {
+        // 1.04 / sqrt(1024) is about 3.25%.
+        assertTrue(Math.abs(relativeError(0, 10_000)) <= 0.065);
+        assertTrue(Math.abs(relativeError(0, 100_000)) <= 0.065);
+    }
+
+    @Test
+    @DisplayName("Positive: Small counts are close enough to read off a dashboard")
+    void estimate_SmallCounts() {
+        assertEquals(0, CustomerSketch.estimate(new byte[CustomerSketch.REGISTERS]));
+        assertEquals(1, CustomerSketch.estimate(CustomerSketch.of(42)));
+        assertTrue(Math.abs(relativeError(0, 100)) <= 0.08);
+    }
+
+    @Test
+    @DisplayName("Positive: Recording the same customers again does not change the estimate")
+    void estimate_IgnoresRepeats() {
+        byte[] sketch = new byte[CustomerSketch.REGISTERS];
+        for (long customerId = 1; customerId <= 5_000; customerId++) {
+            raise(sketch, customerId);
+        }
+        long firstPass = CustomerSketch.estimate(sketch);
+        for (long customerId = 1; customerId <= 5_000; customerId++) {
+            raise(sketch, customerId);
+        }
+
+        assertEquals(firstPass, CustomerSketch.estimate(sketch));
+    }
+
+    @Test
+    @DisplayName("Positive: Registers and ranks stay inside the sketch for any customer id")
+    void registerAndRank_InRange() {
+        long[] ids = {0, 1, -1, Long.MAX_VALUE, Long.MIN_VALUE, 123_456_789L};
+        for (long id : ids) {
+            int register = CustomerSketch.register(id);
+            int rank = CustomerSketch.rank(id);
+            assertTrue(register >= 0 && register < CustomerSketch.REGISTERS, "register " + register);
+            assertTrue(rank >= 1 && rank <= 64 - CustomerSketch.PRECISION + 1, "rank " + rank);
+        }
+        for (long id = 0; id < 100_000; id++) {
+            int register = CustomerSketch.register(id);
+            assertTrue(register >= 0 && register < CustomerSketch.REGISTERS);
+        }
+    }
+
+    @Test
+    @DisplayName("Negative: A sketch of the wrong size estimates nothing")
+    void estimate_RejectsMalformedSketch() {
+        assertEquals(0, CustomerSketch.estimate(null));
+        assertEquals(0, CustomerSketch.estimate(new byte[16]));
+    }
+
+    private static double relativeError(long firstCustomerId, int customers) {
+        byte[] sketch = new byte[CustomerSketch.REGISTERS];
+        for (long customerId = firstCustomerId; customerId < firstCustomerId + customers; customerId++) {
+            raise(sketch, customerId);
+        }
+        return (CustomerSketch.estimate(sketch) - customers) / (double) customers;
+    }
+
+    // Same update the rollup upsert performs in SQL: keep the larger rank per register.
+    private static void raise(byte[] sketch, long customerId) {
+        int register = CustomerSketch.register(customerId);
+        sketch[register] = (byte) Math.max(sketch[register], CustomerSketch.rank(customerId));
+    }
+}
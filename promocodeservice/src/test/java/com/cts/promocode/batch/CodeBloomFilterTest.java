@@ -0,0 +1,51 @@
+package com.cts.promocode.batch;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CodeBloomFilterTest {
+
+    @Test
+    @DisplayName("Positive: Every added code is reported as present")
+    void mightContain_NoFalseNegatives() {
+        CodeBloomFilter filter = new CodeBloomFilter(100_000, 0.01);
+        for (int i = 0; i < 100_000; i++) {
+            filter.add("SPRING" + i);
+        }
+
+        for (int i = 0; i < 100_000; i++) {
+            assertTrue(filter.mightContain("SPRING" + i));
+        }
+    }
+
+    @Test
+    @DisplayName("Positive: False-positive rate at 1M codes stays close to the configured 1%")
+    void mightContain_FalsePositiveRateNearTarget() {
+        int codes = 1_000_000;
+        CodeBloomFilter filter = new CodeBloomFilter(codes, 0.01);
+        for (int i = 0; i < codes; i++) {
+            filter.add("EXISTING" + i);
+        }
+
+        int probes = 200_000;
+        int falsePositives = 0;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("UNSEEN" + i)) {
+                falsePositives++;
+            }
+        }
+
+        double rate = (double) falsePositives / probes;
+        assertTrue(rate < 0.015, "false-positive rate " + rate);
+    }
+
+    @Test
+    @DisplayName("Negative: An empty filter reports nothing as present")
+    void mightContain_EmptyFilter() {
+        CodeBloomFilter filter = new CodeBloomFilter(0, 0.01);
+
+        assertFalse(filter.mightContain("ANY"));
+    }
+}
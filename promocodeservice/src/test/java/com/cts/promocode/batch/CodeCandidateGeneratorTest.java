@@ -0,0 +1,92 @@
+package com.cts.promocode.batch;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CodeCandidateGeneratorTest {
+
+    @Test
+    @DisplayName("Positive: Candidates carry the prefix, the requested length and only alphabet characters")
+    void fill_ShapesCodes() {
+        CodeCandidateGenerator generator = new CodeCandidateGenerator(new Random(7));
+        List<String> chunk = new ArrayList<>();
+
+        generator.fill(chunk, 1_000, "SUMMER", 8, new CodeBloomFilter(1_000, 0.01));
+
+        assertEquals(1_000, chunk.size());
+        for (String code : chunk) {
+            assertTrue(code.startsWith("SUMMER"));
+            assertEquals(14, code.length());
+            for (char c : code.substring(6).toCharArray()) {
+                assertTrue(CodeCandidateGenerator.ALPHABET.indexOf(c) >= 0, code);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Negative: Codes already known to the filter are never proposed")
+    void fill_SkipsKnownCodes() {
+        // Two-character codes give only 1,024 possibilities, so collisions are guaranteed.
+        CodeBloomFilter known = new CodeBloomFilter(2_000, 0.0001);
+        Set<String> existing = new HashSet<>();
+        List<String> seed = new ArrayList<>();
+        new CodeCandidateGenerator(new Random(1)).fill(seed, 500, "", 2, known);
+        existing.addAll(seed);
+
+        List<String> chunk = new ArrayList<>();
+        int rejected = new CodeCandidateGenerator(new Random(2)).fill(chunk, 300, "", 2, known);
+
+        assertTrue(rejected > 0);
+        assertEquals(300, new HashSet<>(chunk).size());
+        for (String code : chunk) {
+            assertFalse(existing.contains(code), code);
+        }
+    }
+
+    /**
+     * Timing harness for a 1M-code campaign next to 1M existing codes: seeds the filter
+     * the way the generator does and produces the full batch in CHUNK_SIZE chunks. The
+     * database writes are not included. Prints the timings and checks every code is new.
+     */
+    @Test
+    @DisplayName("Positive: One million unique candidates are generated against one million existing codes")
+    void fill_OneMillionCodes() {
+        int existingCodes = 1_000_000;
+        int batchSize = 1_000_000;
+        CodeCandidateGenerator generator = new CodeCandidateGenerator(new Random(42));
+
+        long seedStarted = System.nanoTime();
+        CodeBloomFilter known = new CodeBloomFilter(existingCodes + batchSize, PromoCodeBatchGenerator.FALSE_POSITIVE_RATE);
+        List<String> existing = new ArrayList<>(existingCodes);
+        while (existing.size() < existingCodes) {
+            generator.fill(existing, Math.min(existing.size() + PromoCodeBatchGenerator.CHUNK_SIZE, existingCodes),
+                    "CAMP", 8, known);
+        }
+        long seedMillis = (System.nanoTime() - seedStarted) / 1_000_000;
+
+        long started = System.nanoTime();
+        Set<String> generated = new HashSet<>(batchSize * 2);
+        List<String> chunk = new ArrayList<>(PromoCodeBatchGenerator.CHUNK_SIZE);
+        long rejected = 0;
+        while (generated.size() < batchSize) {
+            chunk.clear();
+            rejected += generator.fill(chunk, Math.min(PromoCodeBatchGenerator.CHUNK_SIZE, batchSize - generated.size()),
+                    "CAMP", 8, known);
+            generated.addAll(chunk);
+        }
+        long generateMillis = (System.nanoTime() - started) / 1_000_000;
+        System.out.println("Seeded " + existingCodes + " codes in " + seedMillis + " ms; generated " + batchSize
+                + " codes in " + generateMillis + " ms with " + rejected + " candidates rejected");
+
+        assertEquals(batchSize, generated.size());
+        existing.forEach(code -> assertFalse(generated.contains(code), code));
+    }
+}
@@ -0,0 +1,196 @@
+package com.cts.promocode.cache;
+
+import com.cts.promocode.entity.DiscountType;
+import com.cts.promocode.entity.PromoCode;
+import com.cts.promocode.repository.PromoCodeRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class PromoCodeRegistryTest {
+
+    @Mock
+    private PromoCodeRepository promoCodeRepository;
+
+    private PromoCodeRegistry registry;
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @BeforeEach
+    void setUp() {
+        registry = new PromoCodeRegistry(promoCodeRepository);
+    }
+
+    @Test
+    @DisplayName("Positive: Order totals at, between and beyond the minimums pick exactly the promos they qualify for")
+    void applicable_MinimumOrderBoundaries() {
+        loaded(promo(1L, "ANY", null), promo(2L, "ZERO", "0"), promo(3L, "HUNDRED", "100"),
+                promo(4L, "HUNDRED2", "100.00"), promo(5L, "FIVEHUNDRED", "500"));
+
+        assertEquals(List.of("ANY", "ZERO"), codes(new BigDecimal("0")));
+        assertEquals(List.of("ANY", "ZERO"), codes(new BigDecimal("99.99")));
+        assertEquals(List.of("ANY", "ZERO", "HUNDRED", "HUNDRED2"), codes(new BigDecimal("100")));
+        assertEquals(List.of("ANY", "ZERO", "HUNDRED", "HUNDRED2"), codes(new BigDecimal("499.99")));
+        assertEquals(List.of("ANY", "ZERO", "HUNDRED", "HUNDRED2", "FIVEHUNDRED"), codes(new BigDecimal("500")));
+        assertEquals(5, codes(new BigDecimal("1000000")).size());
+    }
+
+    @Test
+    @DisplayName("Negative: A total below every minimum, or an empty registry, gets no promos")
+    void applicable_NothingQualifies() {
+        loaded(promo(1L, "FIFTY", "50"), promo(2L, "HUNDRED", "100"));
+        assertTrue(registry.applicable(new BigDecimal("49.99"), now).isEmpty());
+
+        PromoCodeRegistry empty = new PromoCodeRegistry(promoCodeRepository);
+        when(promoCodeRepository.findByActiveTrueAndValidUntilAfterAndBatchIdIsNull(any())).thenReturn(List.of());
+        assertTrue(empty.applicable(new BigDecimal("100"), now).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Negative: Batch codes, codes not yet valid and fully redeemed codes are never offered")
+    void applicable_SkipsIneligiblePromos() {
+        PromoCode batch = promo(1L, "BATCH", "10");
+        batch.setBatchId(7L);
+        PromoCode future = promo(2L, "FUTURE", "10");
+        future.setValidFrom(now.plusDays(1));
+        PromoCode exhausted = promo(3L, "EXHAUSTED", "10");
+        exhausted.setMaxRedemptions(5);
+        exhausted.setTotalRedemptions(5);
+        loaded(batch, future, exhausted, promo(4L, "OPEN", "10"));
+
+        assertEquals(List.of("OPEN"), codes(new BigDecimal("20")));
+    }
+
+    @Test
+    @DisplayName("Positive: The sorted index follows a code added after the first lookup")
+    void applicable_RebuildsIndexAfterChange() {
+        loaded(promo(1L, "HUNDRED", "100"));
+        assertEquals(List.of("HUNDRED"), codes(new BigDecimal("150")));
+
+        registry.refreshAfterCommit(promo(2L, "FIFTY", "50"));
+
+        assertEquals(List.of("FIFTY", "HUNDRED"), codes(new BigDecimal("150")));
+        assertEquals(List.of("FIFTY"), codes(new BigDecimal("50")));
+    }
+
+    @Test
+    @DisplayName("Positive: A code missing from the registry is adopted once and found without another query")
+    void load_AdoptsCodeReconcileWouldLoad() {
+        loaded();
+        PromoCode created = promo(4L, "NEWCODE", null);
+        when(promoCodeRepository.findByCode("NEWCODE")).thenReturn(Optional.of(created));
+
+        assertSame(created, registry.load("newcode").orElseThrow());
+
+        assertEquals("NEWCODE", registry.find("newcode").code());
+        verify(promoCodeRepository, times(1)).findByCode("NEWCODE");
+    }
+
+    @Test
+    @DisplayName("Negative: Batch, expired, open-ended and inactive codes are read but never adopted")
+    void load_SkipsCodesReconcileWouldNotLoad() {
+        loaded();
+        PromoCode batch = promo(5L, "BATCH1", null);
+        batch.setBatchId(9L);
+        PromoCode expired = promo(6L, "OLD", null);
+        expired.setValidUntil(now.minusDays(1));
+        PromoCode openEnded = promo(7L, "OPEN", null);
+        openEnded.setValidUntil(null);
+        PromoCode inactive = promo(8L, "OFF", null);
+        inactive.setActive(false);
+        for (PromoCode promoCode : List.of(batch, expired, openEnded, inactive)) {
+            when(promoCodeRepository.findByCode(promoCode.getCode())).thenReturn(Optional.of(promoCode));
+
+            assertTrue(registry.load(promoCode.getCode()).isPresent());
+            assertNull(registry.find(promoCode.getCode()));
+        }
+    }
+
+    @Test
+    @DisplayName("Positive: Adopting a code while a reconcile is loading does not make it discard its result")
+    void reconcile_KeepsResultAcrossAdoptions() {
+        loaded();
+        PromoCode adopted = promo(4L, "NEWCODE", null);
+        when(promoCodeRepository.findByCode("NEWCODE")).thenReturn(Optional.of(adopted));
+        when(promoCodeRepository.findByActiveTrueAndValidUntilAfterAndBatchIdIsNull(any())).thenAnswer(invocation -> {
+            registry.load("NEWCODE");
+            return new ArrayList<>(List.of(promo(1L, "OTHER", null)));
+        });
+
+        registry.reconcile();
+
+        assertNotNull(registry.find("OTHER"));
+    }
+
+    @Test
+    @DisplayName("Negative: A code removed here while its row was being read is not adopted back")
+    void load_SkipsCodeChangedDuringRead() {
+        loaded();
+        when(promoCodeRepository.findByCode("GONE")).thenAnswer(invocation -> {
+            registry.removeAfterCommit("GONE");
+            return Optional.of(promo(4L, "GONE", null));
+        });
+
+        assertTrue(registry.load("GONE").isPresent());
+
+        assertNull(registry.find("GONE"));
+    }
+
+    @Test
+    @DisplayName("Positive: A code saved here while a reconcile is loading keeps its local state")
+    void reconcile_CarriesOverLocalChanges() {
+        loaded(promo(1L, "SAVE10", "100"));
+        PromoCode updated = promo(1L, "SAVE10", "200");
+        when(promoCodeRepository.findByActiveTrueAndValidUntilAfterAndBatchIdIsNull(any())).thenAnswer(invocation -> {
+            registry.refreshAfterCommit(updated);
+            registry.removeAfterCommit("DROPPED");
+            return new ArrayList<>(List.of(promo(1L, "SAVE10", "100"), promo(2L, "DROPPED", null),
+                    promo(3L, "OTHER", null)));
+        });
+
+        registry.reconcile();
+
+        assertEquals(new BigDecimal("200"), registry.find("SAVE10").minOrderAmount());
+        assertNull(registry.find("DROPPED"));
+        assertNotNull(registry.find("OTHER"));
+    }
+
+    private void loaded(PromoCode... promoCodes) {
+        when(promoCodeRepository.findByActiveTrueAndValidUntilAfterAndBatchIdIsNull(any()))
+                .thenReturn(new ArrayList<>(List.of(promoCodes)));
+        registry.reconcile();
+    }
+
+    private List<String> codes(BigDecimal orderTotal) {
+        return registry.applicable(orderTotal, now).stream().map(ActivePromo::code).toList();
+    }
+
+    private PromoCode promo(Long id, String code, String minOrderAmount) {
+        PromoCode promoCode = new PromoCode();
+        promoCode.setId(id);
+        promoCode.setCode(code);
+        promoCode.setTitle(code);
+        promoCode.setDiscountType(DiscountType.FLAT);
+        promoCode.setDiscountValue(BigDecimal.TEN);
+        promoCode.setMinOrderAmount(minOrderAmount == null ? null : new BigDecimal(minOrderAmount));
+        promoCode.setValidFrom(now.minusDays(1));
+        promoCode.setValidUntil(now.plusDays(30));
+        return promoCode;
+    }
+}
@@ -0,0 +1,100 @@
+package com.cts.promocode.repository;
+
+import com.cts.promocode.analytics.CustomerSketch;
+import com.cts.promocode.entity.PromoCodeUsageRollup;
+import com.cts.promocode.entity.RollupGranularity;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the rollup upsert on MySQL, since the register splice uses MySQL-only functions.
+ * Every test rolls back.
+ */
+public class PromoCodeUsageRollupRepositoryTest extends MySqlRepositoryTest {
+
+    private static final long PROMO_CODE_ID = -4242L;
+    private static final LocalDateTime BUCKET = LocalDateTime.of(2026, 1, 1, 10, 0);
+
+    @Autowired
+    private PromoCodeUsageRollupRepository rollupRepository;
+
+    @Test
+    @DisplayName("Positive: Repeated upserts add up totals and splice each customer's register in place")
+    void record_SplicesRegistersIntoOneRow() {
+        long first = customerInRegister(0);
+        long last = customerInRegister(CustomerSketch.REGISTERS - 1);
+        long middle = customerInRegister(CustomerSketch.REGISTERS / 2);
+        byte[] expected = new byte[CustomerSketch.REGISTERS];
+
+        for (long customerId : new long[] {middle, first, last, first}) {
+            record(customerId);
+            raise(expected, customerId);
+        }
+
+        PromoCodeUsageRollup rollup = bucket();
+        assertEquals(4, rollup.getRedemptions());
+        assertEquals(0, new BigDecimal("40.00").compareTo(rollup.getTotalDiscount()));
+        assertEquals(0, new BigDecimal("800.00").compareTo(rollup.getTotalOrderValue()));
+        assertEquals(CustomerSketch.REGISTERS, rollup.getCustomerSketch().length);
+        assertArrayEquals(expected, rollup.getCustomerSketch());
+        assertEquals(3, CustomerSketch.estimate(rollup.getCustomerSketch()));
+    }
+
+    @Test
+    @DisplayName("Negative: A lower rank never lowers a register another customer already raised")
+    void record_KeepsHigherRank() {
+        long[] pair = sameRegisterDifferentRanks();
+        long higher = CustomerSketch.rank(pair[0]) > CustomerSketch.rank(pair[1]) ? pair[0] : pair[1];
+        long lower = higher == pair[0] ? pair[1] : pair[0];
+
+        record(higher);
+        record(lower);
+
+        byte[] sketch = bucket().getCustomerSketch();
+        assertEquals(CustomerSketch.rank(higher), sketch[CustomerSketch.register(higher)]);
+    }
+
+    private void record(long customerId) {
+        rollupRepository.record(PROMO_CODE_ID, RollupGranularity.HOUR.name(), BUCKET, BigDecimal.TEN,
+                new BigDecimal("200"), CustomerSketch.of(customerId),
+                CustomerSketch.register(customerId), CustomerSketch.rank(customerId));
+    }
+
+    private PromoCodeUsageRollup bucket() {
+        List<PromoCodeUsageRollup> rollups = rollupRepository
+                .findByPromoCodeIdAndGranularityAndBucketStartBetweenOrderByBucketStart(
+                        PROMO_CODE_ID, RollupGranularity.HOUR, BUCKET, BUCKET);
+        assertEquals(1, rollups.size());
+        return rollups.get(0);
+    }
+
+    private static long customerInRegister(int register) {
+        for (long customerId = 1; ; customerId++) {
+            if (CustomerSketch.register(customerId) == register) {
+                return customerId;
+            }
+        }
+    }
+
+    private static long[] sameRegisterDifferentRanks() {
+        long first = customerInRegister(17);
+        for (long customerId = first + 1; ; customerId++) {
+            if (CustomerSketch.register(customerId) == 17 && CustomerSketch.rank(customerId) != CustomerSketch.rank(first)) {
+                return new long[] {first, customerId};
+            }
+        }
+    }
+
+    private static void raise(byte[] sketch, long customerId) {
+        int register = CustomerSketch.register(customerId);
+        sketch[register] = (byte) Math.max(sketch[register], CustomerSketch.rank(customerId));
+    }
+}
@@ -0,0 +1,83 @@
+package com.cts.client;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.client.RestClient;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Tells every running FOODSERVICEAPP instance to drop its cached copy of a user.
+ * Each instance keeps its own cache, so the call goes to all of them rather than
+ * through the load balancer. Failures are logged only; the cache TTL covers them.
+ * Inside a transaction the call waits for the commit, otherwise an instance could
+ * re-read and cache the old row. The calls run on a background thread with short
+ * timeouts so a slow instance never holds up the request that changed the user.
+ */
+@Component
+public class FoodServiceCacheClient {
+
+    private static final String FOOD_SERVICE_ID = "FOODSERVICEAPP";
+    private static final String SYSTEM_USER_EMAIL = "userservice@system";
+    private static final String SYSTEM_USER_ROLE = "SYSTEM";
+    private static final int CONNECT_TIMEOUT_MILLIS = 500;
+    private static final int READ_TIMEOUT_MILLIS = 1000;
+
+    private final DiscoveryClient discoveryClient;
+    private final RestClient restClient;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "food-cache-invalidation");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public FoodServiceCacheClient(DiscoveryClient discoveryClient) {
+        this.discoveryClient = discoveryClient;
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+        requestFactory.setReadTimeout(READ_TIMEOUT_MILLIS);
+        this.restClient = RestClient.builder().requestFactory(requestFactory).build();
+    }
+
+    public void invalidateUser(long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            send(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                send(userId);
+            }
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    private void send(long userId) {
+        executor.execute(() -> {
+            for (ServiceInstance instance : discoveryClient.getInstances(FOOD_SERVICE_ID)) {
+                try {
+                    restClient.delete()
+                            .uri(instance.getUri() + "/api/v1/cache/users/{id}", userId)
+                            .header("X-User-Email", SYSTEM_USER_EMAIL)
+                            .header("X-User-Role", SYSTEM_USER_ROLE)
+                            .retrieve()
+                            .toBodilessEntity();
+                } catch (Exception e) {
+                    System.err.println("Warning: Failed to invalidate cached user " + userId + " on " + instance.getUri() + ": " + e.getMessage());
+                }
+            }
+        });
+    }
+}
@@ -4,6 +4,7 @@ import com.cts.dto.request.LoginRequestDTO;
 import com.cts.dto.request.RegisterCustomerRequestDTO;
 import com.cts.dto.request.RegisterDeliveryPartnerRequestDTO;
 import com.cts.dto.response.*;
+import com.cts.exception.UnauthorizedActionException;
 import com.cts.service.AuthService;
 import com.cts.service.UserService;
 import com.cts.service.impl.AuthServiceImpl;
@@ -12,8 +13,11 @@ import com.cts.service.impl.UserServiceImpl;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -77,6 +81,16 @@ public class UserController {
         return new ResponseEntity<>(partners, HttpStatus.OK);
     }
     
+    @Operation(summary = "Reserve a Free Delivery Partner")
+    @PostMapping("/deliverypartners/reserve")
+    public ResponseEntity<UserResponseDTO> reserveAvailablePartner(
+        @RequestParam(required = false) Long partnerId,
+        @RequestParam(required = false) String location
+    ) {
+        UserResponseDTO partner = userService.reserveAvailablePartner(partnerId, location);
+        return new ResponseEntity<>(partner, HttpStatus.OK);
+    }
+    
     @Operation(summary = "Search Active Customers by Name")
     @GetMapping("/customers/search")
     public ResponseEntity<List<UserResponseDTO>> searchActiveCustomersByName(
@@ -106,6 +120,14 @@ public class UserController {
 
     }
     
+    @Operation(summary = "Get users by Ids in a single lookup")
+    @PostMapping("/batch")
+    public ResponseEntity<List<UserResponseDTO>> getUsersByIds(
+            @RequestBody @Size(max = 200, message = "At most 200 users can be looked up at once") List<Long> ids) {
+        List<UserResponseDTO> users = userService.getUsersByIds(ids);
+        return new ResponseEntity<>(users, HttpStatus.OK);
+    }
+    
     @Operation(summary = "Get user by Email")
     @GetMapping("/email/{email}")
     public ResponseEntity<?> getUserByEmail(@PathVariable String email) {
@@ -146,6 +168,10 @@ public class UserController {
         @RequestParam Boolean available,
         @RequestParam(name = "systemUpdate", defaultValue = "false") boolean systemUpdate
     ) {
+        // A system update releases the order lock, so only foodserviceapp may send one.
+        if (systemUpdate && !isSystemCaller()) {
+            throw new UnauthorizedActionException("Only the system can release an assigned delivery partner");
+        }
         UserResponseDTO updatedUser = userService.updateAvailabilityStatus(id, available, systemUpdate);
         return new ResponseEntity<>(updatedUser, HttpStatus.OK);
     }
@@ -163,9 +189,16 @@ public class UserController {
     @Operation(summary = "Update Total Orders of User")
     @PutMapping("/totalorder/update")
     public ResponseEntity<UserResponseDTO> updateTotalOrders(
-    		@RequestParam long id
+    		@RequestParam long id,
+    		@RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey
 	) {
-		UserResponseDTO updatedUser = userService.updateTotalOrders(id);
+		UserResponseDTO updatedUser = userService.updateTotalOrders(id, idempotencyKey);
 		return new ResponseEntity<>(updatedUser, HttpStatus.OK);
 	}
+
+    private static boolean isSystemCaller() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_SYSTEM".equals(authority.getAuthority()));
+    }
 }
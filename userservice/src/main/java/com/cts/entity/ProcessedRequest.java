@@ -0,0 +1,27 @@
+package com.cts.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Idempotency key of a non-idempotent update that has already been applied,
+ * so a retried call from another service is not counted twice.
+ */
+@Entity
+@Table(name = "processed_request")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProcessedRequest {
+	@Id
+	@Column(name = "idempotency_key", length = 64)
+	private String idempotencyKey;
+	@Column(name = "processed_at", nullable = false)
+	private LocalDateTime processedAt;
+}
@@ -36,5 +36,8 @@ public class User {
 	private String role;
 	@Column(columnDefinition = "int default 0")
 	private int totalOrders = 0;
+	@Version
+	@Column(nullable = false, columnDefinition = "bigint default 0")
+	private long version;
 
 }
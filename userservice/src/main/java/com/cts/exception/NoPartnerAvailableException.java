@@ -0,0 +1,7 @@
+package com.cts.exception;
+
+public class NoPartnerAvailableException extends RuntimeException {
+	public NoPartnerAvailableException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,8 @@
+package com.cts.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import com.cts.entity.ProcessedRequest;
+
+public interface ProcessedRequestRepository extends JpaRepository<ProcessedRequest, String> {
+
+}
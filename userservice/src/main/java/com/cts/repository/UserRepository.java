@@ -1,8 +1,12 @@
 package com.cts.repository;
 
 import java.util.List;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import com.cts.entity.User;
 
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -15,4 +19,25 @@ public interface UserRepository extends JpaRepository<User, Long> {
 	@Query("SELECT u FROM User u WHERE Type(u) = DeliveryPartner")
 	List<User> findAllDeliveryPartners();
 
+	@Query("SELECT d.id FROM DeliveryPartner d WHERE d.status = true AND d.availabilityStatus = true"
+			+ " ORDER BY d.totalOrders, d.id")
+	List<Long> findAvailablePartnerIds(Pageable pageable);
+
+	@Query("SELECT d.id FROM DeliveryPartner d WHERE d.status = true AND d.availabilityStatus = true"
+			+ " AND LOWER(d.location) = LOWER(:location) ORDER BY d.totalOrders, d.id")
+	List<Long> findAvailablePartnerIdsByLocation(@Param("location") String location, Pageable pageable);
+
+	// Claims the partner only if still free; the row lock makes concurrent claims mutually exclusive.
+	@Modifying(clearAutomatically = true)
+	@Transactional
+	@Query("UPDATE DeliveryPartner d SET d.availabilityStatus = false, d.availabilityLocked = true,"
+			+ " d.version = d.version + 1 WHERE d.id = :id AND d.status = true AND d.availabilityStatus = true")
+	int reserveIfAvailable(@Param("id") long id);
+
+	// Counted in SQL so it never clashes with a concurrent load-and-save of the same user; the
+	// version bump makes such a save fail and retry rather than write back a stale count.
+	@Modifying(clearAutomatically = true)
+	@Query("UPDATE User u SET u.totalOrders = u.totalOrders + 1, u.version = u.version + 1 WHERE u.id = :id")
+	int incrementTotalOrders(@Param("id") long id);
+
 }
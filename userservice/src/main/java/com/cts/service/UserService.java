@@ -9,6 +9,7 @@ import java.util.List;
 public interface UserService {
 	public List<UserResponseDTO> findAllUsers(String userType);
 	public UserResponseDTO getUserById(long id);
+	public List<UserResponseDTO> getUsersByIds(List<Long> ids);
 	public UserResponseDTO getUserByEmail(String email);
 	public String deleteUser(long id);
 	public RegisterCustomerResponseDTO updateCustomer(RegisterCustomerRequestDTO registerRequestDTO);
@@ -19,7 +20,8 @@ public interface UserService {
 	public List<UserResponseDTO> searchActiveCustomersByName(String name);
 	public List<UserResponseDTO> getActiveDeliveryPartners();
 	public List<UserResponseDTO> getActiveCustomers();
-	public UserResponseDTO updateTotalOrders(long id);
+	public UserResponseDTO updateTotalOrders(long id, String idempotencyKey);
+	public UserResponseDTO reserveAvailablePartner(Long preferredPartnerId, String location);
 	
 
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.cts.service.impl;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 
@@ -8,15 +9,21 @@ import com.cts.dto.request.RegisterDeliveryPartnerRequestDTO;
 import com.cts.dto.response.*;
 import com.cts.entity.Customer;
 import com.cts.entity.DeliveryPartner;
+import com.cts.entity.ProcessedRequest;
 import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import com.cts.client.FoodServiceCacheClient;
 import com.cts.entity.User;
+import com.cts.exception.NoPartnerAvailableException;
 import com.cts.exception.UserNotFoundException;
 import com.cts.repository.CustomerRepository;
 import com.cts.repository.DeliveryPartnerRepository;
+import com.cts.repository.ProcessedRequestRepository;
 import com.cts.repository.UserRepository;
 import com.cts.service.UserService;
 
@@ -31,6 +38,11 @@ public class UserServiceImpl implements UserService {
 	private DeliveryPartnerRepository dpRepo;
 	private final ModelMapper modelMapper;
 	private final PasswordEncoder passwordEncoder;
+	private final FoodServiceCacheClient foodServiceCacheClient;
+	private final ProcessedRequestRepository processedRequestRepo;
+
+	private static final int RESERVE_CANDIDATES = 20;
+	private static final int RESERVE_ROUNDS = 5;
 
 
 
@@ -53,6 +65,14 @@ public class UserServiceImpl implements UserService {
 		return modelMapper.map(existingUser, UserResponseDTO.class);
 	}
 
+	public List<UserResponseDTO> getUsersByIds(List<Long> ids) {
+		if (ids == null || ids.isEmpty()) {
+			return List.of();
+		}
+		List<User> users = userRepo.findAllById(ids);
+		return Arrays.asList(modelMapper.map(users, UserResponseDTO[].class));
+	}
+
 	public UserResponseDTO getUserByEmail(String email) {
 		User existingUser = userRepo.findByEmail(email);
 		if (existingUser == null) {
@@ -66,6 +86,7 @@ public class UserServiceImpl implements UserService {
 		if (user != null) {
 			user.setStatus(false);
 			userRepo.save(user);
+			foodServiceCacheClient.invalidateUser(id);
 			return "Succesfully deleted user with " + id;
 		} else {
 			return " User Not Found";
@@ -103,6 +124,7 @@ public class UserServiceImpl implements UserService {
 				((Customer) existingUser).setPhno(registerRequestDTO.getPhno());
 			}
 			Customer updatedCustomer = cusRepo.save((Customer) existingUser);
+			foodServiceCacheClient.invalidateUser(updatedCustomer.getId());
 			
 			return modelMapper.map(updatedCustomer, RegisterCustomerResponseDTO.class);
 		}
@@ -137,6 +159,7 @@ public class UserServiceImpl implements UserService {
 			((DeliveryPartner) existingUser).setPhno(registerDeliveryPartnerDTO.getPhno());
 		}
 		DeliveryPartner updatedDeliveryPartner = dpRepo.save((DeliveryPartner) existingUser);
+		foodServiceCacheClient.invalidateUser(updatedDeliveryPartner.getId());
 		return modelMapper.map(updatedDeliveryPartner, RegisterDeliveryPartnerResponseDTO.class);
 	}
 	
@@ -157,6 +180,7 @@ public class UserServiceImpl implements UserService {
 			user.setAvailabilityLocked(!available);
 		}
 		User updatedUser = userRepo.save(user);
+		foodServiceCacheClient.invalidateUser(id);
 		return modelMapper.map(updatedUser, UserResponseDTO.class);
 	}
 	
@@ -186,20 +210,62 @@ public class UserServiceImpl implements UserService {
 			.orElseThrow(() -> new UserNotFoundException("User not found with id: " + id));
 		user.setStatus(status);
 		User updatedUser = userRepo.save(user);
+		foodServiceCacheClient.invalidateUser(id);
 		return modelMapper.map(updatedUser, UserResponseDTO.class);
 	}
 	
-	public UserResponseDTO updateTotalOrders(long id) {
+	@Transactional
+	public UserResponseDTO updateTotalOrders(long id, String idempotencyKey) {
 		User user = userRepo.findById(id)
 			.orElseThrow(() -> new UserNotFoundException("User not found with id: " + id));
-		user.setTotalOrders(user.getTotalOrders() + 1);
-		User updatedUser = userRepo.save(user);
+		if (idempotencyKey != null) {
+			if (processedRequestRepo.existsById(idempotencyKey)) {
+				return modelMapper.map(user, UserResponseDTO.class);
+			}
+			processedRequestRepo.save(new ProcessedRequest(idempotencyKey, LocalDateTime.now()));
+		}
+		userRepo.incrementTotalOrders(id);
+		User updatedUser = userRepo.findById(id)
+			.orElseThrow(() -> new UserNotFoundException("User not found with id: " + id));
+		foodServiceCacheClient.invalidateUser(id);
 		return modelMapper.map(updatedUser, UserResponseDTO.class);
 	}
-}
-
-
-
-
 
+	/**
+	 * Claims one free delivery partner. Each claim is a conditional UPDATE, so a partner
+	 * can only be handed to one caller however many reserve concurrently. The caller's
+	 * preferred partner is tried first, then the least-loaded free partners (in the
+	 * delivery location when one is given).
+	 */
+	public UserResponseDTO reserveAvailablePartner(Long preferredPartnerId, String location) {
+		if (preferredPartnerId != null && userRepo.reserveIfAvailable(preferredPartnerId) == 1) {
+			return reserved(preferredPartnerId);
+		}
+		// Candidates can be taken between the read and the claim, so re-read a few times.
+		for (int round = 0; round < RESERVE_ROUNDS; round++) {
+			List<Long> candidates = List.of();
+			if (location != null && !location.isBlank()) {
+				candidates = userRepo.findAvailablePartnerIdsByLocation(location.trim(), PageRequest.of(0, RESERVE_CANDIDATES));
+			}
+			if (candidates.isEmpty()) {
+				candidates = userRepo.findAvailablePartnerIds(PageRequest.of(0, RESERVE_CANDIDATES));
+			}
+			if (candidates.isEmpty()) {
+				break;
+			}
+			for (Long candidateId : candidates) {
+				if (userRepo.reserveIfAvailable(candidateId) == 1) {
+					return reserved(candidateId);
+				}
+			}
+		}
+		throw new NoPartnerAvailableException("No available delivery partners at the moment. Please try again later.");
+	}
 
+	private UserResponseDTO reserved(long id) {
+		foodServiceCacheClient.invalidateUser(id);
+		User partner = userRepo.findById(id)
+			.orElseThrow(() -> new UserNotFoundException("User not found with id: " + id));
+		return modelMapper.map(partner, UserResponseDTO.class);
+	}
+}
@@ -2,8 +2,10 @@ package com.cts.controller;
 
 import com.cts.dto.request.LoginRequestDTO;
 import com.cts.dto.response.*;
+import com.cts.exception.UnauthorizedActionException;
 import com.cts.service.AuthService;
 import com.cts.service.UserService;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,9 +15,18 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,6 +45,11 @@ public class UserControllerTest {
     private LoginResponseDTO loginResponseDTO;
     private UserResponseDTO userResponseDTO;
 
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
     @BeforeEach
     void setUp() {
         loginRequestDTO = new LoginRequestDTO();
@@ -110,4 +126,33 @@ public class UserControllerTest {
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
         assertEquals("User not found", response.getBody());
     }
+
+    @Test
+    @DisplayName("Negative: A customer cannot send a system availability update that releases a partner")
+    void updateAvailabilityStatus_SystemUpdateRequiresSystemRole() {
+        authenticateAs("CUSTOMER");
+
+        assertThrows(UnauthorizedActionException.class,
+                () -> userController.updateAvailabilityStatus(5L, true, true));
+        verify(userService, never()).updateAvailabilityStatus(anyLong(), any(), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("Positive: The system can release a partner, and partners can still toggle themselves")
+    void updateAvailabilityStatus_SystemAndPartnerUpdates() {
+        when(userService.updateAvailabilityStatus(anyLong(), any(), anyBoolean())).thenReturn(userResponseDTO);
+
+        authenticateAs("SYSTEM");
+        assertEquals(HttpStatus.OK, userController.updateAvailabilityStatus(5L, true, true).getStatusCode());
+        authenticateAs("DELIVERY_PARTNER");
+        assertEquals(HttpStatus.OK, userController.updateAvailabilityStatus(5L, false, false).getStatusCode());
+
+        verify(userService).updateAvailabilityStatus(5L, true, true);
+        verify(userService).updateAvailabilityStatus(5L, false, false);
+    }
+
+    private void authenticateAs(String role) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "caller@example.com", null, List.of(new SimpleGrantedAuthority("ROLE_" + role))));
+    }
 }
@@ -0,0 +1,139 @@
+package com.cts.repository;
+
+import com.cts.entity.DeliveryPartner;
+import com.cts.entity.User;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the conditional partner UPDATEs on MySQL from many threads at once, so the row locking
+ * is exercised for real. The tests have to commit, so each one deletes the users it made.
+ */
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class UserRepositoryTest extends MySqlRepositoryTest {
+
+    private static final int THREADS = 32;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("Positive: Concurrent reservations of the same partners succeed exactly once per partner")
+    void reserveIfAvailable_OneWinnerPerPartner() throws Exception {
+        List<User> partners = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            partners.add(userRepository.save(partner(i)));
+        }
+        Map<Long, AtomicInteger> wins = new ConcurrentHashMap<>();
+        try {
+            race(() -> {
+                for (User partner : partners) {
+                    if (userRepository.reserveIfAvailable(partner.getId()) == 1) {
+                        wins.computeIfAbsent(partner.getId(), id -> new AtomicInteger()).incrementAndGet();
+                    }
+                }
+                return null;
+            });
+
+            for (User partner : partners) {
+                assertEquals(1, wins.get(partner.getId()).get());
+                User reserved = userRepository.findById(partner.getId()).orElseThrow();
+                assertFalse(reserved.getAvailabilityStatus());
+                assertTrue(reserved.isAvailabilityLocked());
+                assertEquals(partner.getVersion() + 1, reserved.getVersion());
+            }
+        } finally {
+            userRepository.deleteAll(partners);
+        }
+    }
+
+    @Test
+    @DisplayName("Negative: An inactive partner cannot be reserved")
+    void reserveIfAvailable_InactivePartner() {
+        User partner = partner(0);
+        partner.setStatus(false);
+        partner = userRepository.save(partner);
+        try {
+            assertEquals(0, userRepository.reserveIfAvailable(partner.getId()));
+            assertTrue(userRepository.findById(partner.getId()).orElseThrow().getAvailabilityStatus());
+        } finally {
+            userRepository.delete(partner);
+        }
+    }
+
+    @Test
+    @DisplayName("Positive: Concurrent total order increments are all counted and each bumps the version")
+    void incrementTotalOrders_ConcurrentIncrementsAreCounted() throws Exception {
+        int incrementsPerThread = 25;
+        User partner = userRepository.save(partner(0));
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        try {
+            race(() -> {
+                for (int i = 0; i < incrementsPerThread; i++) {
+                    transaction.executeWithoutResult(status -> userRepository.incrementTotalOrders(partner.getId()));
+                }
+                return null;
+            });
+
+            User counted = userRepository.findById(partner.getId()).orElseThrow();
+            assertEquals(THREADS * incrementsPerThread, counted.getTotalOrders());
+            assertEquals(partner.getVersion() + THREADS * incrementsPerThread, counted.getVersion());
+        } finally {
+            userRepository.delete(partner);
+        }
+    }
+
+    private void race(Callable<Void> work) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Void>> results = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return work.call();
+                }));
+            }
+            start.countDown();
+            for (Future<Void> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private DeliveryPartner partner(int index) {
+        String unique = System.nanoTime() + "" + index;
+        DeliveryPartner partner = new DeliveryPartner();
+        partner.setEmail("partner" + unique + "@repository.test");
+        partner.setPassword("password");
+        partner.setName("Repository Test Partner");
+        partner.setPhno(unique);
+        partner.setLocation("Test City");
+        return partner;
+    }
+}
@@ -1,12 +1,15 @@
 package com.cts.service;
 
+import com.cts.client.FoodServiceCacheClient;
 import com.cts.config.JWTUtil;
 import com.cts.dto.response.UserResponseDTO;
 import com.cts.entity.User;
+import com.cts.exception.NoPartnerAvailableException;
 import com.cts.exception.UserNotFoundException;
 import com.cts.repository.AuthRepository;
 import com.cts.repository.CustomerRepository;
 import com.cts.repository.DeliveryPartnerRepository;
+import com.cts.repository.ProcessedRequestRepository;
 import com.cts.repository.UserRepository;
 import com.cts.service.impl.UserInfoConfigManager;
 import com.cts.service.impl.UserServiceImpl;
@@ -21,9 +24,24 @@ import org.modelmapper.ModelMapper;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -56,6 +74,12 @@ public class UserServiceImplTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private FoodServiceCacheClient foodServiceCacheClient;
+
+    @Mock
+    private ProcessedRequestRepository processedRequestRepo;
+
     private UserServiceImpl userService;
 
     private User user;
@@ -63,7 +87,8 @@ public class UserServiceImplTest {
 
     @BeforeEach
     void setUp() {
-        userService = new UserServiceImpl(userRepo, cusRepo, dpRepo, modelMapper, passwordEncoder);
+        userService = new UserServiceImpl(userRepo, cusRepo, dpRepo, modelMapper, passwordEncoder, foodServiceCacheClient,
+                processedRequestRepo);
 
         try {
             java.lang.reflect.Field userRepoField = UserServiceImpl.class.getDeclaredField("userRepo");
@@ -116,4 +141,128 @@ public class UserServiceImplTest {
             userService.getUserById(999L);
         });
     }
+
+    @Test
+    @DisplayName("Positive: Get users by IDs in one repository call")
+    void getUsersByIds_Success() {
+        List<Long> ids = List.of(1L, 2L);
+        List<User> users = List.of(user);
+        when(userRepo.findAllById(ids)).thenReturn(users);
+        when(modelMapper.map(users, UserResponseDTO[].class)).thenReturn(new UserResponseDTO[] {userResponseDTO});
+
+        List<UserResponseDTO> result = userService.getUsersByIds(ids);
+
+        assertEquals(1, result.size());
+        assertEquals("john@example.com", result.get(0).getEmail());
+    }
+
+    @Test
+    @DisplayName("Positive: Updating user status invalidates the cached user")
+    void updateUserStatus_InvalidatesCache() {
+        when(userRepo.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepo.save(user)).thenReturn(user);
+        when(modelMapper.map(user, UserResponseDTO.class)).thenReturn(userResponseDTO);
+
+        userService.updateUserStatus(1L, false);
+
+        assertFalse(user.isStatus());
+        verify(foodServiceCacheClient).invalidateUser(1L);
+    }
+
+    @Test
+    @DisplayName("Negative: Replayed total order update with the same idempotency key is not counted twice")
+    void updateTotalOrders_DuplicateKeyIgnored() {
+        user.setTotalOrders(3);
+        when(userRepo.findById(1L)).thenReturn(Optional.of(user));
+        when(processedRequestRepo.existsById("key-1")).thenReturn(true);
+        when(modelMapper.map(user, UserResponseDTO.class)).thenReturn(userResponseDTO);
+
+        userService.updateTotalOrders(1L, "key-1");
+
+        assertEquals(3, user.getTotalOrders());
+        verify(userRepo, never()).save(any());
+        verify(userRepo, never()).incrementTotalOrders(anyLong());
+        verify(processedRequestRepo, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Positive: Total orders are incremented in SQL instead of saving the loaded user")
+    void updateTotalOrders_IncrementsInPlace() {
+        when(userRepo.findById(1L)).thenReturn(Optional.of(user));
+        when(processedRequestRepo.existsById("key-1")).thenReturn(false);
+        when(userRepo.incrementTotalOrders(1L)).thenReturn(1);
+        when(modelMapper.map(user, UserResponseDTO.class)).thenReturn(userResponseDTO);
+
+        userService.updateTotalOrders(1L, "key-1");
+
+        verify(userRepo).incrementTotalOrders(1L);
+        verify(userRepo, never()).save(any());
+        verify(processedRequestRepo).save(any());
+        verify(foodServiceCacheClient).invalidateUser(1L);
+    }
+
+    @Test
+    @DisplayName("Positive: Thousands of concurrent reservations never hand out the same partner twice")
+    void reserveAvailablePartner_ConcurrentReservationsAreUnique() throws Exception {
+        int partnerCount = 500;
+        int reservations = 2000;
+        Map<Long, AtomicBoolean> free = new ConcurrentHashMap<>();
+        for (long id = 1; id <= partnerCount; id++) {
+            free.put(id, new AtomicBoolean(true));
+        }
+        // Stands in for the conditional UPDATE: only one caller can flip a row from free to reserved.
+        // This checks the retry loop; UserRepositoryTest races the real UPDATE on MySQL.
+        when(userRepo.reserveIfAvailable(anyLong()))
+                .thenAnswer(invocation -> free.get((Long) invocation.getArgument(0)).compareAndSet(true, false) ? 1 : 0);
+        when(userRepo.findAvailablePartnerIds(any())).thenAnswer(invocation -> {
+            List<Long> ids = new ArrayList<>();
+            for (long id = 1; id <= partnerCount && ids.size() < 20; id++) {
+                if (free.get(id).get()) {
+                    ids.add(id);
+                }
+            }
+            return ids;
+        });
+        when(userRepo.findById(anyLong())).thenAnswer(invocation -> {
+            User partner = new User();
+            partner.setId(invocation.getArgument(0));
+            return Optional.of(partner);
+        });
+        when(modelMapper.map(any(User.class), eq(UserResponseDTO.class))).thenAnswer(invocation -> {
+            UserResponseDTO dto = new UserResponseDTO();
+            dto.setId(((User) invocation.getArgument(0)).getId());
+            return dto;
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> results = new ArrayList<>();
+        for (int i = 0; i < reservations; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                try {
+                    return userService.reserveAvailablePartner(null, null).getId();
+                } catch (NoPartnerAvailableException ex) {
+                    return null;
+                }
+            }));
+        }
+        start.countDown();
+        Set<Long> reserved = ConcurrentHashMap.newKeySet();
+        int duplicates = 0;
+        int rejected = 0;
+        for (Future<Long> result : results) {
+            Long id = result.get();
+            if (id == null) {
+                rejected++;
+            } else if (!reserved.add(id)) {
+                duplicates++;
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(0, duplicates);
+        assertEquals(partnerCount, reserved.size());
+        assertEquals(reservations - partnerCount, rejected);
+    }
 }